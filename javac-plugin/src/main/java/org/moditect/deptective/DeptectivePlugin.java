@@ -15,16 +15,25 @@
  */
 package org.moditect.deptective;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import javax.tools.JavaFileManager;
 
 import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import org.moditect.deptective.internal.AsyncCompletion;
 import org.moditect.deptective.internal.DeptectiveTreeVisitor;
 import org.moditect.deptective.internal.handler.PackageReferenceHandler;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
 import org.moditect.deptective.internal.log.Log;
 import org.moditect.deptective.internal.model.ConfigLoader;
 import org.moditect.deptective.internal.options.DeptectiveOptions;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+import org.moditect.deptective.internal.util.Platform;
 
+import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
 import com.sun.source.util.JavacTask;
 import com.sun.source.util.Plugin;
 import com.sun.source.util.TaskEvent;
@@ -37,7 +46,8 @@ import com.sun.tools.javac.util.JavacMessages;
 public class DeptectivePlugin implements Plugin {
 
     /**
-     * {@link TaskEvent.Kind} doesn't support COMPILATION on JDK 8, hence it's resembled here.
+     * {@link TaskEvent.Kind} doesn't support COMPILATION on JDK 8, hence it's resembled here, see
+     * {@link Platform#hasCompilationEvent()}.
      */
     private enum TaskEventKind {
         PARSE,
@@ -47,8 +57,6 @@ public class DeptectivePlugin implements Plugin {
         OTHER;
     }
 
-    private static final boolean HAS_KIND_COMPILATION = hasKindCompilation();
-
     @Override
     public String getName() {
         return "Deptective";
@@ -65,6 +73,12 @@ public class DeptectivePlugin implements Plugin {
                 context.get(JavacMessages.messagesKey)
         );
 
+        options.getInvalidOptions().forEach(
+                (option, value) -> log.report(
+                        ReportingPolicy.WARN, DeptectiveMessages.INVALID_OPTION_VALUE, option.getName(), value
+                )
+        );
+
         PackageReferenceHandler handler = options.getPluginTask()
                 .getPackageReferenceHandler(
                         context.get(JavaFileManager.class),
@@ -75,48 +89,95 @@ public class DeptectivePlugin implements Plugin {
                 );
 
         if (handler.configIsValid()) {
+            AsyncCompletion completion = new AsyncCompletion(handler, log, options.getOutputTimeout());
+
             task.addTaskListener(new TaskListener() {
 
                 private int sourceFileCount = 0;
                 private int analyzed = 0;
 
+                /**
+                 * The number of ANALYZE events still expected for each parsed compilation unit, i.e. one per
+                 * top-level type, or one for units without any types (package-info, module-info).
+                 */
+                private final Map<CompilationUnitTree, Integer> pendingAnalyses = new IdentityHashMap<>();
+
                 @Override
                 public void started(TaskEvent e) {
                 }
 
                 @Override
                 public void finished(TaskEvent e) {
+                    // the completion didn't finish in time and may still be using the handler
+                    if (completion.isAbandoned()) {
+                        return;
+                    }
+
                     TaskEventKind kind = getTaskEventKind(e.getKind(), sourceFileCount, analyzed);
 
                     if (kind == TaskEventKind.PARSE) {
                         sourceFileCount++;
+                        pendingAnalyses.put(e.getCompilationUnit(), getExpectedAnalyses(e.getCompilationUnit()));
                     }
                     else if (kind == TaskEventKind.ANALYZE || kind == TaskEventKind.LAST_ANALYZE) {
                         analyzed++;
 
+                        // more sources are analyzed than anticipated, e.g. due to annotation processing, so the
+                        // output created in the background so far is incomplete
+                        if (completion.isStarted()) {
+                            completion.discard();
+
+                            if (completion.isAbandoned()) {
+                                return;
+                            }
+                        }
+
                         CompilationUnitTree compilationUnit = e.getCompilationUnit();
                         new DeptectiveTreeVisitor(task, log, handler).scan(compilationUnit, null);
+                        pendingAnalyses
+                                .computeIfPresent(compilationUnit, (cu, pending) -> pending > 1 ? pending - 1 : null);
 
                         // On JDK 8 there's no callback for the completion of the compilation,
                         // so this handler is invoked after analyzing the last source file
                         if (kind == TaskEventKind.LAST_ANALYZE) {
-                            handler.onCompletingCompilation();
+                            completion.start();
+                            completion.join();
+                        }
+                        // all sources have been analyzed, so the output can be created while the
+                        // compiler is generating the remaining class files
+                        else if (Platform.hasCompilationEvent() && pendingAnalyses.isEmpty()) {
+                            completion.start();
                         }
                     }
                     else if (kind == TaskEventKind.COMPILATION) {
-                        handler.onCompletingCompilation();
+                        if (!completion.isStarted()) {
+                            completion.start();
+                        }
+                        completion.join();
                     }
                 }
             });
         }
     }
 
+    private static int getExpectedAnalyses(CompilationUnitTree compilationUnit) {
+        int types = 0;
+
+        for (Tree typeDeclaration : compilationUnit.getTypeDecls()) {
+            if (typeDeclaration instanceof ClassTree) {
+                types++;
+            }
+        }
+
+        return Math.max(types, 1);
+    }
+
     private TaskEventKind getTaskEventKind(TaskEvent.Kind kind, int totalSourceFiles, int analyzedSourceFiles) {
         if (kind == Kind.PARSE) {
             return TaskEventKind.PARSE;
         }
         else if (kind == Kind.ANALYZE) {
-            if (!HAS_KIND_COMPILATION && analyzedSourceFiles >= totalSourceFiles - 1) {
+            if (!Platform.hasCompilationEvent() && analyzedSourceFiles >= totalSourceFiles - 1) {
                 return TaskEventKind.LAST_ANALYZE;
             }
             else {
@@ -124,21 +185,11 @@ public class DeptectivePlugin implements Plugin {
             }
 
         }
-        else if (kind.name().equals("COMPILATION")) {
+        else if (Platform.isCompilationEvent(kind)) {
             return TaskEventKind.COMPILATION;
         }
         else {
             return TaskEventKind.OTHER;
         }
     }
-
-    private static boolean hasKindCompilation() {
-        for (TaskEvent.Kind kind : TaskEvent.Kind.values()) {
-            if (kind.name().equals("COMPILATION")) {
-                return true;
-            }
-        }
-
-        return false;
-    }
 }
@@ -0,0 +1,79 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.moditect.deptective.internal.index.ReverseDependencyIndex;
+
+/**
+ * Determines the components affected by changes to the given components or packages, i.e. the changed components
+ * themselves and all components depending on them, directly or transitively, based on the reverse dependency index
+ * created by the plug-in in {@code ANALYZE} mode with {@code reverse_index=true}.
+ *
+ * <pre>
+ *     java org.moditect.deptective.cli.Affected &lt;deptective-reverse.idx&gt; [&lt;package or component&gt;...]
+ * </pre>
+ *
+ * If no packages or components are given, they are read from standard input, one per line. The affected components
+ * are printed one per line, in alphabetical order; names which are neither a component nor a package of the index are
+ * reported on standard error.
+ */
+public class Affected {
+
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Affected <deptective-reverse.idx> [<package or component>...]");
+            System.exit(2);
+        }
+
+        ReverseDependencyIndex index = ReverseDependencyIndex.open(Paths.get(args[0]));
+
+        List<String> changed = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+        if (changed.isEmpty()) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    changed.add(line.trim());
+                }
+            }
+        }
+
+        int[] components = new int[changed.size()];
+        int count = 0;
+        for (String name : changed) {
+            int component = index.resolve(name);
+            if (component == -1) {
+                System.err.println("Unknown package or component: " + name);
+            }
+            else {
+                components[count++] = component;
+            }
+        }
+
+        for (int component : index.getDependents(Arrays.copyOf(components, count))) {
+            System.out.println(index.getName(component));
+        }
+    }
+}
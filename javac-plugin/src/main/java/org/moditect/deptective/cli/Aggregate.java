@@ -0,0 +1,137 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.moditect.deptective.internal.aggregate.AggregatedModel;
+import org.moditect.deptective.internal.aggregate.ModelAggregator;
+
+/**
+ * Merges the {@code deptective.json} files of multiple modules into one global model and reports any cycles in
+ * there, in particular those spanning multiple modules.
+ *
+ * <pre>
+ *     java org.moditect.deptective.cli.Aggregate [--output &lt;dir&gt;] [--fail-on-cycles] &lt;file or dir&gt;...
+ * </pre>
+ *
+ * Given directories are searched recursively for files named {@code deptective.json}; each such file is
+ * considered the model of one module, named after its directory relative to the given one. The global model is
+ * written to {@code deptective-global.json} and {@code deptective-global.dot} in the output directory.
+ */
+public class Aggregate {
+
+    private static final String MODEL_FILE_NAME = "deptective.json";
+
+    public static void main(String... args) throws IOException {
+        Path outputDir = Paths.get(".");
+        boolean failOnCycles = false;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--output".equals(args[i]) && i + 1 < args.length) {
+                outputDir = Paths.get(args[++i]);
+            }
+            else if ("--fail-on-cycles".equals(args[i])) {
+                failOnCycles = true;
+            }
+            else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            System.err.println(
+                    "Usage: Aggregate [--output <dir>] [--fail-on-cycles] <deptective.json file or directory>..."
+            );
+            System.exit(2);
+        }
+
+        ModelAggregator aggregator = new ModelAggregator();
+
+        for (Path input : inputs) {
+            for (Path model : findModels(input)) {
+                try (InputStream is = Files.newInputStream(model)) {
+                    aggregator.addModel(moduleName(input, model), is);
+                }
+            }
+        }
+
+        AggregatedModel result = aggregator.aggregate();
+
+        Files.createDirectories(outputDir);
+        try (Writer writer = Files.newBufferedWriter(
+                outputDir.resolve("deptective-global.json"), StandardCharsets.UTF_8
+        )) {
+            result.writeJson(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(
+                outputDir.resolve("deptective-global.dot"), StandardCharsets.UTF_8
+        )) {
+            result.writeDot(writer);
+        }
+
+        List<List<String>> cycles = result.getCycles();
+
+        System.out.println(
+                "Aggregated " + result.getModules().size() + " module(s) into " + result.getGraph().size()
+                        + " component(s) and " + result.getGraph().getEdgeCount() + " read(s)"
+        );
+
+        for (List<String> cycle : cycles) {
+            System.out.println(
+                    "Cycle between modules " + result.getModulesOfCycle(cycle) + ": " + String.join(", ", cycle)
+            );
+        }
+
+        if (failOnCycles && !cycles.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Path> findModels(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return Collections.singletonList(input);
+        }
+
+        try (Stream<Path> files = Files.walk(input)) {
+            return files.filter(f -> f.getFileName().toString().equals(MODEL_FILE_NAME))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String moduleName(Path input, Path model) {
+        Path dir = model.getParent();
+
+        if (Files.isDirectory(input) && dir != null && !dir.equals(input)) {
+            return input.relativize(dir).toString();
+        }
+
+        return dir != null ? dir.toString() : model.toString();
+    }
+}
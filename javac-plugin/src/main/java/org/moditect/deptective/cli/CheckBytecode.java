@@ -0,0 +1,215 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import org.moditect.deptective.internal.bytecode.ClassFileScanner;
+import org.moditect.deptective.internal.bytecode.ClassReferenceValidator;
+import org.moditect.deptective.internal.bytecode.ClassReferenceValidator.Result;
+import org.moditect.deptective.internal.bytecode.ClassReferenceValidator.Violation;
+import org.moditect.deptective.internal.bytecode.ClassReferences;
+import org.moditect.deptective.internal.export.DotSerializer;
+import org.moditect.deptective.internal.graph.Cycle;
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.model.ConfigParser;
+import org.moditect.deptective.internal.model.ForbiddenTransitiveDependency;
+import org.moditect.deptective.internal.model.IdentifiableComponent;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+
+/**
+ * Validates the class files of directories or JARs, e.g. third-party libraries which aren't compiled as part of the
+ * project, against a {@code deptective.json} configuration, using the same rules as the compiler plug-in.
+ *
+ * <pre>
+ *     java org.moditect.deptective.cli.CheckBytecode --config &lt;deptective.json&gt;
+ *         [--reporting-policy ERROR|WARN] [--unconfigured-package-reporting-policy ERROR|WARN]
+ *         [--cycle-reporting-policy ERROR|WARN] [--dot &lt;file&gt;] &lt;class directory, JAR or class file&gt;...
+ * </pre>
+ *
+ * The process exits with status 1 if at least one problem was reported as error.
+ */
+public class CheckBytecode {
+
+    private static final DeptectiveMessages MESSAGES = new DeptectiveMessages();
+
+    private int errorCount;
+
+    public static void main(String... args) throws IOException {
+        int status = check(args);
+
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the check with the given command line arguments.
+     *
+     * @return The exit status, i.e. 0 if no problem was reported as error, 1 otherwise, or 2 if the arguments are
+     *         invalid
+     */
+    static int check(String... args) throws IOException {
+        Path config = null;
+        Path dotFile = null;
+        ReportingPolicy reportingPolicy = ReportingPolicy.ERROR;
+        ReportingPolicy unconfiguredPackageReportingPolicy = ReportingPolicy.WARN;
+        ReportingPolicy cycleReportingPolicy = ReportingPolicy.ERROR;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--config".equals(args[i]) && i + 1 < args.length) {
+                config = Paths.get(args[++i]);
+            }
+            else if ("--dot".equals(args[i]) && i + 1 < args.length) {
+                dotFile = Paths.get(args[++i]);
+            }
+            else if ("--reporting-policy".equals(args[i]) && i + 1 < args.length) {
+                reportingPolicy = ReportingPolicy.valueOf(args[++i].trim().toUpperCase());
+            }
+            else if ("--unconfigured-package-reporting-policy".equals(args[i]) && i + 1 < args.length) {
+                unconfiguredPackageReportingPolicy = ReportingPolicy.valueOf(args[++i].trim().toUpperCase());
+            }
+            else if ("--cycle-reporting-policy".equals(args[i]) && i + 1 < args.length) {
+                cycleReportingPolicy = ReportingPolicy.valueOf(args[++i].trim().toUpperCase());
+            }
+            else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+
+        if (config == null || inputs.isEmpty()) {
+            System.err.println(
+                    "Usage: CheckBytecode --config <deptective.json> [--reporting-policy ERROR|WARN] "
+                            + "[--unconfigured-package-reporting-policy ERROR|WARN] "
+                            + "[--cycle-reporting-policy ERROR|WARN] [--dot <file>] "
+                            + "<class directory, JAR or class file>..."
+            );
+            return 2;
+        }
+
+        PackageDependencies allowedPackageDependencies;
+        try (InputStream is = Files.newInputStream(config)) {
+            allowedPackageDependencies = new ConfigParser(is).getPackageDependencies();
+        }
+
+        List<ClassReferences> classes = new ClassFileScanner().scan(inputs);
+        Result result = new ClassReferenceValidator(allowedPackageDependencies).validate(classes);
+
+        CheckBytecode check = new CheckBytecode();
+
+        for (Entry<String, List<String>> ambiguous : result.getPackagesInMultipleComponents().entrySet()) {
+            check.report(
+                    ReportingPolicy.ERROR,
+                    null,
+                    DeptectiveMessages.PACKAGE_CONTAINED_IN_MULTIPLE_COMPONENTS,
+                    String.join(", ", ambiguous.getValue()),
+                    ambiguous.getKey()
+            );
+        }
+
+        for (String unconfiguredPackage : result.getUnconfiguredPackages()) {
+            check.report(
+                    unconfiguredPackageReportingPolicy,
+                    null,
+                    DeptectiveMessages.PACKAGE_NOT_CONFIGURED,
+                    unconfiguredPackage
+            );
+        }
+
+        for (Violation violation : result.getViolations()) {
+            check.report(
+                    reportingPolicy,
+                    violation.getClassName(),
+                    violation.getMessageKey(),
+                    violation.getComponentName(),
+                    violation.getReferencedPackageName(),
+                    violation.getComponentLevel(),
+                    violation.getReferencedComponentLevel()
+            );
+        }
+
+        for (Entry<ForbiddenTransitiveDependency, List<String>> violation : result.getForbiddenTransitiveViolations()
+                .entrySet()) {
+            check.report(
+                    reportingPolicy,
+                    null,
+                    DeptectiveMessages.ILLEGAL_TRANSITIVE_DEPENDENCY,
+                    violation.getKey().getFrom(),
+                    violation.getKey().getTo(),
+                    String.join(" -> ", violation.getValue())
+            );
+        }
+
+        List<Cycle<IdentifiableComponent>> cycles = GraphUtils.detectCycles(
+                allowedPackageDependencies.getComponents(), Cycle.DEFAULT_MAX_WITNESSES
+        );
+        if (!cycles.isEmpty()) {
+            String cyclesAsString = "- " + cycles.stream()
+                    .map(Cycle::describe)
+                    .collect(Collectors.joining("," + System.lineSeparator() + "- "));
+
+            check.report(cycleReportingPolicy, null, DeptectiveMessages.CYCLE_IN_ARCHITECTURE, cyclesAsString);
+        }
+
+        if (dotFile != null) {
+            DotSerializer serializer = new DotSerializer();
+            result.getActualPackageDependencies().serialize(serializer);
+
+            try (Writer writer = Files.newBufferedWriter(dotFile, StandardCharsets.UTF_8)) {
+                writer.append(serializer.serialize());
+            }
+        }
+
+        System.out.println(
+                "Checked " + classes.size() + " class(es), found " + result.getViolations().size()
+                        + " illegal package reference(s)"
+        );
+
+        return check.errorCount > 0 ? 1 : 0;
+    }
+
+    private void report(ReportingPolicy reportingPolicy, String location, String key, Object... params) {
+        String prefix;
+        String label;
+
+        if (reportingPolicy == ReportingPolicy.ERROR) {
+            prefix = DeptectiveMessages.ERROR_PREFIX;
+            label = "error: ";
+            errorCount++;
+        }
+        else {
+            prefix = DeptectiveMessages.WARNING_PREFIX;
+            label = "warning: ";
+        }
+
+        String message = new MessageFormat(MESSAGES.getFormat(prefix, key)).format(params);
+        System.err.println((location != null ? location + ": " : "") + label + message);
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.moditect.deptective.internal.diff.ModelDiff;
+import org.moditect.deptective.internal.model.ConfigParser;
+import org.moditect.deptective.internal.model.PackageDependencies;
+
+/**
+ * Compares two {@code deptective.json} files, e.g. the one of the main branch and the one created by the current
+ * build in {@code ANALYZE} mode, and reports the architecture drift between them.
+ *
+ * <pre>
+ *     java org.moditect.deptective.cli.Diff [--output &lt;dir&gt;] [--fail-on-new-cycles] &lt;previous&gt; &lt;current&gt;
+ * </pre>
+ *
+ * The differences are written to {@code deptective-diff.json} and {@code deptective-diff.dot} in the output
+ * directory.
+ */
+public class Diff {
+
+    public static void main(String... args) throws IOException {
+        Path outputDir = Paths.get(".");
+        boolean failOnNewCycles = false;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--output".equals(args[i]) && i + 1 < args.length) {
+                outputDir = Paths.get(args[++i]);
+            }
+            else if ("--fail-on-new-cycles".equals(args[i])) {
+                failOnNewCycles = true;
+            }
+            else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+
+        if (inputs.size() != 2) {
+            System.err.println(
+                    "Usage: Diff [--output <dir>] [--fail-on-new-cycles] <previous deptective.json> "
+                            + "<current deptective.json>"
+            );
+            System.exit(2);
+        }
+
+        ModelDiff diff = ModelDiff.compare(load(inputs.get(0)), load(inputs.get(1)));
+
+        Files.createDirectories(outputDir);
+        try (Writer writer = Files.newBufferedWriter(
+                outputDir.resolve("deptective-diff.json"), StandardCharsets.UTF_8
+        )) {
+            diff.writeJson(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(
+                outputDir.resolve("deptective-diff.dot"), StandardCharsets.UTF_8
+        )) {
+            diff.writeDot(writer);
+        }
+
+        System.out.println(
+                "Components: +" + diff.getAddedComponents().size() + " -" + diff.getRemovedComponents().size()
+                        + ", reads: +" + diff.getAddedReads().size() + " -" + diff.getRemovedReads().size()
+                        + ", cycles: +" + diff.getNewCycles().size() + " -" + diff.getResolvedCycles().size()
+        );
+
+        for (List<String> cycle : diff.getNewCycles()) {
+            System.out.println("New cycle: " + String.join(", ", cycle));
+        }
+
+        if (failOnNewCycles && !diff.getNewCycles().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static PackageDependencies load(Path model) throws IOException {
+        try (InputStream is = Files.newInputStream(model)) {
+            return new ConfigParser(is).getPackageDependencies();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.moditect.deptective.internal.aggregate.ModelAggregator;
+import org.moditect.deptective.internal.export.WeightedGraphDotWriter;
+import org.moditect.deptective.internal.export.WeightedGraphJsonWriter;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.PackagePrefixTree;
+
+/**
+ * Rolls up the package dependencies of an existing {@code deptective.json} file (as created in {@code ANALYZE} mode
+ * without any declared components) to one or more package depths, without recompiling the code base.
+ *
+ * <pre>
+ *     java org.moditect.deptective.cli.RollUp [--output &lt;dir&gt;] &lt;deptective.json&gt; &lt;depth&gt;...
+ * </pre>
+ *
+ * The roll-up to each depth is written to {@code deptective-rollup-depth<depth>.json} and
+ * {@code deptective-rollup-depth<depth>.dot} in the output directory.
+ */
+public class RollUp {
+
+    public static void main(String... args) throws IOException {
+        Path outputDir = Paths.get(".");
+        Path model = null;
+        List<Integer> depths = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--output".equals(args[i]) && i + 1 < args.length) {
+                outputDir = Paths.get(args[++i]);
+            }
+            else if (model == null) {
+                model = Paths.get(args[i]);
+            }
+            else {
+                depths.add(Integer.parseInt(args[i]));
+            }
+        }
+
+        if (model == null || depths.isEmpty()) {
+            System.err.println("Usage: RollUp [--output <dir>] <deptective.json> <depth>...");
+            System.exit(2);
+        }
+
+        ModelAggregator aggregator = new ModelAggregator();
+        try (InputStream is = Files.newInputStream(model)) {
+            aggregator.addModel(model.toString(), is);
+        }
+        IntGraph packages = aggregator.aggregate().getGraph();
+
+        PackagePrefixTree prefixes = new PackagePrefixTree();
+        List<Function<String, String>> groupings = new ArrayList<>();
+        for (int depth : depths) {
+            groupings.add(prefixes.prefixesOfDepth(depth));
+        }
+
+        IntGraph[] graphs = packages.rollUp(groupings);
+
+        Files.createDirectories(outputDir);
+        for (int i = 0; i < graphs.length; i++) {
+            String level = "depth" + depths.get(i);
+
+            try (Writer writer = Files.newBufferedWriter(
+                    outputDir.resolve("deptective-rollup-" + level + ".json"), StandardCharsets.UTF_8
+            )) {
+                new WeightedGraphJsonWriter().addGraph(level, graphs[i]).write(writer);
+            }
+            try (Writer writer = Files.newBufferedWriter(
+                    outputDir.resolve("deptective-rollup-" + level + ".dot"), StandardCharsets.UTF_8
+            )) {
+                new WeightedGraphDotWriter(level).write(graphs[i], writer);
+            }
+
+            System.out.println(
+                    "Rolled up " + packages.size() + " package(s) to " + graphs[i].size() + " node(s) and "
+                            + graphs[i].getEdgeCount() + " edge(s) at depth " + depths.get(i)
+            );
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.moditect.deptective.internal.handler.OutputFiles;
+import org.moditect.deptective.internal.handler.PackageReferenceHandler;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+import org.moditect.deptective.internal.util.Platform;
+
+/**
+ * Runs {@link PackageReferenceHandler#onCompletingCompilation()}, i.e. the final checks and the creation of all output
+ * files, in the background, so it can overlap with the remaining work of the compiler (e.g. generating the class
+ * files of the last analysed types). Any messages reported by the handler in the meantime are deferred by the
+ * {@link Log} and emitted upon {@link #join()}, as are any failures; the same goes for writing the output files, as
+ * done by {@link OutputFiles}.
+ * <p>
+ * If the completion doesn't finish in time, it is reported as error and abandoned, i.e. it may still be running, so
+ * the handler must not be used any further.
+ */
+public class AsyncCompletion {
+
+    private final PackageReferenceHandler handler;
+    private final Log log;
+    private final int timeoutSeconds;
+    private Future<?> completion;
+    private boolean abandoned;
+
+    public AsyncCompletion(PackageReferenceHandler handler, Log log, int timeoutSeconds) {
+        this.handler = handler;
+        this.log = log;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public void start() {
+        ExecutorService executor = Platform.newBackgroundExecutor();
+        completion = executor.submit(handler::onCompletingCompilation);
+        executor.shutdown();
+    }
+
+    public boolean isStarted() {
+        return completion != null;
+    }
+
+    /**
+     * Whether the completion has been abandoned, as it didn't finish in time. In that case, the handler may still be
+     * in use by the completion, so no further sources must be analysed.
+     */
+    public boolean isAbandoned() {
+        return abandoned;
+    }
+
+    /**
+     * Discards the completion started before, e.g. as further source files need to be analysed unexpectedly, and drops
+     * all its messages and output files. Waits for the completion to finish, so the handler can be used safely again
+     * afterwards; if it doesn't finish in time, it is abandoned (see {@link #isAbandoned()}).
+     */
+    public void discard() {
+        try {
+            completion.get(timeoutSeconds, TimeUnit.SECONDS);
+        }
+        catch (ExecutionException e) {
+            // the completion will be started again after analysing the further sources
+        }
+        catch (TimeoutException e) {
+            abandon();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon();
+        }
+
+        log.discardDeferred();
+        completion = null;
+
+        if (abandoned) {
+            reportTimeout();
+        }
+    }
+
+    /**
+     * Waits for the completion started before to finish and emits all its messages and output files. A failure or
+     * timeout of the completion is reported as error; in the latter case, its output is dropped as it is incomplete.
+     */
+    public void join() {
+        try {
+            completion.get(timeoutSeconds, TimeUnit.SECONDS);
+            log.emitDeferred();
+        }
+        catch (ExecutionException e) {
+            log.emitDeferred();
+            log.useSource(null);
+            log.report(ReportingPolicy.ERROR, DeptectiveMessages.OUTPUT_FAILED, describe(e.getCause()));
+        }
+        catch (TimeoutException e) {
+            abandon();
+            log.discardDeferred();
+            reportTimeout();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon();
+            log.discardDeferred();
+        }
+    }
+
+    private void abandon() {
+        completion.cancel(true);
+        abandoned = true;
+    }
+
+    private void reportTimeout() {
+        log.useSource(null);
+        log.report(ReportingPolicy.ERROR, DeptectiveMessages.OUTPUT_TIMED_OUT, timeoutSeconds);
+    }
+
+    private static String describe(Throwable failure) {
+        StringBuilder description = new StringBuilder(String.valueOf(failure.getMessage()));
+
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            description.append(": ").append(cause.getMessage());
+        }
+
+        return description.toString();
+    }
+}
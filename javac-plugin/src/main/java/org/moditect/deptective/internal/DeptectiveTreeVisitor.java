@@ -16,7 +16,9 @@
 package org.moditect.deptective.internal;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
@@ -36,6 +38,7 @@ import com.sun.source.tree.Tree;
 import com.sun.source.tree.TypeParameterTree;
 import com.sun.source.tree.VariableTree;
 import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
 import com.sun.source.util.TreePathScanner;
 import com.sun.source.util.Trees;
 
@@ -47,6 +50,12 @@ public class DeptectiveTreeVisitor extends TreePathScanner<Void, Void> {
     private final Trees trees;
     private final Types types;
 
+    /**
+     * The binary name of the innermost type declaration currently visited, only tracked if the handler is
+     * interested in type references.
+     */
+    private String currentTypeName;
+
     public DeptectiveTreeVisitor(JavacTask task, Log log, PackageReferenceHandler packageReferenceHandler) {
         elements = task.getElements();
         types = task.getTypes();
@@ -60,11 +69,45 @@ public class DeptectiveTreeVisitor extends TreePathScanner<Void, Void> {
         log.useSource(tree.getSourceFile());
         boolean proceed = packageReferenceHandler.onEnteringCompilationUnit(tree);
 
-        return proceed ? super.visitCompilationUnit(tree, p) : null;
+        if (!proceed) {
+            return null;
+        }
+
+        try {
+            return super.visitCompilationUnit(tree, p);
+        }
+        finally {
+            packageReferenceHandler.onLeavingCompilationUnit(tree);
+        }
     }
 
     @Override
     public Void visitClass(ClassTree node, Void p) {
+        if (!packageReferenceHandler.handlesTypeReferences()) {
+            return doVisitClass(node, p);
+        }
+
+        String enclosingTypeName = currentTypeName;
+        Element type = trees.getElement(getCurrentPath());
+
+        if (type instanceof TypeElement) {
+            currentTypeName = elements.getBinaryName((TypeElement) type).toString();
+        }
+
+        try {
+            return doVisitClass(node, p);
+        }
+        finally {
+            currentTypeName = enclosingTypeName;
+        }
+    }
+
+    private Void doVisitClass(ClassTree node, Void p) {
+        // anonymous classes aren't considered as type declarations of their own
+        if (!node.getSimpleName().contentEquals("")) {
+            packageReferenceHandler.onTypeDeclaration(node, isAbstract(node));
+        }
+
         Tree extendsClause = node.getExtendsClause();
         if (extendsClause != null) {
             checkPackageAccess(extendsClause, getQualifiedPackageName(extendsClause));
@@ -77,6 +120,11 @@ public class DeptectiveTreeVisitor extends TreePathScanner<Void, Void> {
         return super.visitClass(node, p);
     }
 
+    private static boolean isAbstract(ClassTree node) {
+        return node.getKind() == Tree.Kind.INTERFACE || node.getKind() == Tree.Kind.ANNOTATION_TYPE ||
+                node.getModifiers().getFlags().contains(Modifier.ABSTRACT);
+    }
+
     @Override
     public Void visitMemberSelect(MemberSelectTree node, Void p) {
         checkPackageAccess(node, getQualifiedPackageName(node));
@@ -128,10 +176,11 @@ public class DeptectiveTreeVisitor extends TreePathScanner<Void, Void> {
     }
 
     /**
-     * Returns the qualified Package Name of the given Tree object or null if the package could not be determined
+     * Returns the qualified Package Name of the type referenced by the given Tree object, which must be the current
+     * node or one of its children, or null if the package could not be determined
      */
     protected String getQualifiedPackageName(Tree tree) {
-        TypeMirror typeMirror = trees.getTypeMirror(getCurrentPath());
+        TypeMirror typeMirror = trees.getTypeMirror(getPath(tree));
         if (typeMirror == null) {
             return null;
         }
@@ -148,9 +197,44 @@ public class DeptectiveTreeVisitor extends TreePathScanner<Void, Void> {
         return pakkage.getQualifiedName().toString();
     }
 
+    /**
+     * Returns the binary name of the type referenced by the given Tree object, which must be the current node or one
+     * of its children, or null if it doesn't reference a declared type
+     */
+    protected String getQualifiedTypeName(Tree tree) {
+        TypeMirror typeMirror = trees.getTypeMirror(getPath(tree));
+        if (typeMirror == null || typeMirror.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        Element typeMirrorElement = types.asElement(typeMirror);
+        if (!(typeMirrorElement instanceof TypeElement)) {
+            return null;
+        }
+
+        return elements.getBinaryName((TypeElement) typeMirrorElement).toString();
+    }
+
+    /**
+     * Returns the path of the given Tree object, which must be the current node or one of its children
+     */
+    private TreePath getPath(Tree tree) {
+        TreePath path = getCurrentPath();
+        return path.getLeaf() == tree ? path : new TreePath(path, tree);
+    }
+
     protected void checkPackageAccess(Tree node, String qualifiedName) {
         if (qualifiedName != null) {
             packageReferenceHandler.onPackageReference(node, qualifiedName);
+
+            // references within import statements are not attributed to any type
+            if (currentTypeName != null) {
+                String referencedTypeName = getQualifiedTypeName(node);
+
+                if (referencedTypeName != null && !referencedTypeName.equals(currentTypeName)) {
+                    packageReferenceHandler.onTypeReference(node, currentTypeName, referencedTypeName);
+                }
+            }
         }
     }
 }
@@ -15,6 +15,9 @@
  */
 package org.moditect.deptective.internal;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -24,9 +27,12 @@ import javax.tools.JavaFileManager;
 import org.moditect.deptective.internal.handler.PackageReferenceCollector;
 import org.moditect.deptective.internal.handler.PackageReferenceHandler;
 import org.moditect.deptective.internal.handler.PackageReferenceValidator;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
 import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.model.Baseline;
 import org.moditect.deptective.internal.model.Component;
 import org.moditect.deptective.internal.model.Components;
+import org.moditect.deptective.internal.model.ConfigLoader;
 import org.moditect.deptective.internal.model.PackageDependencies;
 import org.moditect.deptective.internal.options.DeptectiveOptions;
 import org.moditect.deptective.internal.options.ReportingPolicy;
@@ -44,13 +50,25 @@ public enum PluginTask {
         @Override
         public PackageReferenceHandler getPackageReferenceHandler(JavaFileManager jfm, DeptectiveOptions options,
                 Supplier<PackageDependencies> configSupplier, Log log) {
+            Path baselineFile = options.getBaselineFilePath().orElse(null);
+            boolean updateBaseline = baselineFile != null && options.isUpdateBaseline();
+            Baseline baseline = null;
+
+            if (baselineFile != null && !updateBaseline) {
+                try {
+                    baseline = Baseline.load(baselineFile);
+                }
+                catch (IOException e) {
+                    log.report(ReportingPolicy.ERROR, DeptectiveMessages.BASELINE_NOT_READABLE, baselineFile, e);
+                }
+            }
+
             return new PackageReferenceValidator(
                     jfm,
                     configSupplier.get(),
-                    options.getReportingPolicy(),
-                    options.getUnconfiguredPackageReportingPolicy(),
-                    options.getCycleReportingPolicy(ReportingPolicy.ERROR),
-                    options.createDotFile(),
+                    options,
+                    baseline,
+                    updateBaseline ? baselineFile : null,
                     log
             );
         }
@@ -73,10 +91,11 @@ public enum PluginTask {
             return new PackageReferenceCollector(
                     jfm,
                     log,
-                    options.getWhitelistedPackagePatterns(),
-                    options.getCycleReportingPolicy(ReportingPolicy.WARN),
+                    options,
                     new Components(components),
-                    options.createDotFile()
+                    options.getCompareToPath()
+                            .map(p -> new ConfigLoader().getConfig(Optional.of(p), jfm))
+                            .orElse(null)
             );
         }
     };
@@ -0,0 +1,166 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.aggregate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.moditect.deptective.internal.export.WeightedGraphDotWriter;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The result of merging multiple module models via {@link ModelAggregator}.
+ */
+public class AggregatedModel {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final IntGraph graph;
+    private final String[] moduleOfNode;
+    private final StronglyConnectedComponents components;
+    private final List<String> modules;
+
+    AggregatedModel(IntGraph graph, String[] moduleOfNode, StronglyConnectedComponents components,
+            List<String> modules) {
+        this.graph = graph;
+        this.moduleOfNode = moduleOfNode;
+        this.components = components;
+        this.modules = modules;
+    }
+
+    public IntGraph getGraph() {
+        return graph;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    /**
+     * Returns the module declaring the given node or {@code null} if the node isn't declared as a component by any
+     * module (e.g. an external package).
+     */
+    public String getModule(int node) {
+        return moduleOfNode[node];
+    }
+
+    /**
+     * Returns all cycles of the global graph, each given as the alphabetically sorted names of its members.
+     */
+    public List<List<String>> getCycles() {
+        List<List<String>> cycles = new ArrayList<>();
+
+        for (int component = 0; component < components.getCount(); component++) {
+            if (components.isCycle(component)) {
+                List<String> members = new ArrayList<>();
+                for (int i = 0; i < components.size(component); i++) {
+                    members.add(graph.getName(components.getMember(component, i)));
+                }
+                cycles.add(members);
+            }
+        }
+
+        cycles.sort((c1, c2) -> c1.get(0).compareTo(c2.get(0)));
+        return cycles;
+    }
+
+    /**
+     * Returns the modules declaring the members of the given cycle.
+     */
+    public SortedSet<String> getModulesOfCycle(List<String> cycle) {
+        SortedSet<String> result = new TreeSet<>();
+
+        for (String member : cycle) {
+            String module = moduleOfNode[graph.indexOf(member)];
+            if (module != null) {
+                result.add(module);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the global model as JSON, listing all components with their (weighted) reads and all cycles.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            generator.writeArrayFieldStart("components");
+            for (int node = 0; node < graph.size(); node++) {
+                generator.writeStartObject();
+                generator.writeStringField("name", graph.getName(node));
+                if (moduleOfNode[node] != null) {
+                    generator.writeStringField("module", moduleOfNode[node]);
+                }
+                if (graph.outDegree(node) > 0) {
+                    generator.writeArrayFieldStart("reads");
+                    for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                        generator.writeString(graph.getName(graph.target(e)));
+                    }
+                    generator.writeEndArray();
+                    generator.writeObjectFieldStart("weights");
+                    for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                        generator.writeNumberField(graph.getName(graph.target(e)), graph.weight(e));
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("cycles");
+            for (List<String> cycle : getCycles()) {
+                SortedSet<String> modulesOfCycle = getModulesOfCycle(cycle);
+
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("components");
+                for (String member : cycle) {
+                    generator.writeString(member);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("modules");
+                for (String module : modulesOfCycle) {
+                    generator.writeString(module);
+                }
+                generator.writeEndArray();
+                generator.writeBooleanField("crossModule", modulesOfCycle.size() > 1);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the global model in GraphViz format, marking relationships that are part of a cycle in purple.
+     */
+    public void writeDot(Writer writer) throws IOException {
+        new WeightedGraphDotWriter("package dependencies").write(graph, components, writer);
+    }
+}
@@ -0,0 +1,277 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.aggregate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.model.PackagePattern;
+import org.moditect.deptective.internal.model.PackagePatternIndex;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Merges the {@code deptective.json} models of multiple modules (e.g. as created by the plug-in in {@code ANALYZE}
+ * mode) into one global dependency graph, allowing to detect cycles spanning across module boundaries.
+ * <p>
+ * Each read has a weight of 1, unless a model specifies its weight (e.g. its number of occurrences) in an optional
+ * {@code weights} object of the component; the configuration templates created by the plug-in don't contain any
+ * weights. The weights are summed up when merging reads. Models are parsed in a streaming fashion and only the interned
+ * component names and the de-duplicated edges between them are retained, so memory consumption is bounded by the number
+ * of distinct components rather than by the number or size of the given models. Read targets which aren't the name of
+ * any component are resolved against the {@code contains} patterns of all models, so references to a package of another
+ * module are attributed to the component containing that package (the first one declared, if several patterns match).
+ */
+public class ModelAggregator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final IntGraph.Builder graph;
+    private final List<String> modules;
+    private final Map<String, Integer> exactContains;
+    private final List<PackagePattern> wildcardContains;
+    private final List<Integer> wildcardContainsOwners;
+
+    /**
+     * The first module declaring a given node as a component, -1 for nodes only referenced as read target.
+     */
+    private int[] declaringModule;
+
+    public ModelAggregator() {
+        graph = IntGraph.builder();
+        modules = new ArrayList<>();
+        exactContains = new HashMap<>();
+        wildcardContains = new ArrayList<>();
+        wildcardContainsOwners = new ArrayList<>();
+        declaringModule = new int[64];
+    }
+
+    /**
+     * Adds the model of the given module.
+     *
+     * @param module the name of the module
+     * @param model the module's model in {@code deptective.json} format
+     */
+    public void addModel(String module, InputStream model) throws IOException {
+        int moduleId = modules.size();
+        modules.add(module);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(model)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object as model of module " + module);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("components".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        parseComponent(parser, moduleId);
+                    }
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the models added so far and determines the cycles of the global graph.
+     */
+    public AggregatedModel aggregate() {
+        IntGraph raw = graph.build();
+        int n = raw.size();
+
+        PackagePatternIndex wildcardIndex = new PackagePatternIndex(wildcardContains);
+        Map<PackagePattern, Integer> firstDeclaration = new HashMap<>();
+        for (int i = 0; i < wildcardContains.size(); i++) {
+            firstDeclaration.putIfAbsent(wildcardContains.get(i), i);
+        }
+
+        // attribute each node only referenced as read target to the component containing it, if any
+        int[] resolved = new int[n];
+        for (int node = 0; node < n; node++) {
+            resolved[node] = moduleOf(node) != -1 ? node
+                    : resolve(raw.getName(node), node, wildcardIndex, firstDeclaration);
+        }
+
+        // assign the final ids in alphabetical order, so the adjacency lists come out sorted by name
+        String[] names = new String[n];
+        int distinct = 0;
+        for (int node = 0; node < n; node++) {
+            if (resolved[node] == node) {
+                names[distinct++] = raw.getName(node);
+            }
+        }
+        names = Arrays.copyOf(names, distinct);
+        Arrays.sort(names);
+
+        IntGraph.Builder merged = IntGraph.builder();
+        for (String name : names) {
+            merged.addNode(name);
+        }
+
+        String[] moduleOfNode = new String[distinct];
+        for (int node = 0; node < n; node++) {
+            if (resolved[node] == node && moduleOf(node) != -1) {
+                moduleOfNode[merged.addNode(raw.getName(node))] = modules.get(moduleOf(node));
+            }
+        }
+
+        int[] finalId = new int[n];
+        for (int node = 0; node < n; node++) {
+            finalId[node] = merged.addNode(raw.getName(resolved[node]));
+        }
+
+        for (int from = 0; from < n; from++) {
+            for (int e = raw.edgesStart(from); e < raw.edgesEnd(from); e++) {
+                int source = finalId[from];
+                int target = finalId[raw.target(e)];
+                if (source != target) {
+                    merged.addEdge(source, target, raw.weight(e));
+                }
+            }
+        }
+
+        IntGraph result = merged.build();
+
+        return new AggregatedModel(
+                result,
+                moduleOfNode,
+                GraphUtils.detectStronglyConnectedComponents(result),
+                Collections.unmodifiableList(new ArrayList<>(modules))
+        );
+    }
+
+    private void parseComponent(JsonParser parser, int moduleId) throws IOException {
+        String name = null;
+        List<String> contains = Collections.emptyList();
+        List<String> reads = Collections.emptyList();
+        Map<String, Integer> weights = Collections.emptyMap();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("name".equals(field)) {
+                name = parser.getText();
+            }
+            else if ("contains".equals(field) && value == JsonToken.START_ARRAY) {
+                contains = parseStrings(parser);
+            }
+            else if ("reads".equals(field) && value == JsonToken.START_ARRAY) {
+                reads = parseStrings(parser);
+            }
+            else if ("weights".equals(field) && value == JsonToken.START_OBJECT) {
+                weights = parseWeights(parser);
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+
+        if (name == null) {
+            throw new IOException("Component without name in model of module " + modules.get(moduleId));
+        }
+
+        int component = graph.addNode(name);
+        if (moduleOf(component) == -1) {
+            setModule(component, moduleId);
+        }
+
+        for (String contained : contains) {
+            if (contained.indexOf('*') == -1) {
+                exactContains.putIfAbsent(contained, component);
+            }
+            else {
+                wildcardContains.add(PackagePattern.getPattern(contained));
+                wildcardContainsOwners.add(component);
+            }
+        }
+
+        for (String read : reads) {
+            int target = graph.addNode(read);
+            if (target != component) {
+                graph.addEdge(component, target, weights.getOrDefault(read, 1));
+            }
+        }
+    }
+
+    private List<String> parseStrings(JsonParser parser) throws IOException {
+        List<String> strings = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            strings.add(parser.getText());
+        }
+
+        return strings;
+    }
+
+    private Map<String, Integer> parseWeights(JsonParser parser) throws IOException {
+        Map<String, Integer> weights = new HashMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String read = parser.getCurrentName();
+            parser.nextToken();
+            weights.put(read, parser.getIntValue());
+        }
+
+        return weights;
+    }
+
+    private int resolve(String packageName, int node, PackagePatternIndex wildcardIndex,
+            Map<PackagePattern, Integer> firstDeclaration) {
+        Integer owner = exactContains.get(packageName);
+        if (owner != null) {
+            return owner;
+        }
+
+        int first = -1;
+        for (PackagePattern match : wildcardIndex.getMatches(packageName)) {
+            int declaration = firstDeclaration.get(match);
+            if (first == -1 || declaration < first) {
+                first = declaration;
+            }
+        }
+
+        return first != -1 ? wildcardContainsOwners.get(first) : node;
+    }
+
+    private int moduleOf(int node) {
+        return node < declaringModule.length ? declaringModule[node] - 1 : -1;
+    }
+
+    private void setModule(int node, int module) {
+        if (node >= declaringModule.length) {
+            declaringModule = Arrays.copyOf(declaringModule, Math.max(node + 1, declaringModule.length * 2));
+        }
+
+        // stored with an offset of one, so the default value 0 denotes "no module"
+        declaringModule[node] = module + 1;
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Extracts the packages referenced by a class file from its constant pool, without depending on any byte code
+ * library.
+ * <p>
+ * Only the constant pool is examined: the names of all {@code CONSTANT_Class} entries as well as all
+ * {@code CONSTANT_Utf8} entries which are valid type descriptors or generic signatures. The latter comprise the
+ * descriptors of fields and methods (declared or referenced), of method types and of annotations, as well as the
+ * generic signatures of the class and its members. Entries used as string literals or module/package names are
+ * excluded. The remainder of the class file (fields, methods, attributes) is never read.
+ */
+public class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final byte UTF8 = 1;
+    private static final byte CLASS_NAME = 2;
+    private static final byte EXCLUDED = 3;
+
+    private ClassFileParser() {
+    }
+
+    /**
+     * Parses the class file in the given buffer, starting at its current position. The buffer's position is not
+     * altered.
+     *
+     * @throws IllegalArgumentException In case the given buffer doesn't contain a valid class file.
+     */
+    public static ClassReferences parse(ByteBuffer classFile) {
+        ByteBuffer in = classFile.duplicate();
+
+        try {
+            return parseConstantPool(in);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or malformed class file", e);
+        }
+    }
+
+    private static ClassReferences parseConstantPool(ByteBuffer in) {
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+
+        // minor and major version
+        in.position(in.position() + 4);
+
+        int count = in.getShort() & 0xFFFF;
+
+        // position of the length field of each UTF-8 entry and the role of each entry
+        int[] offsets = new int[count];
+        byte[] roles = new byte[count];
+        int[] classNameIndices = new int[count];
+
+        for (int i = 1; i < count; i++) {
+            int tag = in.get() & 0xFF;
+
+            switch (tag) {
+            case CONSTANT_UTF8:
+                offsets[i] = in.position();
+                if (roles[i] == 0) {
+                    roles[i] = UTF8;
+                }
+                in.position(in.position() + 2 + (in.getShort() & 0xFFFF));
+                break;
+            case CONSTANT_CLASS:
+                int nameIndex = in.getShort() & 0xFFFF;
+                classNameIndices[i] = nameIndex;
+                markForward(roles, nameIndex, CLASS_NAME);
+                break;
+            case CONSTANT_STRING:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                markForward(roles, in.getShort() & 0xFFFF, EXCLUDED);
+                break;
+            case CONSTANT_METHOD_TYPE:
+                in.position(in.position() + 2);
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                in.position(in.position() + 3);
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                in.position(in.position() + 4);
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                in.position(in.position() + 8);
+                // 8-byte constants take up two entries
+                i++;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+
+        // access flags
+        in.getShort();
+        int thisClass = in.getShort() & 0xFFFF;
+
+        String className = readUtf8(in, offsets[classNameIndices[thisClass]]);
+        String packageName = packageOf(className);
+
+        Set<String> referencedPackages = new TreeSet<>();
+        SignatureScanner scanner = new SignatureScanner(name -> referencedPackages.add(packageOf(name)));
+
+        for (int i = 1; i < count; i++) {
+            if (roles[i] == CLASS_NAME) {
+                String name = readUtf8(in, offsets[i]);
+                if (name.startsWith("[")) {
+                    scanner.scan(name);
+                }
+                else {
+                    referencedPackages.add(packageOf(name));
+                }
+            }
+            else if (roles[i] == UTF8 && isSignatureStart(in, offsets[i])) {
+                scanner.scan(readUtf8(in, offsets[i]));
+            }
+        }
+
+        referencedPackages.remove(packageName);
+        referencedPackages.remove("");
+
+        return new ClassReferences(className.replace('/', '.'), packageName, referencedPackages);
+    }
+
+    /**
+     * Records the role of an entry which may be referenced before it is declared; the role of entries already read is
+     * updated as well.
+     */
+    private static void markForward(byte[] roles, int index, byte role) {
+        if (index > 0 && index < roles.length && roles[index] != CLASS_NAME) {
+            roles[index] = role;
+        }
+    }
+
+    /**
+     * Cheaply rules out the bulk of UTF-8 entries (member and attribute names etc.) before decoding them.
+     */
+    private static boolean isSignatureStart(ByteBuffer in, int offset) {
+        if ((in.getShort(offset) & 0xFFFF) < 3) {
+            return false;
+        }
+
+        byte first = in.get(offset + 2);
+        return first == 'L' || first == '[' || first == '(' || first == '<';
+    }
+
+    /**
+     * Decodes the "modified UTF-8" entry whose length field is at the given position.
+     */
+    private static String readUtf8(ByteBuffer in, int offset) {
+        int length = in.getShort(offset) & 0xFFFF;
+        int position = offset + 2;
+        int end = position + length;
+
+        char[] chars = new char[length];
+        int count = 0;
+
+        while (position < end) {
+            int b = in.get(position++) & 0xFF;
+
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            }
+            else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (in.get(position++) & 0x3F));
+            }
+            else {
+                int b2 = in.get(position++) & 0x3F;
+                int b3 = in.get(position++) & 0x3F;
+                chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    private static String packageOf(String internalName) {
+        int lastSlash = internalName.lastIndexOf('/');
+        return lastSlash == -1 ? "" : internalName.substring(0, lastSlash).replace('/', '.');
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Determines the package references of all the class files in a set of directories, JARs and individual class files.
+ * <p>
+ * Class files on the file system are memory-mapped. JAR entries are accessed through the NIO zip file system; as
+ * entries are typically compressed they cannot be mapped and are read into heap buffers instead. The class files
+ * are parsed in parallel on a fork-join pool.
+ */
+public class ClassFileScanner {
+
+    /**
+     * Number of class files below which a task is processed sequentially rather than being split any further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+
+    public ClassFileScanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ClassFileScanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the package references of all classes in the given inputs, ordered by class name.
+     */
+    public List<ClassReferences> scan(Collection<Path> inputs) throws IOException {
+        List<FileSystem> jars = new ArrayList<>();
+
+        try {
+            List<Path> classFiles = new ArrayList<>();
+
+            for (Path input : inputs) {
+                if (Files.isDirectory(input)) {
+                    classFiles.addAll(findClassFiles(input));
+                }
+                else if (isArchive(input)) {
+                    FileSystem jar = FileSystems.newFileSystem(input, (ClassLoader) null);
+                    jars.add(jar);
+                    for (Path root : jar.getRootDirectories()) {
+                        classFiles.addAll(findClassFiles(root));
+                    }
+                }
+                else {
+                    classFiles.add(input);
+                }
+            }
+
+            List<ClassReferences> result = pool.invoke(new ParseTask(classFiles, 0, classFiles.size()));
+            result.sort(Comparator.comparing(ClassReferences::getClassName));
+
+            return result;
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            for (FileSystem jar : jars) {
+                jar.close();
+            }
+        }
+    }
+
+    private static List<Path> findClassFiles(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(f -> isClassFile(root.relativize(f)) && Files.isRegularFile(f))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isClassFile(Path relativePath) {
+        String name = relativePath.getFileName() != null ? relativePath.getFileName().toString() : "";
+
+        // module descriptors don't reference any packages in the sense of Deptective; versioned entries of
+        // multi-release JARs would be duplicates of the regular ones
+        return name.endsWith(".class") &&
+                !name.equals("module-info.class") &&
+                !relativePath.startsWith("META-INF");
+    }
+
+    private static boolean isArchive(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".jar") || name.endsWith(".zip");
+    }
+
+    private static ClassReferences parse(Path classFile) {
+        try {
+            return ClassFileParser.parse(read(classFile));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read class file " + classFile.toUri(), e);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Couldn't parse class file " + classFile.toUri(), e);
+        }
+    }
+
+    private static ByteBuffer read(Path classFile) throws IOException {
+        if (classFile.getFileSystem() != FileSystems.getDefault()) {
+            return ByteBuffer.wrap(Files.readAllBytes(classFile));
+        }
+
+        try (FileChannel channel = FileChannel.open(classFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static class ParseTask extends RecursiveTask<List<ClassReferences>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> classFiles;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<Path> classFiles, int from, int to) {
+            this.classFiles = classFiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ClassReferences> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<ClassReferences> result = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    result.add(parse(classFiles.get(i)));
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            ParseTask left = new ParseTask(classFiles, from, middle);
+            left.fork();
+
+            List<ClassReferences> right = new ParseTask(classFiles, middle, to).compute();
+            List<ClassReferences> result = left.join();
+            result.addAll(right);
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.moditect.deptective.internal.handler.PackageReferenceValidator;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.model.Component;
+import org.moditect.deptective.internal.model.ForbiddenTransitiveDependency;
+import org.moditect.deptective.internal.model.PackageAssignedToMultipleComponentsException;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.model.ReadKind;
+
+/**
+ * Validates the package references of class files against a given description of allowed references in
+ * {@code deptective.json}, applying the same rules as {@link PackageReferenceValidator} does when compiling sources.
+ */
+public class ClassReferenceValidator {
+
+    /**
+     * A reference which isn't allowed by the configuration, either because the referencing component doesn't read the
+     * referenced one or because the reference violates the levels of the two components.
+     */
+    public static class Violation {
+
+        private final String className;
+        private final String componentName;
+        private final String referencedPackageName;
+        private final String messageKey;
+        private final int componentLevel;
+        private final int referencedComponentLevel;
+
+        Violation(String className, String componentName, String referencedPackageName, String messageKey,
+                int componentLevel, int referencedComponentLevel) {
+            this.className = className;
+            this.componentName = componentName;
+            this.referencedPackageName = referencedPackageName;
+            this.messageKey = messageKey;
+            this.componentLevel = componentLevel;
+            this.referencedComponentLevel = referencedComponentLevel;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getComponentName() {
+            return componentName;
+        }
+
+        public String getReferencedPackageName() {
+            return referencedPackageName;
+        }
+
+        /**
+         * Returns the key of the message reporting this violation, i.e.
+         * {@link DeptectiveMessages#ILLEGAL_PACKAGE_DEPENDENCY} or {@link DeptectiveMessages#ILLEGAL_LEVEL_DEPENDENCY}.
+         */
+        public String getMessageKey() {
+            return messageKey;
+        }
+
+        public int getComponentLevel() {
+            return componentLevel;
+        }
+
+        public int getReferencedComponentLevel() {
+            return referencedComponentLevel;
+        }
+
+        @Override
+        public String toString() {
+            return className + ": " + componentName + " -> " + referencedPackageName;
+        }
+    }
+
+    /**
+     * The outcome of validating a set of classes.
+     */
+    public static class Result {
+
+        private final List<Violation> violations;
+        private final SortedSet<String> unconfiguredPackages;
+        private final SortedMap<String, List<String>> packagesInMultipleComponents;
+        private final PackageDependencies actualPackageDependencies;
+        private final Map<ForbiddenTransitiveDependency, List<String>> forbiddenTransitiveViolations;
+
+        Result(List<Violation> violations, SortedSet<String> unconfiguredPackages,
+                SortedMap<String, List<String>> packagesInMultipleComponents,
+                PackageDependencies actualPackageDependencies,
+                Map<ForbiddenTransitiveDependency, List<String>> forbiddenTransitiveViolations) {
+            this.violations = Collections.unmodifiableList(violations);
+            this.unconfiguredPackages = Collections.unmodifiableSortedSet(unconfiguredPackages);
+            this.packagesInMultipleComponents = Collections.unmodifiableSortedMap(packagesInMultipleComponents);
+            this.actualPackageDependencies = actualPackageDependencies;
+            this.forbiddenTransitiveViolations = Collections.unmodifiableMap(forbiddenTransitiveViolations);
+        }
+
+        /**
+         * Returns all disallowed references, in the order of the validated classes.
+         */
+        public List<Violation> getViolations() {
+            return violations;
+        }
+
+        /**
+         * Returns the packages of validated classes which aren't contained in any component.
+         */
+        public SortedSet<String> getUnconfiguredPackages() {
+            return unconfiguredPackages;
+        }
+
+        /**
+         * Returns the packages of validated classes which are matched by more than one component, together with the
+         * names of those components. Classes in such packages are not validated.
+         */
+        public SortedMap<String, List<String>> getPackagesInMultipleComponents() {
+            return packagesInMultipleComponents;
+        }
+
+        /**
+         * Returns the actual relationships between components, with each read classified as allowed, disallowed or
+         * unknown; this can be serialized e.g. via {@code DotSerializer}.
+         */
+        public PackageDependencies getActualPackageDependencies() {
+            return actualPackageDependencies;
+        }
+
+        /**
+         * Returns the forbidden transitive dependencies which exist between the validated classes, each with one
+         * (shortest) chain of components establishing it.
+         */
+        public Map<ForbiddenTransitiveDependency, List<String>> getForbiddenTransitiveViolations() {
+            return forbiddenTransitiveViolations;
+        }
+    }
+
+    private final PackageDependencies allowedPackageDependencies;
+
+    public ClassReferenceValidator(PackageDependencies allowedPackageDependencies) {
+        this.allowedPackageDependencies = allowedPackageDependencies;
+    }
+
+    public Result validate(List<ClassReferences> classes) {
+        List<Violation> violations = new ArrayList<>();
+        SortedSet<String> unconfiguredPackages = new TreeSet<>();
+        SortedMap<String, List<String>> packagesInMultipleComponents = new TreeMap<>();
+        PackageDependencies.Builder actualPackageDependencies = PackageDependencies.builder();
+        Map<String, Component> referencedComponents = new HashMap<>();
+
+        for (ClassReferences clazz : classes) {
+            String packageName = clazz.getPackageName();
+            Component component;
+
+            try {
+                component = allowedPackageDependencies.getComponentByPackage(packageName);
+            }
+            catch (PackageAssignedToMultipleComponentsException e) {
+                packagesInMultipleComponents.put(packageName, componentNames(e));
+                continue;
+            }
+
+            if (component == null) {
+                unconfiguredPackages.add(packageName);
+            }
+
+            for (String referencedPackageName : clazz.getReferencedPackages()) {
+                if (allowedPackageDependencies.isIgnoredReference(packageName, referencedPackageName)) {
+                    continue;
+                }
+
+                Component referencedComponent;
+                try {
+                    referencedComponent = referencedComponents.computeIfAbsent(
+                            referencedPackageName,
+                            allowedPackageDependencies::getReferencedComponent
+                    );
+                }
+                catch (PackageAssignedToMultipleComponentsException e) {
+                    packagesInMultipleComponents.put(referencedPackageName, componentNames(e));
+                    continue;
+                }
+
+                ReadKind readKind = PackageDependencies.getReadKind(component, referencedComponent);
+
+                actualPackageDependencies.addRead(
+                        component != null ? component.getName() : packageName,
+                        referencedComponent.getName(),
+                        readKind
+                );
+
+                if (readKind == ReadKind.DISALLOWED) {
+                    violations.add(
+                            violation(
+                                    clazz, component, referencedPackageName, referencedComponent,
+                                    DeptectiveMessages.ILLEGAL_PACKAGE_DEPENDENCY
+                            )
+                    );
+                }
+                // the members of a cycle share one level, so reads within a cycle can't violate the levels
+                else if (readKind == ReadKind.ALLOWED && component.violatesLevelOf(referencedComponent) &&
+                        !allowedPackageDependencies.isCycle(component, referencedComponent)) {
+                    violations.add(
+                            violation(
+                                    clazz, component, referencedPackageName, referencedComponent,
+                                    DeptectiveMessages.ILLEGAL_LEVEL_DEPENDENCY
+                            )
+                    );
+                }
+            }
+        }
+
+        PackageDependencies actual = actualPackageDependencies.build();
+
+        return new Result(
+                violations,
+                unconfiguredPackages,
+                packagesInMultipleComponents,
+                actual,
+                allowedPackageDependencies.getViolatedForbiddenTransitiveDependencies(actual)
+        );
+    }
+
+    private static Violation violation(ClassReferences clazz, Component component, String referencedPackageName,
+            Component referencedComponent, String messageKey) {
+        return new Violation(
+                clazz.getClassName(),
+                component.getName(),
+                referencedPackageName,
+                messageKey,
+                component.getLevel(),
+                referencedComponent.getLevel()
+        );
+    }
+
+    private static List<String> componentNames(PackageAssignedToMultipleComponentsException e) {
+        return e.getMatchingComponents()
+                .stream()
+                .map(Component::getName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The packages referenced by one class file.
+ */
+public class ClassReferences {
+
+    private final String className;
+    private final String packageName;
+    private final Set<String> referencedPackages;
+
+    public ClassReferences(String className, String packageName, Set<String> referencedPackages) {
+        this.className = className;
+        this.packageName = packageName;
+        this.referencedPackages = Collections.unmodifiableSet(referencedPackages);
+    }
+
+    /**
+     * Returns the binary name of the class, e.g. {@code com.example.Foo$Bar}.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Returns the packages referenced by the class, in alphabetical order and excluding the class' own package.
+     */
+    public Set<String> getReferencedPackages() {
+        return referencedPackages;
+    }
+
+    @Override
+    public String toString() {
+        return className + " -> " + referencedPackages;
+    }
+}
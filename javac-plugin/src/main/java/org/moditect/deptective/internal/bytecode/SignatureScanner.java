@@ -0,0 +1,270 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Extracts the class names referenced by field and method descriptors as well as class, method and field signatures
+ * (JVMS 4.3 and 4.7.9.1). Only strings which are entirely valid descriptors or signatures are considered, so
+ * arbitrary other constants don't yield spurious references.
+ */
+class SignatureScanner {
+
+    private final Consumer<String> classNameConsumer;
+    private final List<String> classNames;
+
+    private String signature;
+    private int position;
+
+    SignatureScanner(Consumer<String> classNameConsumer) {
+        this.classNameConsumer = classNameConsumer;
+        this.classNames = new ArrayList<>();
+    }
+
+    /**
+     * Passes the internal names of all classes referenced by the given descriptor or signature to the consumer;
+     * returns {@code false} and passes nothing if the given string isn't a valid descriptor or signature.
+     */
+    boolean scan(String signature) {
+        this.signature = signature;
+        this.position = 0;
+        this.classNames.clear();
+
+        if (!parse()) {
+            return false;
+        }
+
+        for (String className : classNames) {
+            classNameConsumer.accept(className);
+        }
+
+        return true;
+    }
+
+    private boolean parse() {
+        if (peek() == '<') {
+            if (!typeParameters()) {
+                return false;
+            }
+            if (peek() != '(') {
+                return classSignature();
+            }
+        }
+
+        if (peek() == '(') {
+            return methodSignature();
+        }
+
+        // a field descriptor or signature, or a class signature without type parameters
+        if (peek() == 'L') {
+            return classSignature();
+        }
+
+        return referenceType() && atEnd();
+    }
+
+    private boolean classSignature() {
+        do {
+            if (!classType()) {
+                return false;
+            }
+        }
+        while (!atEnd());
+
+        return true;
+    }
+
+    private boolean methodSignature() {
+        position++;
+
+        while (peek() != ')') {
+            if (!javaType()) {
+                return false;
+            }
+        }
+        position++;
+
+        if (peek() == 'V') {
+            position++;
+        }
+        else if (!javaType()) {
+            return false;
+        }
+
+        while (peek() == '^') {
+            position++;
+            if (!(peek() == 'T' ? typeVariable() : classType())) {
+                return false;
+            }
+        }
+
+        return atEnd();
+    }
+
+    private boolean typeParameters() {
+        position++;
+
+        do {
+            if (identifier() == -1 || peek() != ':') {
+                return false;
+            }
+
+            // class bound, possibly empty
+            position++;
+            if (peek() != ':' && peek() != '>' && !referenceType()) {
+                return false;
+            }
+
+            // interface bounds
+            while (peek() == ':') {
+                position++;
+                if (!referenceType()) {
+                    return false;
+                }
+            }
+        }
+        while (peek() != '>' && !atEnd());
+
+        return expect('>');
+    }
+
+    private boolean javaType() {
+        switch (peek()) {
+        case 'B':
+        case 'C':
+        case 'D':
+        case 'F':
+        case 'I':
+        case 'J':
+        case 'S':
+        case 'Z':
+            position++;
+            return true;
+        default:
+            return referenceType();
+        }
+    }
+
+    private boolean referenceType() {
+        switch (peek()) {
+        case 'L':
+            return classType();
+        case 'T':
+            return typeVariable();
+        case '[':
+            position++;
+            return javaType();
+        default:
+            return false;
+        }
+    }
+
+    private boolean typeVariable() {
+        position++;
+        return identifier() != -1 && expect(';');
+    }
+
+    private boolean classType() {
+        position++;
+        int start = position;
+
+        // package-qualified name
+        while (true) {
+            if (identifier() == -1) {
+                return false;
+            }
+            if (peek() != '/') {
+                break;
+            }
+            position++;
+        }
+
+        classNames.add(signature.substring(start, position));
+
+        if (peek() == '<' && !typeArguments()) {
+            return false;
+        }
+
+        // nested classes
+        while (peek() == '.') {
+            position++;
+            if (identifier() == -1 || (peek() == '<' && !typeArguments())) {
+                return false;
+            }
+        }
+
+        return expect(';');
+    }
+
+    private boolean typeArguments() {
+        position++;
+
+        do {
+            char c = peek();
+            if (c == '*') {
+                position++;
+            }
+            else {
+                if (c == '+' || c == '-') {
+                    position++;
+                }
+                if (!referenceType()) {
+                    return false;
+                }
+            }
+        }
+        while (peek() != '>' && !atEnd());
+
+        return expect('>');
+    }
+
+    /**
+     * Skips an unqualified name, returning its start or -1 if it is empty.
+     */
+    private int identifier() {
+        int start = position;
+
+        while (!atEnd()) {
+            char c = signature.charAt(position);
+            if (c == '.' || c == ';' || c == '[' || c == '/' || c == '<' || c == '>' || c == ':') {
+                break;
+            }
+            position++;
+        }
+
+        return position > start ? start : -1;
+    }
+
+    private boolean expect(char c) {
+        if (peek() != c) {
+            return false;
+        }
+
+        position++;
+        return true;
+    }
+
+    private char peek() {
+        return atEnd() ? 0 : signature.charAt(position);
+    }
+
+    private boolean atEnd() {
+        return position >= signature.length();
+    }
+}
@@ -0,0 +1,418 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.diff;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+import org.moditect.deptective.internal.model.Component;
+import org.moditect.deptective.internal.model.PackageDependencies;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The differences between two dependency models, e.g. the {@code deptective.json} of a previous build and the one of
+ * the current build: added and removed components, added and removed reads and new and resolved cycles.
+ * <p>
+ * As the nodes of the graphs of both models are numbered in alphabetical order and adjacency lists are sorted by
+ * target, both are compared by merging the sorted node and edge lists in O(n+m) string comparisons.
+ */
+public class ModelDiff {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final IntGraph previousGraph;
+    private final IntGraph currentGraph;
+    private final List<String> addedComponents;
+    private final List<String> removedComponents;
+    private final List<String[]> addedReads;
+    private final List<String[]> removedReads;
+    private final List<List<String>> newCycles;
+    private final List<List<String>> resolvedCycles;
+
+    private ModelDiff(IntGraph previousGraph, IntGraph currentGraph) {
+        this.previousGraph = previousGraph;
+        this.currentGraph = currentGraph;
+        this.addedComponents = new ArrayList<>();
+        this.removedComponents = new ArrayList<>();
+        this.addedReads = new ArrayList<>();
+        this.removedReads = new ArrayList<>();
+        this.newCycles = new ArrayList<>();
+        this.resolvedCycles = new ArrayList<>();
+    }
+
+    /**
+     * Compares the given models.
+     *
+     * @param previous the earlier model, e.g. the one of the main branch
+     * @param current the later model, e.g. the one of the current build
+     */
+    public static ModelDiff compare(PackageDependencies previous, PackageDependencies current) {
+        ModelDiff diff = new ModelDiff(previous.toGraph(), current.toGraph());
+
+        diff.compareComponents(sortedNames(previous), sortedNames(current));
+        diff.compareReads();
+        diff.compareCycles();
+
+        return diff;
+    }
+
+    public List<String> getAddedComponents() {
+        return Collections.unmodifiableList(addedComponents);
+    }
+
+    public List<String> getRemovedComponents() {
+        return Collections.unmodifiableList(removedComponents);
+    }
+
+    /**
+     * Returns the added reads, each given as the names of the reading and the read component.
+     */
+    public List<String[]> getAddedReads() {
+        return Collections.unmodifiableList(addedReads);
+    }
+
+    /**
+     * Returns the removed reads, each given as the names of the reading and the read component.
+     */
+    public List<String[]> getRemovedReads() {
+        return Collections.unmodifiableList(removedReads);
+    }
+
+    /**
+     * Returns the cycles of the current model not present in the previous one, each given as the alphabetically
+     * sorted names of its members. A cycle which gained or lost members counts as new.
+     */
+    public List<List<String>> getNewCycles() {
+        return Collections.unmodifiableList(newCycles);
+    }
+
+    /**
+     * Returns the cycles of the previous model not present in the current one.
+     */
+    public List<List<String>> getResolvedCycles() {
+        return Collections.unmodifiableList(resolvedCycles);
+    }
+
+    public boolean isEmpty() {
+        return addedComponents.isEmpty() && removedComponents.isEmpty() && addedReads.isEmpty()
+                && removedReads.isEmpty() && newCycles.isEmpty() && resolvedCycles.isEmpty();
+    }
+
+    private void compareComponents(String[] previous, String[] current) {
+        int i = 0;
+        int j = 0;
+
+        while (i < previous.length || j < current.length) {
+            int cmp = i == previous.length ? 1 : j == current.length ? -1 : previous[i].compareTo(current[j]);
+
+            if (cmp < 0) {
+                removedComponents.add(previous[i++]);
+            }
+            else if (cmp > 0) {
+                addedComponents.add(current[j++]);
+            }
+            else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private void compareReads() {
+        int i = 0;
+        int j = 0;
+
+        while (i < previousGraph.size() || j < currentGraph.size()) {
+            int cmp = i == previousGraph.size() ? 1
+                    : j == currentGraph.size() ? -1
+                            : previousGraph.getName(i).compareTo(currentGraph.getName(j));
+
+            if (cmp < 0) {
+                addAll(previousGraph, i++, removedReads);
+            }
+            else if (cmp > 0) {
+                addAll(currentGraph, j++, addedReads);
+            }
+            else {
+                compareReads(i++, j++);
+            }
+        }
+    }
+
+    private void compareReads(int previousNode, int currentNode) {
+        String name = currentGraph.getName(currentNode);
+        int e1 = previousGraph.edgesStart(previousNode);
+        int e2 = currentGraph.edgesStart(currentNode);
+        int end1 = previousGraph.edgesEnd(previousNode);
+        int end2 = currentGraph.edgesEnd(currentNode);
+
+        while (e1 < end1 || e2 < end2) {
+            int cmp = e1 == end1 ? 1
+                    : e2 == end2 ? -1
+                            : previousGraph.getName(previousGraph.target(e1))
+                                    .compareTo(currentGraph.getName(currentGraph.target(e2)));
+
+            if (cmp < 0) {
+                removedReads.add(new String[] { name, previousGraph.getName(previousGraph.target(e1++)) });
+            }
+            else if (cmp > 0) {
+                addedReads.add(new String[] { name, currentGraph.getName(currentGraph.target(e2++)) });
+            }
+            else {
+                e1++;
+                e2++;
+            }
+        }
+    }
+
+    private static void addAll(IntGraph graph, int node, List<String[]> reads) {
+        for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+            reads.add(new String[] { graph.getName(node), graph.getName(graph.target(e)) });
+        }
+    }
+
+    private void compareCycles() {
+        List<List<String>> previousCycles = getCycles(previousGraph);
+        List<List<String>> currentCycles = getCycles(currentGraph);
+
+        Set<List<String>> previous = new HashSet<>(previousCycles);
+        Set<List<String>> current = new HashSet<>(currentCycles);
+
+        for (List<String> cycle : currentCycles) {
+            if (!previous.contains(cycle)) {
+                newCycles.add(cycle);
+            }
+        }
+        for (List<String> cycle : previousCycles) {
+            if (!current.contains(cycle)) {
+                resolvedCycles.add(cycle);
+            }
+        }
+    }
+
+    private static List<List<String>> getCycles(IntGraph graph) {
+        StronglyConnectedComponents components = GraphUtils.detectStronglyConnectedComponents(graph);
+        List<List<String>> cycles = new ArrayList<>();
+
+        for (int component = 0; component < components.getCount(); component++) {
+            if (components.isCycle(component)) {
+                List<String> members = new ArrayList<>();
+                for (int i = 0; i < components.size(component); i++) {
+                    members.add(graph.getName(components.getMember(component, i)));
+                }
+                cycles.add(members);
+            }
+        }
+
+        cycles.sort((c1, c2) -> c1.get(0).compareTo(c2.get(0)));
+        return cycles;
+    }
+
+    private static String[] sortedNames(PackageDependencies model) {
+        SortedSet<String> names = new TreeSet<>();
+        for (Component component : model.getComponents()) {
+            names.add(component.getName());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Writes this diff in JSON format:
+     *
+     * <pre>
+     * {
+     *   "addedComponents" : [ "c" ],
+     *   "removedComponents" : [ ],
+     *   "addedReads" : [ { "from" : "c", "to" : "a" } ],
+     *   "removedReads" : [ ],
+     *   "newCycles" : [ [ "a", "c" ] ],
+     *   "resolvedCycles" : [ ]
+     * }
+     * </pre>
+     */
+    public void writeJson(Writer writer) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            writeNames(generator, "addedComponents", addedComponents);
+            writeNames(generator, "removedComponents", removedComponents);
+            writeReads(generator, "addedReads", addedReads);
+            writeReads(generator, "removedReads", removedReads);
+            writeCycles(generator, "newCycles", newCycles);
+            writeCycles(generator, "resolvedCycles", resolvedCycles);
+
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeNames(JsonGenerator generator, String field, List<String> names) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String name : names) {
+            generator.writeString(name);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeReads(JsonGenerator generator, String field, List<String[]> reads) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String[] read : reads) {
+            generator.writeStartObject();
+            generator.writeStringField("from", read[0]);
+            generator.writeStringField("to", read[1]);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeCycles(JsonGenerator generator, String field, List<List<String>> cycles)
+            throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (List<String> cycle : cycles) {
+            generator.writeStartArray();
+            for (String member : cycle) {
+                generator.writeString(member);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes the union of both models in GraphViz format, marking added components and reads in green, removed ones
+     * in red (dashed) and the reads within new cycles in purple.
+     */
+    public void writeDot(Writer writer) throws IOException {
+        SortedMap<String, SortedMap<String, EdgeKind>> edges = new TreeMap<>();
+        for (int node = 0; node < previousGraph.size(); node++) {
+            edges.put(previousGraph.getName(node), new TreeMap<>());
+        }
+        for (int from = 0; from < currentGraph.size(); from++) {
+            SortedMap<String, EdgeKind> targets = edges.computeIfAbsent(
+                    currentGraph.getName(from), n -> new TreeMap<>()
+            );
+            for (int e = currentGraph.edgesStart(from); e < currentGraph.edgesEnd(from); e++) {
+                targets.put(currentGraph.getName(currentGraph.target(e)), EdgeKind.UNCHANGED);
+            }
+        }
+        for (String[] read : addedReads) {
+            edges.get(read[0]).put(read[1], EdgeKind.ADDED);
+        }
+        for (String[] read : removedReads) {
+            edges.get(read[0]).put(read[1], EdgeKind.REMOVED);
+        }
+        for (List<String> cycle : newCycles) {
+            for (String member : cycle) {
+                for (Entry<String, EdgeKind> read : edges.get(member).entrySet()) {
+                    if (read.getValue() != EdgeKind.REMOVED && Collections.binarySearch(cycle, read.getKey()) >= 0) {
+                        read.setValue(EdgeKind.NEW_CYCLE);
+                    }
+                }
+            }
+        }
+
+        Set<String> added = new HashSet<>(addedComponents);
+        Set<String> removed = new HashSet<>(removedComponents);
+
+        writer.append("digraph \"package dependencies\"\n");
+        writer.append("{\n");
+
+        for (String name : edges.keySet()) {
+            writer.append("  \"").append(name).append('"');
+            if (added.contains(name)) {
+                writer.append(" [color=green]");
+            }
+            else if (removed.contains(name)) {
+                writer.append(" [color=red, style=dashed]");
+            }
+            writer.append(";").append(System.lineSeparator());
+        }
+
+        for (EdgeKind kind : EdgeKind.values()) {
+            writeEdges(writer, edges, kind);
+        }
+
+        writer.append("}");
+        writer.flush();
+    }
+
+    private static void writeEdges(Writer writer, SortedMap<String, SortedMap<String, EdgeKind>> edges, EdgeKind kind)
+            throws IOException {
+        boolean atLeastOneEdge = false;
+
+        for (Entry<String, SortedMap<String, EdgeKind>> from : edges.entrySet()) {
+            for (Entry<String, EdgeKind> to : from.getValue().entrySet()) {
+                if (to.getValue() != kind) {
+                    continue;
+                }
+
+                if (!atLeastOneEdge) {
+                    writer.append("  subgraph " + kind.subgraph + " {").append(System.lineSeparator());
+                    if (kind.style != null) {
+                        writer.append("    edge [" + kind.style + "]").append(System.lineSeparator());
+                    }
+                    atLeastOneEdge = true;
+                }
+
+                writer.append("    \"")
+                        .append(from.getKey())
+                        .append("\" -> \"")
+                        .append(to.getKey())
+                        .append("\";")
+                        .append(System.lineSeparator());
+            }
+        }
+
+        if (atLeastOneEdge) {
+            writer.append("  }").append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * The kinds of edges in the DOT overlay.
+     */
+    private enum EdgeKind {
+
+        UNCHANGED("Unchanged", null),
+        ADDED("Added", "color=green, penwidth=2"),
+        REMOVED("Removed", "color=red, style=dashed"),
+        NEW_CYCLE("NewCycle", "color=purple, penwidth=2");
+
+        private final String subgraph;
+        private final String style;
+
+        EdgeKind(String subgraph, String style) {
+            this.subgraph = subgraph;
+            this.style = style;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+import org.moditect.deptective.internal.model.Component;
+import org.moditect.deptective.internal.model.PackagePattern;
+import org.moditect.deptective.internal.model.ReadKind;
+import org.moditect.deptective.internal.util.LongIntHashMap;
+
+/**
+ * Serializes models to GraphViz format, collapsing the members of each cycle (strongly connected component) into a
+ * single node labelled with the names of the members. The resulting graph is acyclic and optionally is reduced
+ * transitively, i.e. relationships implied by other paths are omitted. This yields much smaller DOT files than
+ * {@link DotSerializer}, which GraphViz can lay out also for very large models.
+ * <p>
+ * A relationship between two nodes is rendered as disallowed (red) or unknown (yellow) if at least one of the merged
+ * reads is of that kind; such relationships are never dropped by the transitive reduction.
+ */
+public class CondensedDotSerializer implements ModelSerializer {
+
+    private static final int ALLOWED = 0;
+    private static final int UNKNOWN = 1;
+    private static final int DISALLOWED = 2;
+
+    private final boolean reduce;
+    private final SortedMap<String, Component> components;
+
+    public CondensedDotSerializer(boolean reduce) {
+        this.reduce = reduce;
+        this.components = new TreeMap<>();
+    }
+
+    @Override
+    public void addComponent(Component component) {
+        components.put(component.getName(), component);
+    }
+
+    @Override
+    public void addWhitelistedPackagePattern(PackagePattern pattern) {
+    }
+
+    @Override
+    public String serialize() {
+        IntGraph.Builder builder = IntGraph.builder();
+        SortedSet<String> allNames = new TreeSet<>();
+        for (Component component : components.values()) {
+            allNames.add(component.getName());
+            allNames.addAll(component.getReads().keySet());
+        }
+        allNames.forEach(builder::addNode);
+
+        for (Component component : components.values()) {
+            for (String read : component.getReads().keySet()) {
+                builder.addEdge(component.getName(), read, component.getReadWeight(read));
+            }
+        }
+
+        IntGraph graph = builder.build();
+        StronglyConnectedComponents sccs = GraphUtils.detectStronglyConnectedComponents(graph);
+
+        // name cycles in the order of their alphabetically first member
+        String[] groupOfNode = new String[graph.size()];
+        Map<String, int[]> cycles = new HashMap<>();
+        for (int node = 0; node < graph.size(); node++) {
+            int scc = sccs.getComponent(node);
+
+            if (!sccs.isCycle(scc)) {
+                groupOfNode[node] = graph.getName(node);
+            }
+            else if (sccs.getMember(scc, 0) == node) {
+                String cycleName = "cycle " + (cycles.size() + 1);
+                cycles.put(cycleName, sccs.getMembers(scc));
+                for (int member : sccs.getMembers(scc)) {
+                    groupOfNode[member] = cycleName;
+                }
+            }
+        }
+
+        IntGraph condensed = graph.rollUp(name -> groupOfNode[graph.indexOf(name)]);
+        LongIntHashMap kinds = getKindsOfRelationships(graph, condensed, groupOfNode);
+
+        IntGraph edges = condensed;
+        if (reduce) {
+            IntGraph.Builder reduced = IntGraph.builder();
+            IntGraph transitiveReduction = GraphUtils.transitiveReduction(condensed);
+
+            for (int node = 0; node < condensed.size(); node++) {
+                reduced.addNode(condensed.getName(node));
+            }
+            for (int from = 0; from < condensed.size(); from++) {
+                for (int e = condensed.edgesStart(from); e < condensed.edgesEnd(from); e++) {
+                    int to = condensed.target(e);
+                    if (transitiveReduction.getWeight(from, to) != 0 ||
+                            kinds.get(LongIntHashMap.key(from, to), ALLOWED) != ALLOWED) {
+                        reduced.addEdge(from, to, condensed.weight(e));
+                    }
+                }
+            }
+
+            edges = reduced.build();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph \"package dependencies\"\n");
+        sb.append("{\n");
+
+        for (int node = 0; node < condensed.size(); node++) {
+            sb.append("  \"").append(condensed.getName(node)).append("\"");
+            int[] members = cycles.get(condensed.getName(node));
+            if (members != null) {
+                sb.append(" [shape=box, color=purple, penwidth=2, label=\"")
+                        .append(condensed.getName(node))
+                        .append(":");
+                for (int member : members) {
+                    sb.append("\\n").append(graph.getName(member));
+                }
+                sb.append("\"]");
+            }
+            sb.append(";").append(System.lineSeparator());
+        }
+
+        addSubGraph(sb, edges, kinds, ALLOWED, "Allowed", null);
+        addSubGraph(sb, edges, kinds, DISALLOWED, "Disallowed", "red");
+        addSubGraph(sb, edges, kinds, UNKNOWN, "Unknown", "yellow");
+
+        sb.append("}");
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns the most severe kind of the reads merged into each relationship of the condensed graph.
+     */
+    private LongIntHashMap getKindsOfRelationships(IntGraph graph, IntGraph condensed, String[] groupOfNode) {
+        LongIntHashMap kinds = new LongIntHashMap();
+
+        for (Entry<String, Component> component : components.entrySet()) {
+            int from = condensed.indexOf(groupOfNode[graph.indexOf(component.getKey())]);
+
+            for (Entry<String, ReadKind> read : component.getValue().getReads().entrySet()) {
+                int to = condensed.indexOf(groupOfNode[graph.indexOf(read.getKey())]);
+                int kind = read.getValue() == ReadKind.DISALLOWED ? DISALLOWED
+                        : read.getValue() == ReadKind.UKNOWN ? UNKNOWN : ALLOWED;
+                long key = LongIntHashMap.key(from, to);
+
+                if (from != to && kind > kinds.get(key, ALLOWED)) {
+                    kinds.put(key, kind);
+                }
+            }
+        }
+
+        return kinds;
+    }
+
+    private void addSubGraph(StringBuilder sb, IntGraph edges, LongIntHashMap kinds, int kind, String name,
+            String color) {
+
+        StringBuilder subGraphBuilder = new StringBuilder();
+        boolean atLeastOneEdge = false;
+
+        subGraphBuilder.append("  subgraph " + name + " {").append(System.lineSeparator());
+        if (color != null) {
+            subGraphBuilder.append("    edge [color=" + color + ", penwidth=2]").append(System.lineSeparator());
+        }
+        for (int from = 0; from < edges.size(); from++) {
+            for (int e = edges.edgesStart(from); e < edges.edgesEnd(from); e++) {
+                int to = edges.target(e);
+                if (kinds.get(LongIntHashMap.key(from, to), ALLOWED) != kind) {
+                    continue;
+                }
+
+                subGraphBuilder.append("    \"")
+                        .append(edges.getName(from))
+                        .append("\" -> \"")
+                        .append(edges.getName(to))
+                        .append("\" [label=")
+                        .append(edges.weight(e))
+                        .append("];\n");
+                atLeastOneEdge = true;
+            }
+        }
+
+        subGraphBuilder.append("  }").append(System.lineSeparator());
+
+        if (atLeastOneEdge) {
+            sb.append(subGraphBuilder);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a list of cycles in JSON format. Each cycle is written out as soon as it is added, so arbitrarily many
+ * cycles can be written without keeping them in memory:
+ *
+ * <pre>
+ * {
+ *   "cycles" : [ [ "a", "b" ], [ "a", "b", "c" ] ],
+ *   "complete" : true
+ * }
+ * </pre>
+ *
+ * {@code complete} is {@code false} if not all cycles could be enumerated due to the configured limit.
+ */
+public class CyclesJsonWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final IntGraph graph;
+    private final JsonGenerator generator;
+    private boolean complete;
+
+    public CyclesJsonWriter(IntGraph graph, Writer writer) throws IOException {
+        this.graph = graph;
+        this.generator = JSON_FACTORY.createGenerator(writer);
+        this.complete = true;
+
+        generator.useDefaultPrettyPrinter();
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("cycles");
+    }
+
+    /**
+     * Writes the given cycle, given as the ids of its nodes within the graph.
+     */
+    public void addCycle(int[] cycle) throws IOException {
+        generator.writeStartArray();
+        for (int node : cycle) {
+            generator.writeString(graph.getName(node));
+        }
+        generator.writeEndArray();
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeBooleanField("complete", complete);
+        generator.writeEndObject();
+        generator.close();
+    }
+}
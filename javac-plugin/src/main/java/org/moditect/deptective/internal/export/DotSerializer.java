@@ -34,10 +34,11 @@ public class DotSerializer implements ModelSerializer {
 
     private final StringBuilder sb;
     private final SortedSet<String> allPackages;
-    private final SortedMap<String, SortedSet<String>> allowedReads;
-    private final SortedMap<String, SortedSet<String>> disallowedReads;
-    private final SortedMap<String, SortedSet<String>> cycleReads;
-    private final SortedMap<String, SortedSet<String>> unknownReads;
+    private final SortedMap<String, Integer> levels;
+    private final SortedMap<String, SortedMap<String, Integer>> allowedReads;
+    private final SortedMap<String, SortedMap<String, Integer>> disallowedReads;
+    private final SortedMap<String, SortedMap<String, Integer>> cycleReads;
+    private final SortedMap<String, SortedMap<String, Integer>> unknownReads;
 
     public DotSerializer() {
         sb = new StringBuilder();
@@ -45,6 +46,7 @@ public class DotSerializer implements ModelSerializer {
         sb.append("{\n");
 
         allPackages = new TreeSet<>();
+        levels = new TreeMap<>();
         allowedReads = new TreeMap<>();
         disallowedReads = new TreeMap<>();
         cycleReads = new TreeMap<>();
@@ -54,34 +56,38 @@ public class DotSerializer implements ModelSerializer {
     @Override
     public void addComponent(Component component) {
         allPackages.add(component.getName());
+        if (component.getLevel() != Component.NO_LEVEL) {
+            levels.put(component.getName(), component.getLevel());
+        }
 
-        SortedSet<String> allowed = new TreeSet<>();
+        SortedMap<String, Integer> allowed = new TreeMap<>();
         allowedReads.put(component.getName(), allowed);
 
-        SortedSet<String> disallowed = new TreeSet<>();
+        SortedMap<String, Integer> disallowed = new TreeMap<>();
         disallowedReads.put(component.getName(), disallowed);
 
-        SortedSet<String> cycle = new TreeSet<>();
+        SortedMap<String, Integer> cycle = new TreeMap<>();
         cycleReads.put(component.getName(), cycle);
 
-        SortedSet<String> unknown = new TreeSet<>();
+        SortedMap<String, Integer> unknown = new TreeMap<>();
         unknownReads.put(component.getName(), unknown);
 
         for (Entry<String, ReadKind> referencedPackage : component.getReads().entrySet()) {
             String referencedPackageName = referencedPackage.getKey();
+            int weight = component.getReadWeight(referencedPackageName);
             allPackages.add(referencedPackageName);
 
             if (referencedPackage.getValue() == ReadKind.ALLOWED) {
-                allowed.add(referencedPackageName);
+                allowed.put(referencedPackageName, weight);
             }
             else if (referencedPackage.getValue() == ReadKind.DISALLOWED) {
-                disallowed.add(referencedPackageName);
+                disallowed.put(referencedPackageName, weight);
             }
             else if (referencedPackage.getValue() == ReadKind.CYCLE) {
-                cycle.add(referencedPackageName);
+                cycle.put(referencedPackageName, weight);
             }
             else {
-                unknown.add(referencedPackageName);
+                unknown.put(referencedPackageName, weight);
             }
         }
     }
@@ -93,7 +99,11 @@ public class DotSerializer implements ModelSerializer {
     @Override
     public String serialize() {
         for (String pakkage : allPackages) {
-            sb.append("  \"").append(pakkage).append("\";").append(System.lineSeparator());
+            sb.append("  \"").append(pakkage).append("\"");
+            if (levels.containsKey(pakkage)) {
+                sb.append(" [level=").append(levels.get(pakkage)).append("]");
+            }
+            sb.append(";").append(System.lineSeparator());
         }
 
         addSubGraph(sb, allowedReads, "Allowed", null);
@@ -106,7 +116,7 @@ public class DotSerializer implements ModelSerializer {
         return sb.toString();
     }
 
-    private void addSubGraph(StringBuilder sb, SortedMap<String, SortedSet<String>> readsOfKind, String kind,
+    private void addSubGraph(StringBuilder sb, SortedMap<String, SortedMap<String, Integer>> readsOfKind, String kind,
             String color) {
 
         StringBuilder subGraphBuilder = new StringBuilder();
@@ -116,9 +126,15 @@ public class DotSerializer implements ModelSerializer {
         if (color != null) {
             subGraphBuilder.append("    edge [color=" + color + ", penwidth=2]").append(System.lineSeparator());
         }
-        for (Entry<String, SortedSet<String>> reads : readsOfKind.entrySet()) {
-            for (String read : reads.getValue()) {
-                subGraphBuilder.append("    \"").append(reads.getKey()).append("\" -> \"").append(read).append("\";\n");
+        for (Entry<String, SortedMap<String, Integer>> reads : readsOfKind.entrySet()) {
+            for (Entry<String, Integer> read : reads.getValue().entrySet()) {
+                subGraphBuilder.append("    \"")
+                        .append(reads.getKey())
+                        .append("\" -> \"")
+                        .append(read.getKey())
+                        .append("\" [label=")
+                        .append(read.getValue())
+                        .append("];\n");
                 atLeastOneEdge = true;
             }
         }
@@ -0,0 +1,129 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IDependencyStructureMatrix;
+import org.moditect.deptective.internal.model.Component;
+import org.moditect.deptective.internal.model.IdentifiableComponent;
+import org.moditect.deptective.internal.model.PackagePattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Serializes models as a dependency structure matrix (DSM) in JSON format, ordered such that the number of upward
+ * dependencies is minimized (see {@link GraphUtils#createDependencyStructureMatrix(java.util.Collection)}).
+ * <p>
+ * The representation is sparse: {@code components} lists the rows (and columns) of the matrix in order and
+ * {@code cells} lists only the non-empty cells by row and column index, together with their weight and whether they
+ * are part of a cycle and/or an upward dependency (i.e. below the diagonal). Unlike GraphViz files, this stays
+ * manageable also for models with thousands of components.
+ */
+public class DsmSerializer implements ModelSerializer {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Map<String, Component> components = new HashMap<>();
+    private final SortedSet<String> readComponents = new TreeSet<>();
+
+    @Override
+    public void addComponent(Component component) {
+        components.put(component.getName(), component);
+        readComponents.addAll(component.getReads().keySet());
+    }
+
+    @Override
+    public void addWhitelistedPackagePattern(PackagePattern pattern) {
+    }
+
+    @Override
+    public String serialize() {
+        // read targets which aren't components themselves (e.g. unconfigured packages) become rows of their own
+        List<IdentifiableComponent> nodes = new ArrayList<>();
+        new TreeSet<>(components.keySet()).forEach(name -> nodes.add(components.get(name)));
+        readComponents.stream()
+                .filter(name -> !components.containsKey(name))
+                .forEach(name -> nodes.add(Component.builder(name).build()));
+
+        IDependencyStructureMatrix<IdentifiableComponent> dsm = GraphUtils.createDependencyStructureMatrix(nodes);
+        List<IdentifiableComponent> ordered = dsm.getOrderedNodes();
+
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            indexes.put(ordered.get(i).getName(), i);
+        }
+
+        StringWriter writer = new StringWriter();
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            generator.writeArrayFieldStart("components");
+            for (IdentifiableComponent node : ordered) {
+                generator.writeString(node.getName());
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("cells");
+            for (int row = 0; row < ordered.size(); row++) {
+                Component component = components.get(ordered.get(row).getName());
+                if (component == null) {
+                    continue;
+                }
+
+                int[] columns = component.getReads()
+                        .keySet()
+                        .stream()
+                        .mapToInt(indexes::get)
+                        .sorted()
+                        .toArray();
+
+                for (int column : columns) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("row", row);
+                    generator.writeNumberField("column", column);
+                    generator.writeNumberField("weight", dsm.getWeight(row, column));
+                    if (dsm.isCellInCycle(row, column)) {
+                        generator.writeBooleanField("cycle", true);
+                    }
+                    if (column < row) {
+                        generator.writeBooleanField("upward", true);
+                    }
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return writer.toString();
+    }
+}
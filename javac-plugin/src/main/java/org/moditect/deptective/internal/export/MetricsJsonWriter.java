@@ -0,0 +1,118 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes metrics of the nodes of a graph as JSON. Each metric is given as an array of values indexed by node id; the
+ * values of all metrics are written per node, in the order of the node ids:
+ *
+ * <pre>
+ * {
+ *   "components" : [ { "name" : "com.example", "betweenness" : 2.5, "reads" : { "com.example.util" : 3 } } ]
+ * }
+ * </pre>
+ */
+public class MetricsJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final IntGraph graph;
+    private final Set<String> nodes;
+    private final Map<String, MetricValues> metrics = new LinkedHashMap<>();
+
+    /**
+     * @param graph the graph the metrics refer to
+     * @param nodes the nodes whose metrics should be written, e.g. only the components of a model, but not the
+     *        external packages read by them
+     */
+    public MetricsJsonWriter(IntGraph graph, Set<String> nodes) {
+        this.graph = graph;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Adds a metric to be written under the given name; metrics are written in the order they were added.
+     */
+    public MetricsJsonWriter addMetric(String name, double[] values) {
+        metrics.put(name, (generator, node) -> generator.writeNumberField(name, values[node]));
+        return this;
+    }
+
+    /**
+     * Adds a metric with integral values, e.g. a count, to be written under the given name.
+     */
+    public MetricsJsonWriter addMetric(String name, int[] values) {
+        metrics.put(name, (generator, node) -> generator.writeNumberField(name, values[node]));
+        return this;
+    }
+
+    /**
+     * Adds the outgoing edges of each node, to be written under the given name as an object mapping the names of the
+     * target nodes to the weights of the edges.
+     */
+    public MetricsJsonWriter addEdgeWeights(String name) {
+        metrics.put(name, (generator, node) -> {
+            generator.writeObjectFieldStart(name);
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                generator.writeNumberField(graph.getName(graph.target(e)), graph.weight(e));
+            }
+            generator.writeEndObject();
+        });
+        return this;
+    }
+
+    public void write(Writer writer) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("components");
+
+            for (int node = 0; node < graph.size(); node++) {
+                if (!nodes.contains(graph.getName(node))) {
+                    continue;
+                }
+
+                generator.writeStartObject();
+                generator.writeStringField("name", graph.getName(node));
+                for (MetricValues metric : metrics.values()) {
+                    metric.write(generator, node);
+                }
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    @FunctionalInterface
+    private interface MetricValues {
+
+        void write(JsonGenerator generator, int node) throws IOException;
+    }
+}
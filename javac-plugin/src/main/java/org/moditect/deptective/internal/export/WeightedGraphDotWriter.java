@@ -0,0 +1,97 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+
+/**
+ * Writes a weighted graph in GraphViz format. Edges are labelled with their weight, edges within a cycle are
+ * marked in purple.
+ */
+public class WeightedGraphDotWriter {
+
+    private final String name;
+
+    /**
+     * @param name the name of the written digraph
+     */
+    public WeightedGraphDotWriter(String name) {
+        this.name = name;
+    }
+
+    public void write(IntGraph graph, Writer writer) throws IOException {
+        write(graph, GraphUtils.detectStronglyConnectedComponents(graph), writer);
+    }
+
+    /**
+     * Writes the given graph, using the given, already determined SCCs of that graph for marking cycles.
+     */
+    public void write(IntGraph graph, StronglyConnectedComponents components, Writer writer) throws IOException {
+        writer.append("digraph \"").append(name).append("\"").append(System.lineSeparator());
+        writer.append("{").append(System.lineSeparator());
+
+        for (int node = 0; node < graph.size(); node++) {
+            writer.append("  \"").append(graph.getName(node)).append("\";").append(System.lineSeparator());
+        }
+
+        writeEdges(graph, components, writer, false, "Allowed", null);
+        writeEdges(graph, components, writer, true, "Cycle", "purple");
+
+        writer.append("}");
+        writer.flush();
+    }
+
+    private void writeEdges(IntGraph graph, StronglyConnectedComponents components, Writer writer, boolean inCycle,
+            String kind, String color) throws IOException {
+        boolean atLeastOneEdge = false;
+
+        for (int from = 0; from < graph.size(); from++) {
+            for (int e = graph.edgesStart(from); e < graph.edgesEnd(from); e++) {
+                int to = graph.target(e);
+
+                if ((components.getComponent(from) == components.getComponent(to)) != inCycle) {
+                    continue;
+                }
+
+                if (!atLeastOneEdge) {
+                    writer.append("  subgraph " + kind + " {").append(System.lineSeparator());
+                    if (color != null) {
+                        writer.append("    edge [color=" + color + ", penwidth=2]").append(System.lineSeparator());
+                    }
+                    atLeastOneEdge = true;
+                }
+
+                writer.append("    \"")
+                        .append(graph.getName(from))
+                        .append("\" -> \"")
+                        .append(graph.getName(to))
+                        .append("\" [label=")
+                        .append(String.valueOf(graph.weight(e)))
+                        .append("];")
+                        .append(System.lineSeparator());
+            }
+        }
+
+        if (atLeastOneEdge) {
+            writer.append("  }").append(System.lineSeparator());
+        }
+    }
+}
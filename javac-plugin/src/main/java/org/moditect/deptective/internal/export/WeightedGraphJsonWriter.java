@@ -0,0 +1,89 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes one or more weighted graphs, e.g. the same dependencies at different levels of detail, as JSON. Each graph
+ * is written as a named array of its nodes having outgoing edges, with the edges given as an object mapping each
+ * target to the weight of the edge:
+ *
+ * <pre>
+ * {
+ *   "types" : [ { "name" : "com.example.Foo", "reads" : { "com.example.bar.Bar" : 2 } } ],
+ *   "packages" : [ { "name" : "com.example", "reads" : { "com.example.bar" : 2 } } ]
+ * }
+ * </pre>
+ *
+ * Output is streamed, so large graphs don't need to be materialized as a JSON tree.
+ */
+public class WeightedGraphJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Map<String, IntGraph> graphs = new LinkedHashMap<>();
+
+    /**
+     * Adds a graph to be written under the given name; graphs are written in the order they were added.
+     */
+    public WeightedGraphJsonWriter addGraph(String name, IntGraph graph) {
+        graphs.put(name, graph);
+        return this;
+    }
+
+    public void write(Writer writer) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            for (Entry<String, IntGraph> graph : graphs.entrySet()) {
+                generator.writeArrayFieldStart(graph.getKey());
+                writeNodes(generator, graph.getValue());
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeNodes(JsonGenerator generator, IntGraph graph) throws IOException {
+        for (int node = 0; node < graph.size(); node++) {
+            if (graph.outDegree(node) == 0) {
+                continue;
+            }
+
+            generator.writeStartObject();
+            generator.writeStringField("name", graph.getName(node));
+            generator.writeObjectFieldStart("reads");
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                generator.writeNumberField(graph.getName(graph.target(e)), graph.weight(e));
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+}
@@ -27,17 +27,58 @@ import java.util.stream.Collectors;
  */
 public class Cycle<T extends Node<T>> {
 
+    /**
+     * The number of witnesses determined by default for each cycle.
+     */
+    public static final int DEFAULT_MAX_WITNESSES = 3;
+
     private static final String STRING_DELIMITER = ", ";
     private final List<T> nodes;
+    private final List<List<T>> witnesses;
 
     public Cycle(List<T> nodes) {
+        this(nodes, Collections.emptyList());
+    }
+
+    /**
+     * @param witnesses Concrete (shortest) circular paths amongst the given nodes, each given as its sequence of
+     *        nodes
+     */
+    public Cycle(List<T> nodes, List<List<T>> witnesses) {
         this.nodes = Collections.unmodifiableList(nodes);
+        this.witnesses = Collections.unmodifiableList(witnesses);
     }
 
     public List<T> getNodes() {
         return nodes;
     }
 
+    public List<List<T>> getWitnesses() {
+        return witnesses;
+    }
+
+    /**
+     * Returns the names of the nodes of this cycle as by {@link #toString()}, followed by one line per witness
+     * such as {@code a -> b -> c -> a}.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(toString());
+
+        for (List<T> witness : witnesses) {
+            description.append(System.lineSeparator())
+                    .append("    ")
+                    .append(
+                            witness.stream()
+                                    .map(Node::asShortString)
+                                    .collect(Collectors.joining(" -> "))
+                    )
+                    .append(" -> ")
+                    .append(witness.get(0).asShortString());
+        }
+
+        return description.toString();
+    }
+
     @Override
     public String toString() {
         return nodes.stream()
@@ -15,17 +15,27 @@
  */
 package org.moditect.deptective.internal.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.moditect.deptective.internal.graph.impl.BitSetTransitiveClosure;
+import org.moditect.deptective.internal.graph.impl.BrandesBetweenness;
 import org.moditect.deptective.internal.graph.impl.DependencyStructureMatrix;
 import org.moditect.deptective.internal.graph.impl.FastFasSorter;
+import org.moditect.deptective.internal.graph.impl.IterativeTarjan;
+import org.moditect.deptective.internal.graph.impl.JohnsonCycleEnumerator;
+import org.moditect.deptective.internal.graph.impl.Louvain;
+import org.moditect.deptective.internal.graph.impl.ShortestCycleFinder;
 import org.moditect.deptective.internal.graph.impl.Tarjan;
+import org.moditect.deptective.internal.graph.impl.TransitiveReduction;
 
 /**
  * @author Gerd W&uuml;therich (gw@code-kontor.io)
@@ -45,6 +55,71 @@ public class GraphUtils {
         return new Tarjan<T>().detectStronglyConnectedComponents(Objects.requireNonNull(nodes));
     }
 
+    /**
+     * Determines the strongly connected components (SCCs) of the given graph in O(n+m).
+     *
+     * @param graph the graph
+     * @return the SCCs of the graph, including those made up of just a single node
+     */
+    public static StronglyConnectedComponents detectStronglyConnectedComponents(IntGraph graph) {
+        return new IterativeTarjan().detectStronglyConnectedComponents(graph);
+    }
+
+    /**
+     * Assigns each node of the given graph to a level (architecture layer) in O(n+m), see
+     * {@link StronglyConnectedComponents#getLevels(IntGraph)}.
+     *
+     * @param graph the graph
+     * @return the level of each node
+     */
+    public static int[] computeLevels(IntGraph graph) {
+        return detectStronglyConnectedComponents(graph).getLevels(graph);
+    }
+
+    /**
+     * Computes the betweenness centrality of each node of the given graph, i.e. the (fractional) number of shortest
+     * paths between other nodes passing through that node. Nodes with a high centrality are bottlenecks which many
+     * dependency paths go through. The computation takes O(n*m) and is run in parallel.
+     *
+     * @param graph the graph; edge weights are ignored
+     * @return the betweenness centrality of each node
+     */
+    public static double[] computeBetweenness(IntGraph graph) {
+        return new BrandesBetweenness().computeBetweenness(graph);
+    }
+
+    /**
+     * Partitions the nodes of the given graph into communities of densely connected nodes via the Louvain method,
+     * see {@link Louvain}. Edge directions are ignored.
+     *
+     * @param graph the graph
+     * @return the community of each node, numbered {@code 0..k-1}
+     */
+    public static int[] detectCommunities(IntGraph graph) {
+        return new Louvain().detectCommunities(graph);
+    }
+
+    /**
+     * Determines the transitive closure of the given graph, i.e. which nodes can be reached from which other nodes.
+     *
+     * @param graph the graph
+     * @return the transitive closure, allowing to query reachability and example paths
+     */
+    public static TransitiveClosure computeTransitiveClosure(IntGraph graph) {
+        return new BitSetTransitiveClosure().computeTransitiveClosure(graph);
+    }
+
+    /**
+     * Returns the transitive reduction of the given directed acyclic graph, i.e. the graph with the same nodes and
+     * reachability relation but without any edges implied by other paths.
+     *
+     * @param dag the graph, e.g. the condensation of a graph with respect to its SCCs
+     * @throws IllegalArgumentException if the given graph contains a cycle
+     */
+    public static IntGraph transitiveReduction(IntGraph dag) {
+        return new TransitiveReduction().reduce(dag);
+    }
+
     /**
      * Returns all strongly connected subgraphs (size > 1) of the specified graph.
      *
@@ -59,6 +134,68 @@ public class GraphUtils {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns all strongly connected subgraphs (size > 1) of the specified graph, each together with up to the given
+     * number of concrete shortest cycles amongst its nodes (see {@link Cycle#getWitnesses()}). Determining a witness
+     * is linear in the size of the subgraph, so even huge cycles are described at little cost. Nodes are processed in
+     * alphabetical order of their short string representation and cycles are ordered by their string representation,
+     * so the result is deterministic.
+     *
+     * @param nodes the nodes of the graph; their short string representation must be unique
+     * @param maxWitnesses the maximum number of witnesses per cycle
+     */
+    public static <T extends Node<T>> List<Cycle<T>> detectCycles(Iterable<? extends T> nodes, int maxWitnesses) {
+        List<T> nodeList = new ArrayList<>();
+        nodes.forEach(nodeList::add);
+        nodeList.sort(Comparator.comparing(Node::asShortString));
+
+        IntGraph graph = IntGraph.of(nodeList);
+        StronglyConnectedComponents components = detectStronglyConnectedComponents(graph);
+        ShortestCycleFinder cycleFinder = new ShortestCycleFinder(graph, components);
+        List<Cycle<T>> cycles = new ArrayList<>();
+
+        for (int component = 0; component < components.getCount(); component++) {
+            if (!components.isCycle(component)) {
+                continue;
+            }
+
+            List<T> members = new ArrayList<>();
+            for (int member : components.getMembers(component)) {
+                members.add(nodeList.get(member));
+            }
+
+            List<List<T>> witnesses = new ArrayList<>();
+            for (int[] witness : cycleFinder.findShortestCycles(component, maxWitnesses)) {
+                List<T> witnessNodes = new ArrayList<>(witness.length);
+                for (int node : witness) {
+                    witnessNodes.add(nodeList.get(node));
+                }
+                witnesses.add(witnessNodes);
+            }
+
+            cycles.add(new Cycle<>(members, witnesses));
+        }
+
+        cycles.sort(Comparator.comparing(Cycle::toString));
+        return cycles;
+    }
+
+    /**
+     * Enumerates the elementary cycles of the given graph (Johnson's algorithm), passing each one to the given
+     * consumer as soon as it has been found. Each cycle is given as the sequence of its nodes, starting with the node
+     * with the lowest id.
+     *
+     * @param graph the graph
+     * @param maxCount the maximum number of cycles to enumerate
+     * @param maxLength the maximum number of nodes of enumerated cycles; longer cycles are skipped
+     * @param consumer receives the cycles
+     * @return {@code true} if all cycles (up to the maximum length) have been enumerated, {@code false} if the
+     *         enumeration was stopped as there are more than {@code maxCount} cycles
+     */
+    public static boolean enumerateCycles(IntGraph graph, int maxCount, int maxLength, Consumer<int[]> consumer) {
+        return new JohnsonCycleEnumerator(graph, maxCount, maxLength, consumer).enumerate();
+    }
+
     /**
      * Creates a dependency structure matrix (DSM) for the given graph nodes.
      *
@@ -0,0 +1,250 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Detects cycles in a growing graph of named nodes as soon as an edge closing a cycle is added, based on an
+ * {@link IncrementalTopologicalOrder} of the graph's strongly connected components (SCCs).
+ * <p>
+ * All edges are retained, also those closing a cycle. If an edge between two SCCs is rejected by the order, all SCCs
+ * on a path from its target to its source are merged into one, which replaces them in the order; so also a cycle
+ * running through an earlier closing edge is detected when it gets closed. An edge within an SCC closes a cycle, too.
+ * Adding an edge again has no effect.
+ */
+public class IncrementalCycleDetector {
+
+    private final IncrementalTopologicalOrder order = new IncrementalTopologicalOrder();
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+    private final List<String> nodeNames = new ArrayList<>();
+
+    /**
+     * All edges added so far, keyed by the ids of their source and target.
+     */
+    private final Set<Long> edges = new HashSet<>();
+
+    /**
+     * Edges of the order between SCCs, keyed by the ids of their representatives.
+     */
+    private final Set<Long> orderEdges = new HashSet<>();
+
+    private final List<List<Integer>> successors = new ArrayList<>();
+    private final List<List<Integer>> predecessors = new ArrayList<>();
+
+    /**
+     * The parent of each node in the union-find structure of the SCCs; a representative is its own parent. Nodes of
+     * the order which are no representatives anymore don't take part in any further edges.
+     */
+    private final List<Integer> parents = new ArrayList<>();
+
+    /**
+     * The members of each SCC, by the id of its representative.
+     */
+    private final Map<Integer, List<Integer>> members = new HashMap<>();
+
+    private boolean acyclic = true;
+
+    /**
+     * Adds an edge between the given nodes.
+     *
+     * @return {@code true} if this edge closes a cycle, {@code false} if it doesn't or has been added before
+     */
+    public boolean addEdge(String from, String to) {
+        int fromId = nodeId(from);
+        int toId = nodeId(to);
+
+        if (!edges.add(key(fromId, toId))) {
+            return false;
+        }
+
+        successors.get(fromId).add(toId);
+        predecessors.get(toId).add(fromId);
+
+        int fromScc = find(fromId);
+        int toScc = find(toId);
+
+        if (fromScc == toScc) {
+            acyclic = false;
+            return true;
+        }
+
+        if (!orderEdges.add(key(fromScc, toScc)) || order.addEdge(fromScc, toScc) == null) {
+            return false;
+        }
+
+        acyclic = false;
+        merge(toScc, fromScc);
+        return true;
+    }
+
+    /**
+     * Returns a shortest cycle closed by the given edge, which must have been added before.
+     *
+     * @return the names of the nodes on the path from {@code from} back to {@code from} (not repeating it at the
+     *         end), or an empty list if the edge isn't part of a cycle
+     */
+    public List<String> getCycleClosedBy(String from, String to) {
+        Integer fromId = nodeIds.get(from);
+        Integer toId = nodeIds.get(to);
+
+        if (fromId == null || toId == null || !edges.contains(key(fromId, toId)) || find(fromId) != find(toId)) {
+            return Collections.emptyList();
+        }
+
+        int scc = find(fromId);
+        int[] predecessor = new int[nodeNames.size()];
+        Arrays.fill(predecessor, -1);
+        predecessor[toId] = toId;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(toId);
+
+        while (predecessor[fromId] == -1) {
+            int node = queue.remove();
+
+            for (int successor : successors.get(node)) {
+                if (predecessor[successor] == -1 && find(successor) == scc) {
+                    predecessor[successor] = node;
+                    queue.add(successor);
+                }
+            }
+        }
+
+        List<String> cycle = new ArrayList<>();
+        for (int node = fromId; node != toId; node = predecessor[node]) {
+            cycle.add(nodeNames.get(node));
+        }
+        cycle.add(nodeNames.get(toId));
+        Collections.reverse(cycle.subList(1, cycle.size()));
+
+        return cycle;
+    }
+
+    /**
+     * Whether none of the edges added so far closed a cycle. Removing edges can't introduce cycles, so there's no
+     * need for running a cycle detection on a graph derived from the added edges in this case.
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    /**
+     * Merges all SCCs on a path from the given source to the given target into one, after an edge from the target
+     * to the source has been rejected. These SCCs are found between both in the order, so only that region of the
+     * graph is visited.
+     */
+    private void merge(int source, int target) {
+        int lowerBound = order.getPosition(source);
+        int upperBound = order.getPosition(target);
+
+        Set<Integer> reachable = search(source, successors, n -> order.getPosition(n) <= upperBound);
+        Set<Integer> reaching = search(target, predecessors, n -> order.getPosition(n) >= lowerBound);
+        reachable.retainAll(reaching);
+
+        List<Integer> merged = new ArrayList<>();
+        for (int scc : reachable) {
+            merged.addAll(members.remove(scc));
+            parents.set(scc, target);
+        }
+        members.put(target, merged);
+
+        // the edges of the merged SCCs now start or end at the target; none of them can be rejected, as all nodes on
+        // a cycle with any of the merged SCCs have been merged, too
+        for (int member : merged) {
+            for (int successor : successors.get(member)) {
+                link(target, find(successor));
+            }
+            for (int predecessor : predecessors.get(member)) {
+                link(find(predecessor), target);
+            }
+        }
+    }
+
+    private void link(int fromScc, int toScc) {
+        if (fromScc != toScc && orderEdges.add(key(fromScc, toScc))) {
+            order.addEdge(fromScc, toScc);
+        }
+    }
+
+    /**
+     * Returns the SCCs reachable from the given one via the given edges, restricted to SCCs accepted by the given
+     * filter.
+     */
+    private Set<Integer> search(int start, List<List<Integer>> edges, IntPredicate filter) {
+        Set<Integer> found = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        found.add(start);
+        stack.push(start);
+
+        while (!stack.isEmpty()) {
+            for (int member : members.get(stack.pop())) {
+                for (int neighbour : edges.get(member)) {
+                    int scc = find(neighbour);
+                    if (filter.test(scc) && found.add(scc)) {
+                        stack.push(scc);
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    private int find(int node) {
+        int root = node;
+        while (parents.get(root) != root) {
+            root = parents.get(root);
+        }
+
+        while (parents.get(node) != root) {
+            int next = parents.get(node);
+            parents.set(node, root);
+            node = next;
+        }
+
+        return root;
+    }
+
+    private int nodeId(String name) {
+        Integer id = nodeIds.get(name);
+
+        if (id == null) {
+            id = order.addNode();
+            nodeIds.put(name, id);
+            nodeNames.add(name);
+            successors.add(new ArrayList<>());
+            predecessors.add(new ArrayList<>());
+            parents.add(id);
+            members.put(id, new ArrayList<>(Collections.singletonList(id)));
+        }
+
+        return id;
+    }
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import java.util.Arrays;
+
+/**
+ * A topological order of a growing directed graph, maintained incrementally with the algorithm by Pearce and Kelly
+ * ("A Dynamic Topological Sort Algorithm for Directed Acyclic Graphs", 2006). When adding an edge, only the nodes
+ * between the edge's target and source in the current order are visited and re-ordered, so a cycle is detected as
+ * soon as the edge closing it is added, at a much lower cost than re-running a full cycle detection.
+ * <p>
+ * Edges closing a cycle are rejected, i.e. they are not added to the graph; hence the graph represented by this
+ * order is always acyclic. Each edge must be added only once.
+ */
+public class IncrementalTopologicalOrder {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    /**
+     * The position of each node within the order.
+     */
+    private int[] ord;
+
+    /**
+     * The node at each position of the order.
+     */
+    private int[] nodeAt;
+
+    private int[][] successors;
+    private int[] outDegree;
+    private int[][] predecessors;
+    private int[] inDegree;
+    private int size;
+
+    // state of the searches, marks are valid if equal to the current stamp
+    private int[] visited;
+    private int stamp;
+    private int[] parent;
+    private int[] stack;
+    private int[] forward;
+    private int[] backward;
+
+    public IncrementalTopologicalOrder() {
+        ord = new int[16];
+        nodeAt = new int[16];
+        successors = new int[16][];
+        outDegree = new int[16];
+        predecessors = new int[16][];
+        inDegree = new int[16];
+        visited = new int[16];
+        parent = new int[16];
+        stack = new int[16];
+        forward = new int[16];
+        backward = new int[16];
+    }
+
+    /**
+     * Adds a new node, placing it at the end of the order.
+     *
+     * @return the id of the new node
+     */
+    public int addNode() {
+        if (size == ord.length) {
+            int capacity = size * 2;
+            ord = Arrays.copyOf(ord, capacity);
+            nodeAt = Arrays.copyOf(nodeAt, capacity);
+            successors = Arrays.copyOf(successors, capacity);
+            outDegree = Arrays.copyOf(outDegree, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            inDegree = Arrays.copyOf(inDegree, capacity);
+            visited = Arrays.copyOf(visited, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            stack = Arrays.copyOf(stack, capacity);
+            forward = Arrays.copyOf(forward, capacity);
+            backward = Arrays.copyOf(backward, capacity);
+        }
+
+        int node = size++;
+        ord[node] = node;
+        nodeAt[node] = node;
+        successors[node] = NO_EDGES;
+        predecessors[node] = NO_EDGES;
+
+        return node;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the given node in the current order; for each edge, the position of its source is
+     * lower than the position of its target.
+     */
+    public int getPosition(int node) {
+        return ord[node];
+    }
+
+    /**
+     * Adds an edge between the given nodes, unless it would close a cycle.
+     *
+     * @return {@code null} if the edge was added, or the cycle it would close otherwise, given as the nodes on the
+     *         path from {@code from} to {@code from}, starting with {@code from} and not repeating it at the end
+     */
+    public int[] addEdge(int from, int to) {
+        if (from == to) {
+            return new int[] { from };
+        }
+
+        int lowerBound = ord[to];
+        int upperBound = ord[from];
+
+        if (lowerBound > upperBound) {
+            link(from, to);
+            return null;
+        }
+
+        nextStamp();
+
+        // all nodes reachable from "to" within the affected region; if that includes "from", there's a cycle
+        int forwardCount = searchForward(to, upperBound);
+        if (forwardCount == -1) {
+            return pathTo(to, from);
+        }
+
+        int backwardCount = searchBackward(from, lowerBound);
+
+        reorder(forwardCount, backwardCount);
+        link(from, to);
+
+        return null;
+    }
+
+    private int searchForward(int start, int upperBound) {
+        int count = 0;
+        int top = 0;
+
+        visited[start] = stamp;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int node = stack[--top];
+            forward[count++] = node;
+
+            for (int i = 0; i < outDegree[node]; i++) {
+                int successor = successors[node][i];
+
+                if (ord[successor] == upperBound) {
+                    parent[successor] = node;
+                    return -1;
+                }
+                if (visited[successor] != stamp && ord[successor] < upperBound) {
+                    visited[successor] = stamp;
+                    parent[successor] = node;
+                    stack[top++] = successor;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private int searchBackward(int start, int lowerBound) {
+        int count = 0;
+        int top = 0;
+
+        visited[start] = stamp;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int node = stack[--top];
+            backward[count++] = node;
+
+            for (int i = 0; i < inDegree[node]; i++) {
+                int predecessor = predecessors[node][i];
+
+                if (visited[predecessor] != stamp && ord[predecessor] > lowerBound) {
+                    visited[predecessor] = stamp;
+                    stack[top++] = predecessor;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Re-assigns the positions occupied by the visited nodes, so that all nodes found by the backward search (which
+     * reach the edge's source) come before all nodes found by the forward search (which are reachable from the edge's
+     * target), retaining the relative order within both groups.
+     */
+    private void reorder(int forwardCount, int backwardCount) {
+        sortByPosition(forward, forwardCount);
+        sortByPosition(backward, backwardCount);
+
+        int total = forwardCount + backwardCount;
+        int[] positions = new int[total];
+        int[] nodes = new int[total];
+
+        for (int i = 0; i < backwardCount; i++) {
+            positions[i] = ord[backward[i]];
+            nodes[i] = backward[i];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            positions[backwardCount + i] = ord[forward[i]];
+            nodes[backwardCount + i] = forward[i];
+        }
+
+        Arrays.sort(positions);
+
+        for (int i = 0; i < total; i++) {
+            ord[nodes[i]] = positions[i];
+            nodeAt[positions[i]] = nodes[i];
+        }
+    }
+
+    private void sortByPosition(int[] nodes, int count) {
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = ord[nodes[i]];
+        }
+
+        Arrays.sort(positions);
+
+        for (int i = 0; i < count; i++) {
+            nodes[i] = nodeAt[positions[i]];
+        }
+    }
+
+    private int[] pathTo(int start, int end) {
+        int length = 1;
+        for (int node = end; node != start; node = parent[node]) {
+            length++;
+        }
+
+        int[] cycle = new int[length];
+        int i = length;
+        for (int node = end; node != start; node = parent[node]) {
+            cycle[--i] = node;
+        }
+        cycle[0] = start;
+
+        // rotate, so the cycle starts with the source of the rejected edge
+        int[] result = new int[length];
+        result[0] = end;
+        System.arraycopy(cycle, 0, result, 1, length - 1);
+
+        return result;
+    }
+
+    private void link(int from, int to) {
+        if (outDegree[from] == successors[from].length) {
+            successors[from] = Arrays.copyOf(successors[from], Math.max(4, outDegree[from] * 2));
+        }
+        successors[from][outDegree[from]++] = to;
+
+        if (inDegree[to] == predecessors[to].length) {
+            predecessors[to] = Arrays.copyOf(predecessors[to], Math.max(4, inDegree[to] * 2));
+        }
+        predecessors[to][inDegree[to]++] = from;
+    }
+
+    private void nextStamp() {
+        stamp++;
+
+        if (stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+    }
+}
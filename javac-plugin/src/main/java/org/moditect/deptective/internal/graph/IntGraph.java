@@ -0,0 +1,310 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.moditect.deptective.internal.util.LongIntHashMap;
+
+/**
+ * A compact, immutable representation of a weighted directed graph whose nodes are interned to the int ids
+ * {@code 0..size()-1}. The outgoing edges of node {@code v} are stored in compressed sparse row (CSR) form at the
+ * edge indexes {@code edgesStart(v)} (inclusive) to {@code edgesEnd(v)} (exclusive), sorted by target.
+ * <p>
+ * Intended for algorithms running over large graphs, where the object-based {@link Node} model is too expensive.
+ */
+public class IntGraph {
+
+    /**
+     * Builds {@link IntGraph}s, interning node names and merging parallel edges by summing up their weights.
+     */
+    public static class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final LongIntHashMap edges = new LongIntHashMap();
+
+        /**
+         * Returns the id of the node with the given name, adding that node if not present yet.
+         */
+        public int addNode(String name) {
+            Integer id = ids.get(name);
+
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+
+            return id;
+        }
+
+        public void addEdge(String from, String to, int weight) {
+            addEdge(addNode(from), addNode(to), weight);
+        }
+
+        public void addEdge(int from, int to, int weight) {
+            edges.addTo(LongIntHashMap.key(from, to), weight);
+        }
+
+        public int size() {
+            return names.size();
+        }
+
+        public String getName(int node) {
+            return names.get(node);
+        }
+
+        public IntGraph build() {
+            int n = names.size();
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[edges.size()];
+            int[] weights = new int[edges.size()];
+
+            long[] keys = edges.sortedKeys();
+            for (long key : keys) {
+                offsets[LongIntHashMap.high(key) + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            // keys are sorted by source, then target, so the edges can be copied over in order
+            for (int i = 0; i < keys.length; i++) {
+                targets[i] = LongIntHashMap.low(keys[i]);
+                weights[i] = edges.get(keys[i], 0);
+            }
+
+            return new IntGraph(names.toArray(new String[0]), new HashMap<>(ids), offsets, targets, weights);
+        }
+    }
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private IntGraph(String[] names, Map<String, Integer> ids, int[] offsets, int[] targets, int[] weights) {
+        this.names = names;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates an {@link IntGraph} representing the given nodes and the dependencies amongst them. Dependencies to
+     * nodes not contained in the given collection are ignored. Nodes are named after their
+     * {@link Node#asShortString() short string} representation and get assigned ids in iteration order.
+     */
+    public static <T extends Node<T>> IntGraph of(Iterable<? extends T> nodes) {
+        Builder builder = builder();
+        Map<T, Integer> nodeIds = new HashMap<>();
+
+        for (T node : nodes) {
+            int id = builder.addNode(node.asShortString());
+            if (id != nodeIds.size()) {
+                throw new IllegalArgumentException("Duplicate node name: " + node.asShortString());
+            }
+            nodeIds.put(node, id);
+        }
+
+        for (T node : nodes) {
+            int from = nodeIds.get(node);
+            for (Dependency<T> dependency : node.getOutgoingDependenciesTo(nodes)) {
+                Integer to = nodeIds.get(dependency.getTo());
+                if (to != null) {
+                    builder.addEdge(from, to, dependency.getAggregatedWeight());
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public String getName(int node) {
+        return names[node];
+    }
+
+    /**
+     * Returns the id of the node with the given name or {@code -1} if there is no such node.
+     */
+    public int indexOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public int edgesStart(int node) {
+        return offsets[node];
+    }
+
+    public int edgesEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int outDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Returns the weight of the edge from {@code from} to {@code to} or 0 if there is no such edge.
+     */
+    public int getWeight(int from, int to) {
+        int low = offsets[from];
+        int high = offsets[from + 1] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int target = targets[mid];
+
+            if (target < to) {
+                low = mid + 1;
+            }
+            else if (target > to) {
+                high = mid - 1;
+            }
+            else {
+                return weights[mid];
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns a graph with the same nodes and all edges reversed.
+     */
+    public IntGraph reverse() {
+        int n = names.length;
+        int[] reverseOffsets = new int[n + 1];
+        int[] reverseTargets = new int[targets.length];
+        int[] reverseWeights = new int[weights.length];
+
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+
+        // iterating sources in ascending order keeps each reversed adjacency list sorted
+        int[] next = new int[n];
+        System.arraycopy(reverseOffsets, 0, next, 0, n);
+        for (int from = 0; from < n; from++) {
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = from;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+
+        return new IntGraph(names, ids, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Returns the graph obtained by mapping each node to a group, e.g. types to their packages. There is an edge
+     * between two groups if there is at least one edge between their members; weights of merged edges are summed up,
+     * edges within a group are dropped. Nodes mapped to {@code null} are dropped together with their edges. The
+     * groups are assigned ids in alphabetical order of their names.
+     *
+     * @param groupOf Returns the group of a given node name; invoked once per node
+     */
+    public IntGraph rollUp(Function<String, String> groupOf) {
+        return rollUp(Collections.singletonList(groupOf))[0];
+    }
+
+    /**
+     * Returns the graphs obtained by mapping each node to a group by each of the given functions, as by
+     * {@link #rollUp(Function)}. The edges of this graph are traversed only once for all the roll-ups.
+     */
+    public IntGraph[] rollUp(List<Function<String, String>> groupings) {
+        int n = names.length;
+        int k = groupings.size();
+        Builder[] builders = new Builder[k];
+        int[][] groupOfNode = new int[k][];
+
+        for (int i = 0; i < k; i++) {
+            String[] groupNames = new String[n];
+            Map<String, Integer> groupIds = new HashMap<>();
+
+            for (int node = 0; node < n; node++) {
+                groupNames[node] = groupings.get(i).apply(names[node]);
+                if (groupNames[node] != null) {
+                    groupIds.put(groupNames[node], 0);
+                }
+            }
+
+            String[] sortedGroups = groupIds.keySet().toArray(new String[0]);
+            Arrays.sort(sortedGroups);
+
+            builders[i] = builder();
+            for (String group : sortedGroups) {
+                builders[i].addNode(group);
+            }
+
+            groupOfNode[i] = new int[n];
+            for (int node = 0; node < n; node++) {
+                groupOfNode[i][node] = groupNames[node] != null ? builders[i].addNode(groupNames[node]) : -1;
+            }
+        }
+
+        for (int from = 0; from < n; from++) {
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                for (int i = 0; i < k; i++) {
+                    int fromGroup = groupOfNode[i][from];
+                    int toGroup = groupOfNode[i][targets[e]];
+                    if (fromGroup != -1 && toGroup != -1 && toGroup != fromGroup) {
+                        builders[i].addEdge(fromGroup, toGroup, weights[e]);
+                    }
+                }
+            }
+        }
+
+        IntGraph[] result = new IntGraph[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = builders[i].build();
+        }
+
+        return result;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.moditect.deptective.internal.graph;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -38,6 +39,11 @@ public interface Node<T extends Node<T>> {
 
     Dependency<T> getOutgoingDependencyTo(T node);
 
+    /**
+     * Returns all dependencies of this node, in no particular order.
+     */
+    Collection<Dependency<T>> getOutgoingDependencies();
+
     boolean hasOutgoingDependencies();
 
     /**
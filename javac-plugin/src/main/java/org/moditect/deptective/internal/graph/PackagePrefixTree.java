@@ -0,0 +1,100 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A tree of package name prefixes, e.g. {@code com}, {@code com.example} and {@code com.example.service} for the
+ * package {@code com.example.service}. Prefixes shared by multiple packages are stored once, so the ancestors of all
+ * packages at a given depth can be determined without creating any new strings.
+ */
+public class PackagePrefixTree {
+
+    private final Map<String, Integer> ids;
+    private String[] names;
+    private int[] parents;
+    private int[] depths;
+
+    public PackagePrefixTree() {
+        ids = new HashMap<>();
+        names = new String[16];
+        parents = new int[16];
+        depths = new int[16];
+    }
+
+    /**
+     * Adds the given package and all its prefixes, if not present yet.
+     *
+     * @return the id of the package within this tree
+     */
+    public int add(String packageName) {
+        Integer id = ids.get(packageName);
+        if (id != null) {
+            return id;
+        }
+
+        int lastDot = packageName.lastIndexOf('.');
+        int parent = lastDot == -1 ? -1 : add(packageName.substring(0, lastDot));
+
+        int node = ids.size();
+        if (node == names.length) {
+            names = Arrays.copyOf(names, node * 2);
+            parents = Arrays.copyOf(parents, node * 2);
+            depths = Arrays.copyOf(depths, node * 2);
+        }
+
+        names[node] = packageName;
+        parents[node] = parent;
+        depths[node] = parent == -1 ? 1 : depths[parent] + 1;
+        ids.put(packageName, node);
+
+        return node;
+    }
+
+    public String getName(int node) {
+        return names[node];
+    }
+
+    /**
+     * Returns the number of segments of the given node's package name.
+     */
+    public int getDepth(int node) {
+        return depths[node];
+    }
+
+    /**
+     * Returns the prefix of the given node with the given number of segments, or the node itself if it has fewer
+     * segments.
+     */
+    public int getAncestor(int node, int depth) {
+        while (depths[node] > depth) {
+            node = parents[node];
+        }
+        return node;
+    }
+
+    /**
+     * Returns a function mapping each package to its prefix with the given number of segments, e.g. for rolling up a
+     * package graph via {@link IntGraph#rollUp(java.util.List)}. Packages are added to this tree as needed.
+     */
+    public Function<String, String> prefixesOfDepth(int depth) {
+        return packageName -> names[getAncestor(add(packageName), depth)];
+    }
+}
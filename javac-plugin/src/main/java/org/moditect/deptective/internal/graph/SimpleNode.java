@@ -15,6 +15,8 @@
  */
 package org.moditect.deptective.internal.graph;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +46,11 @@ public class SimpleNode implements Node<SimpleNode> {
         return outgoingDependencies.get(node);
     }
 
+    @Override
+    public Collection<Dependency<SimpleNode>> getOutgoingDependencies() {
+        return outgoingDependencies != null ? outgoingDependencies.values() : Collections.emptyList();
+    }
+
     @Override
     public boolean hasOutgoingDependencies() {
         return outgoingDependencies != null && !outgoingDependencies.isEmpty();
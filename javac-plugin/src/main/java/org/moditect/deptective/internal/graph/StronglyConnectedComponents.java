@@ -0,0 +1,143 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+/**
+ * The strongly connected components (SCCs) of an {@link IntGraph}. Each node is assigned to exactly one SCC, SCCs
+ * are numbered {@code 0..getCount()-1} in reverse topological order, i.e. there are no edges from an SCC to another
+ * SCC with a higher number.
+ */
+public class StronglyConnectedComponents {
+
+    private final int[] componentOf;
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    public StronglyConnectedComponents(int[] componentOf, int count) {
+        this.componentOf = componentOf;
+        this.memberOffsets = new int[count + 1];
+        this.members = new int[componentOf.length];
+
+        for (int component : componentOf) {
+            memberOffsets[component + 1]++;
+        }
+        for (int i = 0; i < count; i++) {
+            memberOffsets[i + 1] += memberOffsets[i];
+        }
+
+        int[] next = new int[count];
+        System.arraycopy(memberOffsets, 0, next, 0, count);
+        for (int node = 0; node < componentOf.length; node++) {
+            members[next[componentOf[node]]++] = node;
+        }
+    }
+
+    public int getCount() {
+        return memberOffsets.length - 1;
+    }
+
+    /**
+     * Returns the SCC the given node belongs to.
+     */
+    public int getComponent(int node) {
+        return componentOf[node];
+    }
+
+    public int size(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    /**
+     * Whether the given SCC is a cycle, i.e. comprises more than one node.
+     */
+    public boolean isCycle(int component) {
+        return size(component) > 1;
+    }
+
+    /**
+     * Returns the {@code index}-th node (in ascending order of node ids) of the given SCC.
+     */
+    public int getMember(int component, int index) {
+        return members[memberOffsets[component] + index];
+    }
+
+    public int[] getMembers(int component) {
+        int[] result = new int[size(component)];
+        System.arraycopy(members, memberOffsets[component], result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Assigns each node of the given graph to a level via longest-path layering of the condensation in O(n+m): nodes
+     * of an SCC without edges to other SCCs are on level 0, the nodes of any other SCC are one level above the highest
+     * level of the SCCs they have edges to. Hence all members of a cycle share one level and each edge between
+     * different SCCs leads to a strictly lower level.
+     *
+     * @return the level of each node
+     */
+    public int[] getLevels(IntGraph graph) {
+        int[] componentLevels = new int[getCount()];
+
+        // SCCs are numbered in reverse topological order, so the levels of all targets are known already
+        for (int component = 0; component < getCount(); component++) {
+            int level = 0;
+
+            for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+                int member = members[i];
+                for (int e = graph.edgesStart(member); e < graph.edgesEnd(member); e++) {
+                    int target = componentOf[graph.target(e)];
+                    if (target != component && componentLevels[target] + 1 > level) {
+                        level = componentLevels[target] + 1;
+                    }
+                }
+            }
+
+            componentLevels[component] = level;
+        }
+
+        int[] levels = new int[componentOf.length];
+        for (int node = 0; node < levels.length; node++) {
+            levels[node] = componentLevels[componentOf[node]];
+        }
+
+        return levels;
+    }
+
+    /**
+     * Returns the condensation of the given graph with respect to these SCCs, i.e. a graph with one node per SCC and
+     * an edge between two SCCs if there is at least one edge between their members. Weights of merged edges are
+     * summed up, edges within SCCs are dropped. Nodes of the condensation are named after their SCC number.
+     */
+    public IntGraph condense(IntGraph graph) {
+        IntGraph.Builder builder = IntGraph.builder();
+
+        for (int component = 0; component < getCount(); component++) {
+            builder.addNode(String.valueOf(component));
+        }
+
+        for (int from = 0; from < graph.size(); from++) {
+            int fromComponent = componentOf[from];
+            for (int e = graph.edgesStart(from); e < graph.edgesEnd(from); e++) {
+                int toComponent = componentOf[graph.target(e)];
+                if (fromComponent != toComponent) {
+                    builder.addEdge(fromComponent, toComponent, graph.weight(e));
+                }
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import java.util.Arrays;
+
+/**
+ * The transitive closure of an {@link IntGraph}, i.e. for each pair of nodes whether there is a path between them.
+ * Reachability is stored per strongly connected component as a bit set ({@code long[]} row) over all SCCs, so a query
+ * is a single bit lookup and the closure of a graph with n nodes in k SCCs takes at most k² bits.
+ */
+public class TransitiveClosure {
+
+    private final IntGraph graph;
+    private final StronglyConnectedComponents components;
+    private final long[][] reachable;
+
+    /**
+     * @param reachable for each SCC the bit set of SCCs reachable via a path of at least one edge
+     */
+    public TransitiveClosure(IntGraph graph, StronglyConnectedComponents components, long[][] reachable) {
+        this.graph = graph;
+        this.components = components;
+        this.reachable = reachable;
+    }
+
+    /**
+     * Whether there is a path of at least one edge from the given node to the other given node.
+     */
+    public boolean reaches(int from, int to) {
+        int toComponent = components.getComponent(to);
+        return (reachable[components.getComponent(from)][toComponent >>> 6] & (1L << toComponent)) != 0;
+    }
+
+    /**
+     * Returns a shortest path from the given node to the other given node, starting with {@code from} and ending
+     * with {@code to}, or {@code null} if there is no such path.
+     */
+    public int[] getPath(int from, int to) {
+        if (!reaches(from, to)) {
+            return null;
+        }
+
+        int[] predecessor = new int[graph.size()];
+        Arrays.fill(predecessor, -1);
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+
+        // breadth-first search, marking visited nodes by their predecessor; "from" itself may be the target
+        while (head < tail) {
+            int node = queue[head++];
+
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                int target = graph.target(e);
+
+                if (predecessor[target] != -1) {
+                    continue;
+                }
+
+                predecessor[target] = node;
+
+                if (target == to) {
+                    return toPath(predecessor, from, to);
+                }
+
+                queue[tail++] = target;
+            }
+        }
+
+        return null;
+    }
+
+    private int[] toPath(int[] predecessor, int from, int to) {
+        int[] reversed = new int[graph.size() + 1];
+        int length = 0;
+        int node = to;
+
+        do {
+            reversed[length++] = node;
+            node = predecessor[node];
+        }
+        while (node != from);
+        reversed[length++] = from;
+
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) {
+            path[i] = reversed[length - 1 - i];
+        }
+
+        return path;
+    }
+}
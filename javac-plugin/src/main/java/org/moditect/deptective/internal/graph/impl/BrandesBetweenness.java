@@ -0,0 +1,143 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+/**
+ * Computes the betweenness centrality of all nodes of an {@link IntGraph} using Brandes' algorithm ("A Faster
+ * Algorithm for Betweenness Centrality", 2001), i.e. for each node the sum of the fractions of shortest paths between
+ * all other pairs of nodes passing through that node. Edge weights are ignored.
+ * <p>
+ * One breadth-first search is run per source node, in O(n*m) overall. The sources are split into chunks processed in
+ * parallel on the common fork-join pool; each chunk accumulates into its own array, and these are summed up when
+ * joining the tasks, so no synchronization is needed.
+ */
+public class BrandesBetweenness {
+
+    public double[] computeBetweenness(IntGraph graph) {
+        Objects.requireNonNull(graph);
+
+        int n = graph.size();
+        if (n == 0) {
+            return new double[0];
+        }
+
+        // a few chunks per worker, allowing for some load balancing
+        int chunkSize = Math.max(1, n / (ForkJoinPool.getCommonPoolParallelism() * 8));
+
+        return ForkJoinPool.commonPool().invoke(new SourcesTask(graph, 0, n, chunkSize));
+    }
+
+    private static class SourcesTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntGraph graph;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        SourcesTask(IntGraph graph, int from, int to, int chunkSize) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= chunkSize) {
+                return accumulate();
+            }
+
+            int middle = (from + to) >>> 1;
+            SourcesTask left = new SourcesTask(graph, from, middle, chunkSize);
+            left.fork();
+            double[] result = new SourcesTask(graph, middle, to, chunkSize).compute();
+            double[] leftResult = left.join();
+
+            for (int node = 0; node < result.length; node++) {
+                result[node] += leftResult[node];
+            }
+
+            return result;
+        }
+
+        private double[] accumulate() {
+            int n = graph.size();
+            double[] centrality = new double[n];
+
+            double[] sigma = new double[n];
+            double[] delta = new double[n];
+            int[] distance = new int[n];
+            int[] order = new int[n];
+            Arrays.fill(distance, -1);
+
+            for (int source = from; source < to; source++) {
+
+                // BFS from the source, counting the shortest paths to each node; "order" doubles as queue
+                int head = 0;
+                int tail = 0;
+                order[tail++] = source;
+                distance[source] = 0;
+                sigma[source] = 1;
+
+                while (head < tail) {
+                    int v = order[head++];
+                    for (int e = graph.edgesStart(v); e < graph.edgesEnd(v); e++) {
+                        int w = graph.target(e);
+                        if (distance[w] == -1) {
+                            distance[w] = distance[v] + 1;
+                            order[tail++] = w;
+                        }
+                        if (distance[w] == distance[v] + 1) {
+                            sigma[w] += sigma[v];
+                        }
+                    }
+                }
+
+                // accumulate the dependencies in order of non-increasing distance; v is a predecessor of w on a
+                // shortest path if w is one step further away from the source
+                for (int i = tail - 1; i > 0; i--) {
+                    int v = order[i];
+                    for (int e = graph.edgesStart(v); e < graph.edgesEnd(v); e++) {
+                        int w = graph.target(e);
+                        if (distance[w] == distance[v] + 1) {
+                            delta[v] += sigma[v] / sigma[w] * (1 + delta[w]);
+                        }
+                    }
+                    centrality[v] += delta[v];
+                }
+
+                // only reset the nodes reached from this source, keeping sparse graphs cheap
+                for (int i = 0; i < tail; i++) {
+                    int v = order[i];
+                    distance[v] = -1;
+                    sigma[v] = 0;
+                    delta[v] = 0;
+                }
+            }
+
+            return centrality;
+        }
+    }
+}
@@ -16,10 +16,15 @@
 package org.moditect.deptective.internal.graph.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.moditect.deptective.internal.graph.Dependency;
@@ -29,6 +34,11 @@ import org.moditect.deptective.internal.graph.INodeSorter;
 import org.moditect.deptective.internal.graph.INodeSorter.SortResult;
 import org.moditect.deptective.internal.graph.Node;
 
+/**
+ * A DSM over a given set of nodes. The ordering, the cycle membership of each row and the (sparse) weights are
+ * computed once upon construction, so cell queries take constant (cycles) or logarithmic (weights, in the number of
+ * dependencies of the row) time and rendering the full matrix is proportional to its size.
+ */
 public class DependencyStructureMatrix<T extends Node<T>> implements IDependencyStructureMatrix<T> {
 
     private List<List<T>> cycles;
@@ -37,6 +47,21 @@ public class DependencyStructureMatrix<T extends Node<T>> implements IDependency
 
     private List<Dependency<T>> upwardDependencies;
 
+    /**
+     * The index (within {@link #cycles}) of the cycle containing the node at a given position, -1 if the node isn't
+     * part of any cycle.
+     */
+    private int[] cycleOf;
+
+    /**
+     * The weights in compressed sparse row format: the columns with a non-zero weight of row {@code i} are stored in
+     * ascending order in {@code columns[rowOffsets[i]..rowOffsets[i+1]-1]}, their weights at the same positions of
+     * {@code weights}.
+     */
+    private int[] rowOffsets;
+    private int[] columns;
+    private int[] weights;
+
     public DependencyStructureMatrix(Collection<T> nodes) {
         initialize(nodes);
     }
@@ -53,9 +78,9 @@ public class DependencyStructureMatrix<T extends Node<T>> implements IDependency
             return -1;
         }
 
-        Dependency<?> dependency = nodes.get(i).getOutgoingDependencyTo(nodes.get(j));
+        int index = Arrays.binarySearch(columns, rowOffsets[i], rowOffsets[i + 1], j);
 
-        return dependency != null ? dependency.getAggregatedWeight() : 0;
+        return index >= 0 ? weights[index] : 0;
     }
 
     @Override
@@ -75,13 +100,7 @@ public class DependencyStructureMatrix<T extends Node<T>> implements IDependency
             return false;
         }
 
-        for (List<T> cycle : cycles) {
-            if (cycle.size() > 1 && cycle.contains(nodes.get(i)) && cycle.contains(nodes.get(j))) {
-                return true;
-            }
-        }
-
-        return false;
+        return cycleOf[i] != -1 && cycleOf[i] == cycleOf[j];
     }
 
     @Override
@@ -104,17 +123,19 @@ public class DependencyStructureMatrix<T extends Node<T>> implements IDependency
         }
 
         List<T> orderedArtifacts = new ArrayList<>();
+        Set<T> added = new HashSet<>();
 
         // optimize: un-cycled artifacts without dependencies first
         for (List<T> artifactList : c) {
             if (artifactList.size() == 1 && !artifactList.get(0).hasOutgoingDependencies()) {
                 orderedArtifacts.add(artifactList.get(0));
+                added.add(artifactList.get(0));
             }
         }
 
         for (List<T> cycle : c) {
             for (T node : cycle) {
-                if (!orderedArtifacts.contains(node)) {
+                if (added.add(node)) {
                     orderedArtifacts.add(node);
                 }
             }
@@ -124,5 +145,64 @@ public class DependencyStructureMatrix<T extends Node<T>> implements IDependency
 
         //
         cycles = c.stream().filter(nodeList -> nodeList.size() > 1).collect(Collectors.toList());
+
+        Map<T, Integer> positions = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            positions.put(nodes.get(i), i);
+        }
+
+        cycleOf = new int[nodes.size()];
+        Arrays.fill(cycleOf, -1);
+        for (int cycle = 0; cycle < cycles.size(); cycle++) {
+            for (T node : cycles.get(cycle)) {
+                cycleOf[positions.get(node)] = cycle;
+            }
+        }
+
+        initializeWeights(positions);
+    }
+
+    /**
+     * Writes the rows of the weights in CSR form, visiting only the actual dependencies of each node; dependencies on
+     * nodes which aren't part of this DSM are skipped. Each row is sorted by column (packed with its weight into one
+     * {@code long}), so that {@link #getWeight(int, int)} can use binary search.
+     */
+    private void initializeWeights(Map<T, Integer> positions) {
+        int n = nodes.size();
+        rowOffsets = new int[n + 1];
+        columns = new int[Math.max(n, 16)];
+        weights = new int[columns.length];
+        long[] row = new long[16];
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            int size = 0;
+
+            for (Dependency<T> dependency : nodes.get(i).getOutgoingDependencies()) {
+                Integer j = positions.get(dependency.getTo());
+
+                if (j != null && dependency.getAggregatedWeight() != 0) {
+                    if (size == row.length) {
+                        row = Arrays.copyOf(row, size * 2);
+                    }
+                    row[size++] = ((long) j << 32) | (dependency.getAggregatedWeight() & 0xFFFFFFFFL);
+                }
+            }
+
+            Arrays.sort(row, 0, size);
+
+            if (count + size > columns.length) {
+                columns = Arrays.copyOf(columns, Math.max(count + size, columns.length * 2));
+                weights = Arrays.copyOf(weights, columns.length);
+            }
+
+            for (int k = 0; k < size; k++) {
+                columns[count] = (int) (row[k] >>> 32);
+                weights[count] = (int) row[k];
+                count++;
+            }
+
+            rowOffsets[i + 1] = count;
+        }
     }
 }
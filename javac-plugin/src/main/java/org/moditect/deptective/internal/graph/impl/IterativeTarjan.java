@@ -0,0 +1,108 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+
+/**
+ * Tarjan's SCC algorithm running in O(n+m) over an {@link IntGraph}. In contrast to {@link Tarjan}, the depth-first
+ * search is driven by an explicit stack, so arbitrarily deep graphs can be processed without risking a
+ * {@link StackOverflowError}.
+ */
+public class IterativeTarjan {
+
+    public StronglyConnectedComponents detectStronglyConnectedComponents(IntGraph graph) {
+        Objects.requireNonNull(graph);
+
+        int n = graph.size();
+        int[] index = new int[n];
+        int[] lowlink = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] componentOf = new int[n];
+        Arrays.fill(index, -1);
+
+        // the Tarjan stack of visited nodes not yet assigned to an SCC
+        int[] stack = new int[n];
+        int stackSize = 0;
+
+        // the DFS call stack: the node and the next edge to be examined for each level
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+
+        int nextIndex = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = graph.edgesStart(root);
+            index[root] = lowlink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+
+                if (callEdge[depth] < graph.edgesEnd(v)) {
+                    int w = graph.target(callEdge[depth]++);
+
+                    if (index[w] == -1) {
+                        index[w] = lowlink[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = graph.edgesStart(w);
+                    }
+                    else if (onStack[w] && index[w] < lowlink[v]) {
+                        lowlink[v] = index[w];
+                    }
+                }
+                else {
+                    if (lowlink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = stack[--stackSize];
+                            onStack[w] = false;
+                            componentOf[w] = componentCount;
+                        }
+                        while (w != v);
+                        componentCount++;
+                    }
+
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callNode[depth];
+                        if (lowlink[v] < lowlink[parent]) {
+                            lowlink[parent] = lowlink[v];
+                        }
+                    }
+                }
+            }
+        }
+
+        return new StronglyConnectedComponents(componentOf, componentCount);
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+
+/**
+ * Enumerates the elementary cycles of an {@link IntGraph} using Johnson's algorithm. The search for cycles starting
+ * at a node {@code s} is restricted to the nodes of the SCC of {@code s} with an id not lower than {@code s}, so each
+ * cycle is found exactly once, starting with its lowest node. The depth-first search is driven by an explicit stack,
+ * so large SCCs can be processed without risking a {@link StackOverflowError}.
+ * <p>
+ * The enumeration can be bounded by the number of cycles and their length. When the length limit prevents exploring
+ * a path further, the nodes on that path are treated as if a cycle had been found (i.e. they are unblocked), as a node
+ * blocked due to the limit might still be part of a shorter cycle reached via another path.
+ */
+public class JohnsonCycleEnumerator {
+
+    private final IntGraph graph;
+    private final StronglyConnectedComponents components;
+    private final int maxCount;
+    private final int maxLength;
+    private final Consumer<int[]> consumer;
+
+    private final boolean[] blocked;
+    private final int[][] blockedBy;
+    private final int[] blockedBySize;
+
+    private int start;
+    private int count;
+
+    /**
+     * @param maxCount the maximum number of cycles to be enumerated; must not be negative
+     * @param maxLength the maximum number of nodes of enumerated cycles; must be positive
+     * @param consumer receives each cycle as the sequence of its nodes, starting with the node with the lowest id
+     */
+    public JohnsonCycleEnumerator(IntGraph graph, int maxCount, int maxLength, Consumer<int[]> consumer) {
+        if (maxCount < 0 || maxLength < 1) {
+            throw new IllegalArgumentException("maxCount must not be negative and maxLength must be positive");
+        }
+
+        this.graph = Objects.requireNonNull(graph);
+        this.components = GraphUtils.detectStronglyConnectedComponents(graph);
+        this.maxCount = maxCount;
+        this.maxLength = maxLength;
+        this.consumer = Objects.requireNonNull(consumer);
+
+        this.blocked = new boolean[graph.size()];
+        this.blockedBy = new int[graph.size()][];
+        this.blockedBySize = new int[graph.size()];
+    }
+
+    /**
+     * Runs the enumeration.
+     *
+     * @return {@code true} if all cycles (up to the maximum length) have been enumerated, {@code false} if the
+     *         enumeration stopped as the maximum number of cycles was reached
+     */
+    public boolean enumerate() {
+        int[] path = new int[Math.min(maxLength, graph.size())];
+        int[] nextEdge = new int[path.length];
+        boolean[] found = new boolean[path.length];
+
+        for (start = 0; start < graph.size(); start++) {
+            if (!components.isCycle(components.getComponent(start))) {
+                continue;
+            }
+
+            for (int member : components.getMembers(components.getComponent(start))) {
+                if (member >= start) {
+                    blocked[member] = false;
+                    blockedBySize[member] = 0;
+                }
+            }
+
+            int depth = 0;
+            path[0] = start;
+            nextEdge[0] = graph.edgesStart(start);
+            found[0] = false;
+            blocked[start] = true;
+
+            while (depth >= 0) {
+                int node = path[depth];
+
+                if (nextEdge[depth] < graph.edgesEnd(node)) {
+                    int target = graph.target(nextEdge[depth]++);
+
+                    if (!isAllowed(target)) {
+                        continue;
+                    }
+
+                    if (target == start) {
+                        if (count == maxCount) {
+                            return false;
+                        }
+
+                        count++;
+                        consumer.accept(Arrays.copyOf(path, depth + 1));
+                        found[depth] = true;
+                    }
+                    else if (!blocked[target]) {
+                        if (depth + 1 < path.length) {
+                            depth++;
+                            path[depth] = target;
+                            nextEdge[depth] = graph.edgesStart(target);
+                            found[depth] = false;
+                            blocked[target] = true;
+                        }
+                        else {
+                            found[depth] = true;
+                        }
+                    }
+                }
+                else {
+                    if (found[depth]) {
+                        unblock(node);
+                    }
+                    else {
+                        for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                            int target = graph.target(e);
+                            if (isAllowed(target)) {
+                                addBlockedBy(target, node);
+                            }
+                        }
+                    }
+
+                    depth--;
+                    if (depth >= 0 && found[depth + 1]) {
+                        found[depth] = true;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isAllowed(int node) {
+        return node >= start && components.getComponent(node) == components.getComponent(start);
+    }
+
+    private void addBlockedBy(int node, int blockedNode) {
+        int[] nodes = blockedBy[node];
+        int size = blockedBySize[node];
+
+        for (int i = 0; i < size; i++) {
+            if (nodes[i] == blockedNode) {
+                return;
+            }
+        }
+
+        if (nodes == null) {
+            nodes = blockedBy[node] = new int[4];
+        }
+        else if (size == nodes.length) {
+            nodes = blockedBy[node] = Arrays.copyOf(nodes, size * 2);
+        }
+
+        nodes[size] = blockedNode;
+        blockedBySize[node] = size + 1;
+    }
+
+    private void unblock(int node) {
+        int[] worklist = new int[8];
+        int size = 0;
+        worklist[size++] = node;
+        blocked[node] = false;
+
+        while (size > 0) {
+            int current = worklist[--size];
+
+            for (int i = 0; i < blockedBySize[current]; i++) {
+                int other = blockedBy[current][i];
+                if (blocked[other]) {
+                    blocked[other] = false;
+                    if (size == worklist.length) {
+                        worklist = Arrays.copyOf(worklist, size * 2);
+                    }
+                    worklist[size++] = other;
+                }
+            }
+            blockedBySize[current] = 0;
+        }
+    }
+}
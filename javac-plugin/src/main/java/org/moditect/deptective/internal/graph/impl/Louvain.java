@@ -0,0 +1,319 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+/**
+ * Partitions the nodes of an {@link IntGraph} into communities of densely connected nodes using the Louvain method
+ * (Blondel et al., "Fast unfolding of communities in large networks", 2008), maximizing the modularity of the
+ * partition. The graph is considered undirected, with the weights of edges in both directions between two nodes
+ * summed up.
+ * <p>
+ * Starting with one community per node, each node is repeatedly moved to the neighbouring community yielding the
+ * highest modularity gain, until no move improves the modularity any further. Then each community is collapsed into
+ * a single node and the process is repeated on the resulting graph, until no more nodes are moved. Each pass takes
+ * O(m), and the graph shrinks quickly, so the overall runtime is near-linear in practice. All graphs are held in
+ * primitive arrays in CSR form. Nodes are visited in the order of their ids, so the result is deterministic.
+ */
+public class Louvain {
+
+    /**
+     * The maximum number of sweeps over all nodes within one pass; usually, far fewer sweeps are needed.
+     */
+    private static final int MAX_SWEEPS = 100;
+
+    /**
+     * Modularity gains below this threshold are considered rounding errors.
+     */
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * @return the community of each node, numbered {@code 0..k-1} in the order of their lowest member
+     */
+    public int[] detectCommunities(IntGraph graph) {
+        Objects.requireNonNull(graph);
+
+        Level level = Level.of(graph);
+        int[] communityOf = new int[graph.size()];
+        for (int node = 0; node < communityOf.length; node++) {
+            communityOf[node] = node;
+        }
+
+        while (true) {
+            int[] moved = level.moveNodes();
+            int count = renumber(moved);
+
+            if (count == level.size()) {
+                break;
+            }
+
+            for (int node = 0; node < communityOf.length; node++) {
+                communityOf[node] = moved[communityOf[node]];
+            }
+
+            level = level.aggregate(moved, count);
+        }
+
+        renumber(communityOf);
+        return communityOf;
+    }
+
+    /**
+     * Renumbers the given community ids to {@code 0..k-1}, in the order of their first occurrence.
+     *
+     * @return the number of communities
+     */
+    private static int renumber(int[] communityOf) {
+        int[] ids = new int[communityOf.length];
+        Arrays.fill(ids, -1);
+        int count = 0;
+
+        for (int node = 0; node < communityOf.length; node++) {
+            int community = communityOf[node];
+            if (ids[community] == -1) {
+                ids[community] = count++;
+            }
+            communityOf[node] = ids[community];
+        }
+
+        return count;
+    }
+
+    /**
+     * An undirected weighted graph in CSR form, with the weight of self-loops (i.e. edges within a collapsed
+     * community) kept separately. {@code selfLoops[v]} counts each such edge twice, as does the adjacency of
+     * undirected edges.
+     */
+    private static class Level {
+
+        private final int[] offsets;
+        private final int[] neighbours;
+        private final double[] weights;
+        private final double[] selfLoops;
+
+        /**
+         * The weighted degree of each node, including its self-loops.
+         */
+        private final double[] degrees;
+        private final double totalWeight;
+
+        private Level(int[] offsets, int[] neighbours, double[] weights, double[] selfLoops) {
+            this.offsets = offsets;
+            this.neighbours = neighbours;
+            this.weights = weights;
+            this.selfLoops = selfLoops;
+
+            int n = selfLoops.length;
+            this.degrees = new double[n];
+            double total = 0;
+            for (int v = 0; v < n; v++) {
+                double degree = selfLoops[v];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    degree += weights[e];
+                }
+                degrees[v] = degree;
+                total += degree;
+            }
+            this.totalWeight = total;
+        }
+
+        /**
+         * Symmetrizes the given directed graph, dropping any self-references.
+         */
+        static Level of(IntGraph graph) {
+            int n = graph.size();
+            int[] offsets = new int[n + 1];
+
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.edgesStart(v); e < graph.edgesEnd(v); e++) {
+                    int w = graph.target(e);
+                    if (w != v) {
+                        offsets[v + 1]++;
+                        offsets[w + 1]++;
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] neighbours = new int[offsets[n]];
+            double[] weights = new double[offsets[n]];
+            int[] next = Arrays.copyOf(offsets, n);
+
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.edgesStart(v); e < graph.edgesEnd(v); e++) {
+                    int w = graph.target(e);
+                    if (w != v) {
+                        neighbours[next[v]] = w;
+                        weights[next[v]++] = graph.weight(e);
+                        neighbours[next[w]] = v;
+                        weights[next[w]++] = graph.weight(e);
+                    }
+                }
+            }
+
+            // edges in both directions give two adjacency entries per node, whose weights are simply summed up
+            return new Level(offsets, neighbours, weights, new double[n]);
+        }
+
+        int size() {
+            return selfLoops.length;
+        }
+
+        /**
+         * Moves each node to the neighbouring community with the highest modularity gain, until no more nodes are
+         * moved. The gain of moving an isolated node {@code v} into community {@code c} is proportional to
+         * {@code weightTo(c) - degree(c) * degree(v) / totalWeight}.
+         *
+         * @return the community of each node, given as the id of one of its members
+         */
+        int[] moveNodes() {
+            int n = size();
+            int[] communityOf = new int[n];
+            double[] communityDegrees = new double[n];
+            for (int v = 0; v < n; v++) {
+                communityOf[v] = v;
+                communityDegrees[v] = degrees[v];
+            }
+
+            if (totalWeight == 0) {
+                return communityOf;
+            }
+
+            // the weights from the current node to each neighbouring community, reset after each node
+            double[] weightTo = new double[n];
+            int[] touched = new int[n];
+
+            for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+                boolean moved = false;
+
+                for (int v = 0; v < n; v++) {
+                    int current = communityOf[v];
+                    int touchedCount = 0;
+
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int community = communityOf[neighbours[e]];
+                        if (weightTo[community] == 0) {
+                            touched[touchedCount++] = community;
+                        }
+                        weightTo[community] += weights[e];
+                    }
+
+                    // take the node out of its community, so it is isolated
+                    communityDegrees[current] -= degrees[v];
+                    double ratio = degrees[v] / totalWeight;
+
+                    int best = current;
+                    double bestGain = weightTo[current] - communityDegrees[current] * ratio;
+
+                    for (int i = 0; i < touchedCount; i++) {
+                        int community = touched[i];
+                        double gain = weightTo[community] - communityDegrees[community] * ratio;
+                        if (gain > bestGain + EPSILON) {
+                            best = community;
+                            bestGain = gain;
+                        }
+                        weightTo[community] = 0;
+                    }
+                    weightTo[current] = 0;
+
+                    communityDegrees[best] += degrees[v];
+                    if (best != current) {
+                        communityOf[v] = best;
+                        moved = true;
+                    }
+                }
+
+                if (!moved) {
+                    break;
+                }
+            }
+
+            return communityOf;
+        }
+
+        /**
+         * Collapses the given communities into single nodes.
+         */
+        Level aggregate(int[] communityOf, int count) {
+            int n = size();
+
+            // the members of each community, sorted by community
+            int[] memberOffsets = new int[count + 1];
+            for (int v = 0; v < n; v++) {
+                memberOffsets[communityOf[v] + 1]++;
+            }
+            for (int c = 0; c < count; c++) {
+                memberOffsets[c + 1] += memberOffsets[c];
+            }
+            int[] members = new int[n];
+            int[] next = Arrays.copyOf(memberOffsets, count);
+            for (int v = 0; v < n; v++) {
+                members[next[communityOf[v]]++] = v;
+            }
+
+            int[] newOffsets = new int[count + 1];
+            int[] newNeighbours = new int[neighbours.length];
+            double[] newWeights = new double[neighbours.length];
+            double[] newSelfLoops = new double[count];
+
+            double[] weightTo = new double[count];
+            int[] touched = new int[count];
+            int edges = 0;
+
+            for (int c = 0; c < count; c++) {
+                int touchedCount = 0;
+
+                for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                    int v = members[i];
+                    newSelfLoops[c] += selfLoops[v];
+
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int community = communityOf[neighbours[e]];
+                        if (community == c) {
+                            newSelfLoops[c] += weights[e];
+                        }
+                        else {
+                            if (weightTo[community] == 0) {
+                                touched[touchedCount++] = community;
+                            }
+                            weightTo[community] += weights[e];
+                        }
+                    }
+                }
+
+                for (int i = 0; i < touchedCount; i++) {
+                    newNeighbours[edges] = touched[i];
+                    newWeights[edges++] = weightTo[touched[i]];
+                    weightTo[touched[i]] = 0;
+                }
+                newOffsets[c + 1] = edges;
+            }
+
+            return new Level(
+                    newOffsets,
+                    Arrays.copyOf(newNeighbours, edges),
+                    Arrays.copyOf(newWeights, edges),
+                    newSelfLoops
+            );
+        }
+    }
+}
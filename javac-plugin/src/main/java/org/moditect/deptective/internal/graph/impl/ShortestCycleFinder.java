@@ -0,0 +1,128 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+
+/**
+ * Finds concrete shortest cycles ("witnesses") within the strongly connected components of an {@link IntGraph}. The
+ * shortest cycle through a given node is found by a breadth-first search from that node, restricted to the node's
+ * SCC and stopping at the first edge leading back to it. Each search thus is linear in the size of the SCC; the
+ * search state is kept in stamped arrays which are allocated once and never cleared, so the cost doesn't depend on the
+ * size of the entire graph.
+ */
+public class ShortestCycleFinder {
+
+    private final IntGraph graph;
+    private final StronglyConnectedComponents components;
+    private final int[] visited;
+    private final int[] covered;
+    private final int[] predecessor;
+    private final int[] queue;
+    private int stamp;
+
+    public ShortestCycleFinder(IntGraph graph, StronglyConnectedComponents components) {
+        this.graph = graph;
+        this.components = components;
+        this.visited = new int[graph.size()];
+        this.covered = new int[graph.size()];
+        this.predecessor = new int[graph.size()];
+        this.queue = new int[graph.size()];
+    }
+
+    /**
+     * Returns up to {@code max} shortest cycles within the given SCC, each given as its sequence of nodes (without
+     * repeating the first node at the end). The first cycle runs through the SCC's member with the lowest id, each
+     * further one through the member with the lowest id not covered by any previous cycle, so the witnesses are
+     * pairwise distinct.
+     */
+    public List<int[]> findShortestCycles(int component, int max) {
+        List<int[]> cycles = new ArrayList<>();
+
+        if (!components.isCycle(component)) {
+            return cycles;
+        }
+
+        int coveredStamp = ++stamp;
+
+        for (int member : components.getMembers(component)) {
+            if (cycles.size() == max) {
+                break;
+            }
+            if (covered[member] == coveredStamp) {
+                continue;
+            }
+
+            int[] cycle = findShortestCycleThrough(member);
+            cycles.add(cycle);
+            for (int node : cycle) {
+                covered[node] = coveredStamp;
+            }
+        }
+
+        return cycles;
+    }
+
+    private int[] findShortestCycleThrough(int start) {
+        int currentStamp = ++stamp;
+        int component = components.getComponent(start);
+        int head = 0;
+        int tail = 0;
+
+        visited[start] = currentStamp;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int node = queue[head++];
+
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                int target = graph.target(e);
+
+                if (target == start) {
+                    return toCycle(start, node);
+                }
+                if (visited[target] == currentStamp || components.getComponent(target) != component) {
+                    continue;
+                }
+
+                visited[target] = currentStamp;
+                predecessor[target] = node;
+                queue[tail++] = target;
+            }
+        }
+
+        throw new IllegalStateException("No cycle through node " + graph.getName(start));
+    }
+
+    private int[] toCycle(int start, int last) {
+        int length = 1;
+        for (int node = last; node != start; node = predecessor[node]) {
+            length++;
+        }
+
+        int[] cycle = new int[length];
+        for (int i = length - 1, node = last; i > 0; i--, node = predecessor[node]) {
+            cycle[i] = node;
+        }
+        cycle[0] = start;
+
+        return cycle;
+    }
+}
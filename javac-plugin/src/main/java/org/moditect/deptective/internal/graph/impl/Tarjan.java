@@ -25,7 +25,9 @@ import org.moditect.deptective.internal.graph.Node;
 public class Tarjan<T extends Node<T>> {
 
     private int _index = 0;
-    private final ArrayList<Integer> _stack = new ArrayList<Integer>();
+    private int[] _stack;
+    private int _stackSize;
+    private boolean[] _onStack;
     private final List<List<T>> _stronglyConnectedComponents = new ArrayList<List<T>>();
     int[] _vlowlink;
     int[] _vindex;
@@ -51,7 +53,9 @@ public class Tarjan<T extends Node<T>> {
 
         _stronglyConnectedComponents.clear();
         _index = 0;
-        _stack.clear();
+        _stack = new int[graph.length];
+        _stackSize = 0;
+        _onStack = new boolean[graph.length];
         _vlowlink = new int[graph.length];
         _vindex = new int[graph.length];
         for (int i = 0; i < _vlowlink.length; i++) {
@@ -76,13 +80,14 @@ public class Tarjan<T extends Node<T>> {
         _vlowlink[v] = _index;
 
         _index++;
-        _stack.add(0, v);
+        _stack[_stackSize++] = v;
+        _onStack[v] = true;
         for (int n : graph[v]) {
             if (_vindex[n] == -1) {
                 tarjan(n, graph);
                 _vlowlink[v] = Math.min(_vlowlink[v], _vlowlink[n]);
             }
-            else if (_stack.contains(n)) {
+            else if (_onStack[n]) {
                 _vlowlink[v] = Math.min(_vlowlink[v], _vindex[n]);
             }
         }
@@ -90,7 +95,8 @@ public class Tarjan<T extends Node<T>> {
             int n;
             ArrayList<T> component = new ArrayList<T>();
             do {
-                n = _stack.remove(0);
+                n = _stack[--_stackSize];
+                _onStack[n] = false;
                 component.add(_artifacts.get(n));
             }
             while (n != v);
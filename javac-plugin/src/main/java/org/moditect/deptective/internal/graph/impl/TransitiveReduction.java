@@ -0,0 +1,131 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+/**
+ * Computes the transitive reduction of a directed acyclic {@link IntGraph}, i.e. the graph with the fewest edges
+ * having the same reachability relation. An edge {@code u -> v} is dropped if {@code v} can also be reached via another
+ * successor of {@code u}.
+ * <p>
+ * Nodes are processed in reverse topological order, keeping the set of nodes reachable from each processed node as a
+ * bit set; successors of a node are examined in topological order, so each edge is checked against the reachability
+ * of the successors closer to its source. This takes O(n * m / 64) time and O(n² / 64) memory, which is fine for
+ * condensations of component graphs but not meant for type-level graphs.
+ */
+public class TransitiveReduction {
+
+    public IntGraph reduce(IntGraph dag) {
+        Objects.requireNonNull(dag);
+
+        int n = dag.size();
+        int[] order = topologicalOrder(dag);
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+        }
+
+        int words = (n + 63) >>> 6;
+        long[][] reachable = new long[n][];
+
+        IntGraph.Builder builder = IntGraph.builder();
+        for (int node = 0; node < n; node++) {
+            builder.addNode(dag.getName(node));
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            int node = order[i];
+            long[] reach = new long[words];
+
+            int[] successors = new int[dag.outDegree(node)];
+            for (int e = dag.edgesStart(node); e < dag.edgesEnd(node); e++) {
+                successors[e - dag.edgesStart(node)] = dag.target(e);
+            }
+            sortByPosition(successors, position);
+
+            for (int successor : successors) {
+                if ((reach[successor >>> 6] & (1L << successor)) != 0) {
+                    continue;
+                }
+
+                builder.addEdge(node, successor, dag.getWeight(node, successor));
+                reach[successor >>> 6] |= 1L << successor;
+                long[] reachOfSuccessor = reachable[successor];
+                for (int w = 0; w < words; w++) {
+                    reach[w] |= reachOfSuccessor[w];
+                }
+            }
+
+            reachable[node] = reach;
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the nodes of the given graph in topological order (Kahn's algorithm).
+     *
+     * @throws IllegalArgumentException if the given graph contains a cycle
+     */
+    private static int[] topologicalOrder(IntGraph dag) {
+        int n = dag.size();
+        int[] inDegree = new int[n];
+        for (int e = 0; e < dag.getEdgeCount(); e++) {
+            inDegree[dag.target(e)]++;
+        }
+
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < n; node++) {
+            if (inDegree[node] == 0) {
+                order[tail++] = node;
+            }
+        }
+
+        while (head < tail) {
+            int node = order[head++];
+            for (int e = dag.edgesStart(node); e < dag.edgesEnd(node); e++) {
+                if (--inDegree[dag.target(e)] == 0) {
+                    order[tail++] = dag.target(e);
+                }
+            }
+        }
+
+        if (tail != n) {
+            throw new IllegalArgumentException("Graph contains a cycle, no transitive reduction can be computed");
+        }
+
+        return order;
+    }
+
+    private static void sortByPosition(int[] nodes, int[] position) {
+        long[] keys = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            keys[i] = ((long) position[nodes[i]] << 32) | nodes[i];
+        }
+
+        Arrays.sort(keys);
+
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = (int) keys[i];
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardLocation;
+
+import org.moditect.deptective.internal.export.CondensedDotSerializer;
+import org.moditect.deptective.internal.export.DotSerializer;
+import org.moditect.deptective.internal.export.DsmSerializer;
+import org.moditect.deptective.internal.export.ModelSerializer;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+import org.moditect.deptective.internal.options.Visualization;
+
+/**
+ * Writes the output files of the handlers to the compiler's source output path, noting the creation of each file.
+ * <p>
+ * The contents may be created on any thread; as the compiler's file manager isn't thread-safe, they are buffered in
+ * memory and written on the compiler thread though, i.e. when invoked from a background thread, only once the
+ * messages deferred by the {@link Log} are emitted.
+ */
+public class OutputFiles {
+
+    /**
+     * Writes the contents of an output file to the given target.
+     */
+    @FunctionalInterface
+    public interface Content<T> {
+
+        void writeTo(T target) throws IOException;
+    }
+
+    private final JavaFileManager jfm;
+    private final Log log;
+
+    public OutputFiles(JavaFileManager jfm, Log log) {
+        this.jfm = jfm;
+        this.log = log;
+    }
+
+    /**
+     * Writes a text file with the given name.
+     *
+     * @param noteKey the message noting the creation of the file, or {@code null} if it should not be noted; the URI
+     *        of the file is passed as last parameter
+     */
+    public void write(String fileName, Content<Writer> content, String noteKey, Object... noteParams) {
+        StringWriter buffer = new StringWriter();
+
+        try {
+            content.writeTo(buffer);
+        }
+        catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write " + fileName + " file", e);
+        }
+
+        log.onCompilerThread(() -> store(fileName, output -> {
+            try (Writer writer = output.openWriter()) {
+                writer.write(buffer.toString());
+            }
+        }, noteKey, noteParams));
+    }
+
+    /**
+     * Writes a binary file with the given name.
+     *
+     * @param noteKey the message noting the creation of the file, or {@code null} if it should not be noted; the URI
+     *        of the file is passed as last parameter
+     */
+    public void writeBinary(String fileName, Content<OutputStream> content, String noteKey, Object... noteParams) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        try {
+            content.writeTo(buffer);
+        }
+        catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write " + fileName + " file", e);
+        }
+
+        log.onCompilerThread(() -> store(fileName, output -> {
+            try (OutputStream out = output.openOutputStream()) {
+                buffer.writeTo(out);
+            }
+        }, noteKey, noteParams));
+    }
+
+    /**
+     * Writes the dependency structure matrix of the given model to {@code deptective-dsm.json}.
+     */
+    public void writeDsm(PackageDependencies packageDependencies) {
+        DsmSerializer serializer = new DsmSerializer();
+        packageDependencies.serialize(serializer);
+
+        write("deptective-dsm.json", w -> w.append(serializer.serialize()), DeptectiveMessages.GENERATED_DSM);
+    }
+
+    /**
+     * Writes the given model in GraphViz format to {@code deptective.dot}.
+     */
+    public void writeDot(PackageDependencies packageDependencies, Visualization visualization) {
+        ModelSerializer serializer = visualization == Visualization.FULL ? new DotSerializer()
+                : new CondensedDotSerializer(visualization == Visualization.REDUCED);
+        packageDependencies.serialize(serializer);
+
+        write(
+                "deptective.dot", w -> w.append(serializer.serialize()),
+                DeptectiveMessages.GENERATED_DOT_REPRESENTATION
+        );
+    }
+
+    /**
+     * Writes the buffered contents of the given file through the file manager; must be invoked on the compiler thread.
+     * A failure is reported as error right away, as this may happen after the handler has completed.
+     */
+    private void store(String fileName, Content<FileObject> contents, String noteKey, Object... noteParams) {
+        try {
+            FileObject output = jfm.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "", fileName, null);
+
+            if (noteKey != null) {
+                Object[] params = Arrays.copyOf(noteParams, noteParams.length + 1);
+                params[noteParams.length] = output.toUri();
+                log.note(noteKey, params);
+            }
+
+            contents.writeTo(output);
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.useSource(null);
+            log.report(
+                    ReportingPolicy.ERROR, DeptectiveMessages.OUTPUT_FAILED,
+                    "Failed to write " + fileName + " file: " + e.getMessage()
+            );
+        }
+    }
+}
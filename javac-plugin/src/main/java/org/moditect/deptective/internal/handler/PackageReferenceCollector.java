@@ -16,33 +16,50 @@
 package org.moditect.deptective.internal.handler;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
-import javax.tools.StandardLocation;
 
-import org.moditect.deptective.internal.export.DotSerializer;
+import org.moditect.deptective.internal.diff.ModelDiff;
+import org.moditect.deptective.internal.export.CyclesJsonWriter;
 import org.moditect.deptective.internal.export.JsonSerializer;
+import org.moditect.deptective.internal.export.MetricsJsonWriter;
 import org.moditect.deptective.internal.export.ModelSerializer;
+import org.moditect.deptective.internal.export.WeightedGraphDotWriter;
+import org.moditect.deptective.internal.export.WeightedGraphJsonWriter;
 import org.moditect.deptective.internal.graph.Cycle;
 import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IncrementalCycleDetector;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.PackagePrefixTree;
+import org.moditect.deptective.internal.index.ReverseDependencyIndex;
 import org.moditect.deptective.internal.log.DeptectiveMessages;
 import org.moditect.deptective.internal.log.Log;
 import org.moditect.deptective.internal.model.Component;
 import org.moditect.deptective.internal.model.Components;
 import org.moditect.deptective.internal.model.IdentifiableComponent;
-import org.moditect.deptective.internal.model.PackageAssignedToMultipleComponentsException;
 import org.moditect.deptective.internal.model.PackageDependencies;
 import org.moditect.deptective.internal.model.PackagePattern;
+import org.moditect.deptective.internal.model.PackagePatternIndex;
 import org.moditect.deptective.internal.model.ReadKind;
+import org.moditect.deptective.internal.options.DeptectiveOptions;
+import org.moditect.deptective.internal.options.Granularity;
 import org.moditect.deptective.internal.options.ReportingPolicy;
+import org.moditect.deptective.internal.options.Visualization;
 
+import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.Tree;
@@ -56,11 +73,30 @@ import com.sun.source.tree.Tree;
 public class PackageReferenceCollector implements PackageReferenceHandler {
 
     private final Log log;
-    private final boolean createDotFile;
+    private final OutputFiles outputFiles;
+    private final Visualization visualization;
+    private final boolean createDsmFile;
+    private final int maxCycles;
+    private final int maxCycleLength;
+    private final boolean failFast;
+    private final boolean createMetricsFile;
+    private final boolean createReverseIndex;
+    private final List<String> rollUps;
+    private final boolean suggestComponents;
     private final PackageDependencies.Builder builder;
 
-    private final JavaFileManager jfm;
+    /**
+     * Detects cycles between the components as soon as the read closing them is added.
+     */
+    private final IncrementalCycleDetector cycleDetector;
+
+    /**
+     * The model to compare the generated one with, if any.
+     */
+    private final PackageDependencies previousModel;
+
     private final List<PackagePattern> whitelistPatterns;
+    private final PackagePatternIndex whitelist;
     private final ReportingPolicy cycleReportingPolicy;
 
     /**
@@ -70,23 +106,64 @@ public class PackageReferenceCollector implements PackageReferenceHandler {
     private final Set<String> packagesOfCurrentCompilation;
     private final Set<String> referencedPackages;
 
+    /**
+     * The references between individual types, weighted by their number of occurrences; only recorded with
+     * {@link Granularity#TYPE}.
+     */
+    private final IntGraph.Builder typeReferences;
+
+    /**
+     * The references between individual packages, weighted by their number of occurrences; only recorded if any
+     * roll-ups or suggested components are requested.
+     */
+    private final IntGraph.Builder packageReferences;
+
+    /**
+     * The number of all types and of abstract types declared by each component, indexed by the ids assigned in
+     * {@code componentIds}; only recorded if metrics are requested.
+     */
+    private final Map<String, Integer> componentIds;
+    private int[] typeCounts;
+    private int[] abstractTypeCounts;
+
     private String currentPackageName;
     private Component currentComponent;
+    private int currentComponentId;
     private boolean createOutputFile = true;
 
-    public PackageReferenceCollector(JavaFileManager jfm, Log log, List<PackagePattern> whitelistPatterns,
-            ReportingPolicy cycleReportingPolicy, Components declaredComponents, boolean createDotFile) {
+    /**
+     * @param declaredComponents the components declared via the {@code components} option
+     * @param previousModel the model to compare the generated one with, if any
+     */
+    public PackageReferenceCollector(JavaFileManager jfm, Log log, DeptectiveOptions options,
+            Components declaredComponents, PackageDependencies previousModel) {
         this.log = log;
-        this.jfm = jfm;
-        this.whitelistPatterns = Collections.unmodifiableList(whitelistPatterns);
-        this.cycleReportingPolicy = cycleReportingPolicy;
+        this.outputFiles = new OutputFiles(jfm, log);
+        this.whitelistPatterns = Collections.unmodifiableList(options.getWhitelistedPackagePatterns());
+        this.whitelist = new PackagePatternIndex(whitelistPatterns);
+        this.cycleReportingPolicy = options.getCycleReportingPolicy(ReportingPolicy.WARN);
         this.declaredComponents = declaredComponents;
-        this.createDotFile = createDotFile;
+        this.visualization = options.getVisualization();
+        this.createDsmFile = options.createDsmFile();
+        this.maxCycles = options.getMaxCycles();
+        this.maxCycleLength = options.getMaxCycleLength();
+        this.failFast = options.isFailFast();
+        this.createMetricsFile = options.createMetricsFile();
+        this.previousModel = previousModel;
+        this.createReverseIndex = options.createReverseIndex();
+        this.rollUps = options.getRollUps();
+        this.suggestComponents = options.suggestComponents();
 
         this.packagesOfCurrentCompilation = new HashSet<String>();
         this.referencedPackages = new HashSet<String>();
+        this.typeReferences = options.getGranularity() == Granularity.TYPE ? IntGraph.builder() : null;
+        this.packageReferences = !rollUps.isEmpty() || suggestComponents ? IntGraph.builder() : null;
+        this.componentIds = new HashMap<>();
+        this.typeCounts = new int[16];
+        this.abstractTypeCounts = new int[16];
 
         builder = PackageDependencies.builder();
+        cycleDetector = new IncrementalCycleDetector();
 
         for (Component component : declaredComponents) {
             for (PackagePattern contained : component.getContained()) {
@@ -95,8 +172,17 @@ public class PackageReferenceCollector implements PackageReferenceHandler {
         }
     }
 
+    @Override
+    public boolean configIsValid() {
+        return PackageReferenceHandler.reportOverlappingPatterns(log, declaredComponents.getOverlaps());
+    }
+
     @Override
     public boolean onEnteringCompilationUnit(CompilationUnitTree tree) {
+        if (failFast && !createOutputFile) {
+            return false;
+        }
+
         ExpressionTree packageNameTree = tree.getPackageName();
 
         // TODO deal with default package
@@ -107,46 +193,99 @@ public class PackageReferenceCollector implements PackageReferenceHandler {
         currentPackageName = packageNameTree.toString();
         packagesOfCurrentCompilation.add(currentPackageName);
 
-        try {
-            currentComponent = declaredComponents.getComponentByPackage(currentPackageName);
+        // unambiguous, as the configuration was rejected if any contains patterns overlap
+        currentComponent = declaredComponents.getComponentByPackage(currentPackageName);
+
+        if (currentComponent == null) {
+            builder.addContains(currentPackageName, PackagePattern.getPattern(currentPackageName));
         }
-        catch (PackageAssignedToMultipleComponentsException e) {
-            log.report(
-                    ReportingPolicy.ERROR,
-                    DeptectiveMessages.PACKAGE_CONTAINED_IN_MULTIPLE_COMPONENTS,
-                    String.join(
-                            ", ",
-                            e.getMatchingComponents()
-                                    .stream()
-                                    .map(Component::getName)
-                                    .sorted()
-                                    .collect(Collectors.toList())
-                    ),
-                    currentPackageName
+
+        if (createMetricsFile) {
+            currentComponentId = componentId(
+                    currentComponent != null ? currentComponent.getName() : currentPackageName
             );
+        }
 
-            createOutputFile = false;
-            return false;
+        return true;
+    }
+
+    @Override
+    public void onTypeDeclaration(ClassTree node, boolean isAbstract) {
+        if (createMetricsFile) {
+            typeCounts[currentComponentId]++;
+            if (isAbstract) {
+                abstractTypeCounts[currentComponentId]++;
+            }
         }
+    }
 
-        if (currentComponent == null) {
-            builder.addContains(currentPackageName, PackagePattern.getPattern(currentPackageName));
+    private int componentId(String componentName) {
+        Integer id = componentIds.get(componentName);
+
+        if (id == null) {
+            id = componentIds.size();
+            componentIds.put(componentName, id);
+
+            if (id == typeCounts.length) {
+                typeCounts = Arrays.copyOf(typeCounts, id * 2);
+                abstractTypeCounts = Arrays.copyOf(abstractTypeCounts, id * 2);
+            }
         }
 
-        return true;
+        return id;
     }
 
     @Override
     public void onPackageReference(Tree referencingNode, String referencedPackageName) {
         referencedPackages.add(referencedPackageName);
 
+        // reads of whitelisted packages would be removed eventually, so they must not be considered for cycles
+        if (whitelist.matches(referencedPackageName)) {
+            return;
+        }
+
+        if (packageReferences != null && !referencedPackageName.equals(currentPackageName)) {
+            packageReferences.addEdge(currentPackageName, referencedPackageName, 1);
+        }
+
         Component referencedComponent = declaredComponents.getComponentByPackage(referencedPackageName);
+        String name = currentComponent != null ? currentComponent.getName() : currentPackageName;
+        String readComponent = referencedComponent != null ? referencedComponent.getName() : referencedPackageName;
 
-        builder.addRead(
-                currentComponent != null ? currentComponent.getName() : currentPackageName,
-                referencedComponent != null ? referencedComponent.getName() : referencedPackageName,
-                ReadKind.ALLOWED
-        );
+        builder.addRead(name, readComponent, ReadKind.ALLOWED);
+
+        // same exclusions as for the reads of the model
+        if (readComponent.equals(name) || readComponent.equals("java.lang")) {
+            return;
+        }
+
+        boolean closesCycle = cycleDetector.addEdge(name, readComponent);
+
+        // when failing fast, the cycle is reported right here; otherwise all cycles are reported upon completion
+        if (closesCycle && failFast && cycleReportingPolicy == ReportingPolicy.ERROR) {
+            List<String> cycle = cycleDetector.getCycleClosedBy(name, readComponent);
+
+            log.report(
+                    cycleReportingPolicy,
+                    (com.sun.tools.javac.tree.JCTree) referencingNode,
+                    DeptectiveMessages.CYCLE_CLOSED_BY_REFERENCE,
+                    name,
+                    readComponent,
+                    String.join(" -> ", cycle) + " -> " + name
+            );
+
+            createOutputFile = false;
+        }
+    }
+
+    @Override
+    public boolean handlesTypeReferences() {
+        return typeReferences != null;
+    }
+
+    @Override
+    public void onTypeReference(Tree referencingNode, String referencingTypeName, String referencedTypeName) {
+        typeReferences.addEdge(referencingTypeName, referencedTypeName, 1);
     }
 
     @Override
@@ -169,10 +308,9 @@ public class PackageReferenceCollector implements PackageReferenceHandler {
             effectiveWhitelistPatterns = whitelistPatterns;
         }
 
-        for (PackagePattern whitelistedPackagePattern : effectiveWhitelistPatterns) {
-            // removes any explicit read to that package
-            builder.addWhitelistedPackage(whitelistedPackagePattern);
-        }
+        // removes any explicit read to the whitelisted packages
+        builder.addWhitelistedPackages(effectiveWhitelistPatterns);
+        builder.assignLevels();
 
         PackageDependencies packageDependencies = builder.build();
 
@@ -181,45 +319,378 @@ public class PackageReferenceCollector implements PackageReferenceHandler {
         ModelSerializer serializer = new JsonSerializer();
         packageDependencies.serialize(serializer);
 
-        try {
-            FileObject output = jfm.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "", "deptective.json", null);
-            log.note(DeptectiveMessages.GENERATED_CONFIG, output.toUri());
-            Writer writer = output.openWriter();
-            writer.append(serializer.serialize());
-            writer.close();
-        }
-        catch (IOException e) {
-            throw new RuntimeException("Failed to write deptective.json file", e);
-        }
+        outputFiles.write(
+                "deptective.json", w -> w.append(serializer.serialize()), DeptectiveMessages.GENERATED_CONFIG
+        );
 
-        List<Cycle<IdentifiableComponent>> cycles = GraphUtils.detectCycles(packageDependencies.getComponents());
+        // only if a read closed a cycle, the components and shortest witnesses of all cycles need to be determined
+        List<Cycle<IdentifiableComponent>> cycles = cycleDetector.isAcyclic() ? Collections.emptyList()
+                : GraphUtils.detectCycles(packageDependencies.getComponents(), Cycle.DEFAULT_MAX_WITNESSES);
 
         if (!cycles.isEmpty()) {
             String cyclesAsString = "- " + cycles.stream()
-                    .map(Cycle::toString)
+                    .map(Cycle::describe)
                     .collect(Collectors.joining("," + System.lineSeparator() + "- "));
 
             log.report(cycleReportingPolicy, DeptectiveMessages.CYCLE_IN_CODE_BASE, cyclesAsString);
         }
 
-        if (createDotFile) {
+        if (typeReferences != null) {
+            writeTypeDependencies(effectiveWhitelistPatterns);
+        }
+
+        if (!rollUps.isEmpty()) {
+            writeRollUps(effectiveWhitelistPatterns);
+        }
+
+        if (suggestComponents) {
+            writeSuggestedComponents(effectiveWhitelistPatterns);
+        }
+
+        if (maxCycles > 0 && !cycles.isEmpty()) {
+            writeElementaryCycles(packageDependencies.toGraph());
+        }
+
+        if (createMetricsFile) {
+            writeMetrics(packageDependencies);
+        }
+
+        if (previousModel != null) {
+            writeDiff(packageDependencies);
+        }
+
+        if (createReverseIndex) {
+            writeReverseIndex(packageDependencies);
+        }
+
+        if (createDsmFile) {
+            outputFiles.writeDsm(packageDependencies);
+        }
+
+        if (visualization != Visualization.NONE) {
             builder.updateFromCycles(cycles);
-            packageDependencies = builder.build();
+            outputFiles.writeDot(builder.build(), visualization);
+        }
+    }
+
+    /**
+     * Writes the index of reverse dependencies between the components of the given model, including the component of
+     * each package of the code base.
+     */
+    private void writeReverseIndex(PackageDependencies packageDependencies) {
+        Map<String, String> componentsByPackage = new HashMap<>();
+        for (String packageName : packagesOfCurrentCompilation) {
+            Component component = declaredComponents.getComponentByPackage(packageName);
+            componentsByPackage.put(packageName, component != null ? component.getName() : packageName);
+        }
+
+        outputFiles.writeBinary(
+                "deptective-reverse.idx",
+                out -> ReverseDependencyIndex.write(packageDependencies.toGraph(), componentsByPackage, out),
+                DeptectiveMessages.GENERATED_REVERSE_INDEX
+        );
+    }
+
+    /**
+     * Writes the differences between the previous model and the given one as JSON and as DOT overlay.
+     */
+    private void writeDiff(PackageDependencies packageDependencies) {
+        ModelDiff diff = ModelDiff.compare(previousModel, packageDependencies);
+
+        outputFiles.write("deptective-diff.json", diff::writeJson, DeptectiveMessages.GENERATED_DIFF);
+        outputFiles.write("deptective-diff.dot", diff::writeDot, null);
+    }
+
+    /**
+     * Writes metrics of the components of the given model: the package metrics by Robert C. Martin (afferent and
+     * efferent coupling, instability, abstractness and distance from the main sequence), based on the dependencies
+     * between components and the types declared by them, their betweenness centrality and level, as well as the
+     * number of references to each component they read. Neither the levels nor these weights are part of the
+     * configuration template.
+     */
+    private void writeMetrics(PackageDependencies packageDependencies) {
+        IntGraph graph = packageDependencies.toGraph();
+        Set<String> components = new HashSet<>();
+        packageDependencies.getComponents().forEach(c -> components.add(c.getName()));
+
+        int n = graph.size();
+        int[] afferentCoupling = new int[n];
+        int[] efferentCoupling = new int[n];
+        for (int node = 0; node < n; node++) {
+            efferentCoupling[node] = graph.outDegree(node);
+            for (int e = graph.edgesStart(node); e < graph.edgesEnd(node); e++) {
+                afferentCoupling[graph.target(e)]++;
+            }
+        }
+
+        int[] types = new int[n];
+        int[] abstractTypes = new int[n];
+        for (Entry<String, Integer> component : componentIds.entrySet()) {
+            int node = graph.indexOf(component.getKey());
+            if (node != -1) {
+                types[node] = typeCounts[component.getValue()];
+                abstractTypes[node] = abstractTypeCounts[component.getValue()];
+            }
+        }
+
+        int[] levels = new int[n];
+        for (Component component : packageDependencies.getComponents()) {
+            levels[graph.indexOf(component.getName())] = component.getLevel();
+        }
+
+        double[] instability = new double[n];
+        double[] abstractness = new double[n];
+        double[] distance = new double[n];
+        for (int node = 0; node < n; node++) {
+            int coupling = afferentCoupling[node] + efferentCoupling[node];
+            instability[node] = coupling > 0 ? (double) efferentCoupling[node] / coupling : 0;
+            abstractness[node] = types[node] > 0 ? (double) abstractTypes[node] / types[node] : 0;
+            distance[node] = Math.abs(abstractness[node] + instability[node] - 1);
+        }
+
+        MetricsJsonWriter metrics = new MetricsJsonWriter(graph, components);
+        metrics.addMetric("types", types);
+        metrics.addMetric("abstractTypes", abstractTypes);
+        metrics.addMetric("afferentCoupling", afferentCoupling);
+        metrics.addMetric("efferentCoupling", efferentCoupling);
+        metrics.addMetric("instability", instability);
+        metrics.addMetric("abstractness", abstractness);
+        metrics.addMetric("distance", distance);
+        metrics.addMetric("betweenness", GraphUtils.computeBetweenness(graph));
+        metrics.addMetric("level", levels);
+        metrics.addEdgeWeights("reads");
+
+        outputFiles.write("deptective-metrics.json", metrics::write, DeptectiveMessages.GENERATED_METRICS);
+    }
 
-            serializer = new DotSerializer();
-            packageDependencies.serialize(serializer);
+    /**
+     * Enumerates the elementary cycles of the given component graph, writing out each one as soon as it is found.
+     */
+    private void writeElementaryCycles(IntGraph graph) {
+        outputFiles.write("deptective-cycles.json", w -> {
+            try (CyclesJsonWriter writer = new CyclesJsonWriter(graph, w)) {
+                boolean complete = GraphUtils.enumerateCycles(graph, maxCycles, maxCycleLength, cycle -> {
+                    try {
+                        writer.addCycle(cycle);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.setComplete(complete);
+            }
+        }, DeptectiveMessages.GENERATED_CYCLES);
+    }
+
+    /**
+     * Writes the type-level dependencies together with their roll-ups to packages and components. References to
+     * types in {@code java.lang} and in whitelisted packages are omitted, as in {@code deptective.json}.
+     */
+    private void writeTypeDependencies(List<PackagePattern> effectiveWhitelistPatterns) {
+        Function<String, String> componentOfPackage = componentOfPackage(effectiveWhitelistPatterns);
+
+        IntGraph types = typeReferences.build()
+                .rollUp(t -> componentOfPackage.apply(packageOf(t)) != null ? t : null);
+        IntGraph packages = types.rollUp(PackageReferenceCollector::packageOf);
+        IntGraph components = packages.rollUp(componentOfPackage);
+
+        WeightedGraphJsonWriter writer = new WeightedGraphJsonWriter()
+                .addGraph("types", types)
+                .addGraph("packages", packages)
+                .addGraph("components", components);
 
-            try {
-                FileObject output = jfm.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "", "deptective.dot", null);
-                log.note(DeptectiveMessages.GENERATED_DOT_REPRESENTATION, output.toUri());
-                Writer writer = output.openWriter();
-                writer.append(serializer.serialize());
-                writer.close();
+        outputFiles.write("deptective-types.json", writer::write, DeptectiveMessages.GENERATED_TYPE_DEPENDENCIES);
+    }
+
+    /**
+     * Writes the requested roll-ups of the package dependencies as JSON and DOT, one file each per roll-up. All
+     * roll-ups are derived from the package graph recorded during compilation, using a tree of package prefixes for
+     * determining the ancestor of each package at a given depth.
+     */
+    private void writeRollUps(List<PackagePattern> effectiveWhitelistPatterns) {
+        Function<String, String> componentOfPackage = componentOfPackage(effectiveWhitelistPatterns);
+        PackagePrefixTree prefixes = new PackagePrefixTree();
+
+        List<Function<String, String>> groupings = new ArrayList<>();
+        for (String rollUp : rollUps) {
+            if (rollUp.equals(DeptectiveOptions.ROLLUP_BY_COMPONENTS)) {
+                groupings.add(componentOfPackage);
             }
-            catch (IOException e) {
-                throw new RuntimeException("Failed to write deptective.dot file", e);
+            else {
+                Function<String, String> prefixOfPackage = prefixes.prefixesOfDepth(Integer.parseInt(rollUp));
+                groupings.add(p -> componentOfPackage.apply(p) != null ? prefixOfPackage.apply(p) : null);
             }
         }
+
+        IntGraph[] graphs = packageReferences.build().rollUp(groupings);
+
+        for (int i = 0; i < graphs.length; i++) {
+            String rollUp = rollUps.get(i);
+            String level = rollUp.equals(DeptectiveOptions.ROLLUP_BY_COMPONENTS) ? rollUp : "depth" + rollUp;
+            String fileName = "deptective-rollup-" + level;
+            IntGraph graph = graphs[i];
+
+            outputFiles.write(
+                    fileName + ".json",
+                    w -> new WeightedGraphJsonWriter().addGraph(level, graph).write(w),
+                    DeptectiveMessages.GENERATED_ROLLUP,
+                    level
+            );
+            outputFiles.write(fileName + ".dot", w -> new WeightedGraphDotWriter(level).write(graph, w), null);
+        }
+    }
+
+    /**
+     * Groups the packages of the code base into components by detecting communities of densely connected packages,
+     * so that there are as few references between components as possible, and writes the result in
+     * {@code deptective.json} format, as a starting point for defining the components of an unstructured code base.
+     * Any declared components are ignored for that purpose.
+     */
+    private void writeSuggestedComponents(List<PackagePattern> effectiveWhitelistPatterns) {
+        Function<String, String> componentOfPackage = componentOfPackage(effectiveWhitelistPatterns);
+
+        // also packages without any references need to be assigned to a component
+        for (String packageName : packagesOfCurrentCompilation) {
+            packageReferences.addNode(packageName);
+        }
+
+        IntGraph packages = packageReferences.build();
+        IntGraph internal = packages.rollUp(
+                p -> packagesOfCurrentCompilation.contains(p) && componentOfPackage.apply(p) != null ? p : null
+        );
+
+        int[] communities = GraphUtils.detectCommunities(internal);
+        String[] names = nameCommunities(internal, communities);
+
+        Map<String, Set<PackagePattern>> contained = new HashMap<>();
+        Map<String, String> suggestedComponentOfPackage = new HashMap<>();
+        for (int node = 0; node < internal.size(); node++) {
+            String component = names[communities[node]];
+            contained.computeIfAbsent(
+                    component, c -> new HashSet<>()
+            )
+                    .add(PackagePattern.getPattern(internal.getName(node)));
+            suggestedComponentOfPackage.put(internal.getName(node), component);
+        }
+
+        IntGraph suggested = packages.rollUp(p -> {
+            if (packagesOfCurrentCompilation.contains(p)) {
+                return suggestedComponentOfPackage.get(p);
+            }
+            return componentOfPackage.apply(p) != null ? p : null;
+        });
+
+        ModelSerializer serializer = new JsonSerializer();
+        for (String component : new TreeSet<>(contained.keySet())) {
+            int node = suggested.indexOf(component);
+            Map<String, ReadKind> reads = new HashMap<>();
+            Map<String, Integer> weights = new HashMap<>();
+
+            for (int e = suggested.edgesStart(node); e < suggested.edgesEnd(node); e++) {
+                reads.put(suggested.getName(suggested.target(e)), ReadKind.ALLOWED);
+                weights.put(suggested.getName(suggested.target(e)), suggested.weight(e));
+            }
+
+            serializer.addComponent(new Component(component, contained.get(component), reads, weights));
+        }
+        for (PackagePattern whitelisted : effectiveWhitelistPatterns) {
+            serializer.addWhitelistedPackagePattern(whitelisted);
+        }
+
+        outputFiles.write(
+                "deptective-suggested.json",
+                w -> w.append(serializer.serialize()),
+                DeptectiveMessages.GENERATED_SUGGESTED_COMPONENTS,
+                internal.size(),
+                contained.size()
+        );
+    }
+
+    /**
+     * Names each community after the longest common package prefix of its members, e.g. {@code com.example.order}
+     * for {@code com.example.order.api} and {@code com.example.order.impl}; a suffix is appended if multiple
+     * communities share the same prefix.
+     */
+    private static String[] nameCommunities(IntGraph graph, int[] communities) {
+        int count = 0;
+        for (int community : communities) {
+            count = Math.max(count, community + 1);
+        }
+
+        String[] prefixes = new String[count];
+        String[] firstMembers = new String[count];
+        for (int node = 0; node < graph.size(); node++) {
+            int community = communities[node];
+            if (prefixes[community] == null) {
+                prefixes[community] = firstMembers[community] = graph.getName(node);
+            }
+            else {
+                prefixes[community] = commonPackagePrefix(prefixes[community], graph.getName(node));
+            }
+        }
+
+        String[] names = new String[count];
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (int community = 0; community < count; community++) {
+            String prefix = prefixes[community].isEmpty() ? firstMembers[community] : prefixes[community];
+            int occurrence = occurrences.merge(prefix, 1, Integer::sum);
+            names[community] = occurrence == 1 ? prefix : prefix + "-" + occurrence;
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns the longest common prefix of the given package names made up of whole segments, e.g. {@code com.acme}
+     * for {@code com.acme.foo} and {@code com.acme.foobar}.
+     */
+    private static String commonPackagePrefix(String package1, String package2) {
+        int end = 0;
+
+        for (int i = 0;; i++) {
+            boolean segmentEnd1 = i == package1.length() || package1.charAt(i) == '.';
+            boolean segmentEnd2 = i == package2.length() || package2.charAt(i) == '.';
+
+            if (segmentEnd1 && segmentEnd2) {
+                end = i;
+                if (i == package1.length() || i == package2.length()) {
+                    break;
+                }
+            }
+            else if (segmentEnd1 || segmentEnd2 || package1.charAt(i) != package2.charAt(i)) {
+                break;
+            }
+        }
+
+        return package1.substring(0, end);
+    }
+
+    /**
+     * Returns a function mapping each package to the name of its component, or to {@code null} for {@code java.lang},
+     * the unnamed package and whitelisted packages, which are omitted from all derived graphs as in
+     * {@code deptective.json}.
+     */
+    private Function<String, String> componentOfPackage(List<PackagePattern> effectiveWhitelistPatterns) {
+        PackagePatternIndex effectiveWhitelist = new PackagePatternIndex(effectiveWhitelistPatterns);
+        Map<String, String> componentsByPackage = new HashMap<>();
+
+        return p -> componentsByPackage.computeIfAbsent(p, packageName -> {
+            if (packageName.isEmpty() || packageName.equals("java.lang") ||
+                    effectiveWhitelist.matches(packageName)) {
+                return null;
+            }
+
+            Component component = declaredComponents.getComponentByPackage(packageName);
+            return component != null ? component.getName() : packageName;
+        });
+    }
+
+    /**
+     * Returns the package of the type with the given binary name.
+     */
+    private static String packageOf(String typeName) {
+        int lastDot = typeName.lastIndexOf('.');
+        return lastDot == -1 ? "" : typeName.substring(0, lastDot);
     }
 
     private boolean isWhitelistAllExternal() {
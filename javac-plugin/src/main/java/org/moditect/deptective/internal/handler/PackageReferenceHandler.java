@@ -15,6 +15,14 @@
  */
 package org.moditect.deptective.internal.handler;
 
+import java.util.List;
+
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.model.PatternOverlap;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+
+import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.Tree;
 
@@ -33,6 +41,29 @@ public interface PackageReferenceHandler {
         return true;
     }
 
+    /**
+     * Reports an error for each of the given pairs of overlapping {@code contains} patterns, e.g. when checking the
+     * configuration in {@link #configIsValid()}. Packages matched by both patterns of a pair can't be assigned to a
+     * component, so ASTs mustn't be traversed in that case.
+     *
+     * @return Whether there are no overlapping patterns, i.e. each package belongs to at most one component.
+     */
+    static boolean reportOverlappingPatterns(Log log, List<PatternOverlap> overlaps) {
+        for (PatternOverlap overlap : overlaps) {
+            log.report(
+                    ReportingPolicy.ERROR,
+                    DeptectiveMessages.OVERLAPPING_COMPONENT_PATTERNS,
+                    overlap.getFirstPattern(),
+                    overlap.getFirst().getName(),
+                    overlap.getSecondPattern(),
+                    overlap.getSecond().getName(),
+                    overlap.getExample()
+            );
+        }
+
+        return overlaps.isEmpty();
+    }
+
     /**
      * Invoked when entering a new compilation unit.
      *
@@ -43,6 +74,13 @@ public interface PackageReferenceHandler {
         return true;
     }
 
+    /**
+     * Invoked when leaving a compilation unit after its AST has been traversed, i.e. only if
+     * {@link #onEnteringCompilationUnit(CompilationUnitTree)} returned {@code true}.
+     */
+    default void onLeavingCompilationUnit(CompilationUnitTree tree) {
+    }
+
     /**
      * Invoked when referencing a package.
      *
@@ -52,6 +90,34 @@ public interface PackageReferenceHandler {
     default void onPackageReference(Tree referencingNode, String referencedPackageName) {
     }
 
+    /**
+     * Whether this handler should be notified about references between individual types via
+     * {@link #onTypeReference(Tree, String, String)}.
+     */
+    default boolean handlesTypeReferences() {
+        return false;
+    }
+
+    /**
+     * Invoked when a type references another type, in addition to {@link #onPackageReference(Tree, String)}. Only
+     * invoked if {@link #handlesTypeReferences()} returns {@code true}.
+     *
+     * @param referencingNode the node referencing the other type
+     * @param referencingTypeName the binary name of the innermost type declaring the referencing node
+     * @param referencedTypeName the binary name of the referenced type
+     */
+    default void onTypeReference(Tree referencingNode, String referencingTypeName, String referencedTypeName) {
+    }
+
+    /**
+     * Invoked when visiting the declaration of a named type.
+     *
+     * @param node the type declaration
+     * @param isAbstract whether the declared type is an interface, an annotation type or an abstract class
+     */
+    default void onTypeDeclaration(ClassTree node, boolean isAbstract) {
+    }
+
     /**
      * Invoked when the compilation is done.
      */
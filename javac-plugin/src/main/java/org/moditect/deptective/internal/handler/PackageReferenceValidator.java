@@ -16,27 +16,33 @@
 package org.moditect.deptective.internal.handler;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
-import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
-import javax.tools.StandardLocation;
 
-import org.moditect.deptective.internal.export.DotSerializer;
 import org.moditect.deptective.internal.graph.Cycle;
 import org.moditect.deptective.internal.graph.GraphUtils;
 import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.log.DiagnosticBuffer;
 import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.model.Baseline;
 import org.moditect.deptective.internal.model.Component;
+import org.moditect.deptective.internal.model.ForbiddenTransitiveDependency;
 import org.moditect.deptective.internal.model.IdentifiableComponent;
-import org.moditect.deptective.internal.model.PackageAssignedToMultipleComponentsException;
 import org.moditect.deptective.internal.model.PackageDependencies;
 import org.moditect.deptective.internal.model.ReadKind;
+import org.moditect.deptective.internal.options.DeptectiveOptions;
 import org.moditect.deptective.internal.options.ReportingPolicy;
+import org.moditect.deptective.internal.options.Visualization;
 
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
@@ -52,30 +58,59 @@ public class PackageReferenceValidator implements PackageReferenceHandler {
 
     private final Log log;
     private final PackageDependencies allowedPackageDependencies;
-    private final JavaFileManager jfm;
+    private final OutputFiles outputFiles;
     private final ReportingPolicy reportingPolicy;
     private final ReportingPolicy unconfiguredPackageReportingPolicy;
     private final ReportingPolicy cycleReportingPolicy;
     private final Map<String, Boolean> reportedUnconfiguredPackages;
     private final PackageDependencies.Builder actualPackageDependencies;
-
-    private boolean createDotFile;
+    private final DiagnosticBuffer violations;
+
+    /**
+     * The known violations not to be reported, if any.
+     */
+    private final Baseline baseline;
+
+    /**
+     * The baseline file to be rewritten with the violations of this compilation and these violations, if the baseline
+     * is to be updated.
+     */
+    private final Path updatedBaselineFile;
+    private final SortedSet<String> baselineViolations;
+
+    /**
+     * The source files of this compilation, whose existing entries are replaced when updating the baseline.
+     */
+    private final Set<String> compiledSourceFiles;
+
+    private Visualization visualization;
+    private boolean createDsmFile;
     private String currentPackageName;
     private Component currentComponent;
+    private String currentSourceFile;
+    private long currentBaselineFingerprint;
 
+    /**
+     * @param baseline the known violations not to be reported, if any
+     * @param updatedBaselineFile the baseline file to be rewritten, if the baseline is to be updated
+     */
     public PackageReferenceValidator(JavaFileManager jfm, PackageDependencies packageDependencies,
-            ReportingPolicy reportingPolicy, ReportingPolicy unconfiguredPackageReportingPolicy,
-            ReportingPolicy cycleReportingPolicy, boolean createDotFile,
-            Log log) {
+            DeptectiveOptions options, Baseline baseline, Path updatedBaselineFile, Log log) {
         this.log = log;
         this.allowedPackageDependencies = packageDependencies;
-        this.jfm = jfm;
-        this.reportingPolicy = reportingPolicy;
-        this.unconfiguredPackageReportingPolicy = unconfiguredPackageReportingPolicy;
-        this.cycleReportingPolicy = cycleReportingPolicy;
+        this.outputFiles = new OutputFiles(jfm, log);
+        this.reportingPolicy = options.getReportingPolicy();
+        this.unconfiguredPackageReportingPolicy = options.getUnconfiguredPackageReportingPolicy();
+        this.cycleReportingPolicy = options.getCycleReportingPolicy(ReportingPolicy.ERROR);
         this.reportedUnconfiguredPackages = new HashMap<>();
         this.actualPackageDependencies = PackageDependencies.builder();
-        this.createDotFile = createDotFile;
+        this.visualization = options.getVisualization();
+        this.createDsmFile = options.createDsmFile();
+        this.violations = new DiagnosticBuffer(log, options.getMaxReportsPerEdge(), options.getMaxReportsPerFile());
+        this.baseline = baseline;
+        this.updatedBaselineFile = updatedBaselineFile;
+        this.baselineViolations = updatedBaselineFile != null ? new TreeSet<>() : null;
+        this.compiledSourceFiles = new HashSet<>();
     }
 
     @Override
@@ -85,7 +120,10 @@ public class PackageReferenceValidator implements PackageReferenceHandler {
             return false;
         }
 
-        return true;
+        return PackageReferenceHandler.reportOverlappingPatterns(
+                log,
+                allowedPackageDependencies.getOverlappingPatterns()
+        );
     }
 
     @Override
@@ -100,30 +138,22 @@ public class PackageReferenceValidator implements PackageReferenceHandler {
         String packageName = packageNameTree.toString();
         currentPackageName = packageName;
 
-        try {
-            currentComponent = allowedPackageDependencies.getComponentByPackage(packageName);
+        // unambiguous, as the configuration was rejected if any contains patterns overlap
+        currentComponent = allowedPackageDependencies.getComponentByPackage(packageName);
 
-            if (currentComponent == null) {
-                reportUnconfiguredPackageIfNeeded(tree, packageName);
-            }
+        if (currentComponent == null) {
+            reportUnconfiguredPackageIfNeeded(tree, packageName);
         }
-        catch (PackageAssignedToMultipleComponentsException e) {
-            log.report(
-                    ReportingPolicy.ERROR,
-                    DeptectiveMessages.PACKAGE_CONTAINED_IN_MULTIPLE_COMPONENTS,
-                    String.join(
-                            ", ",
-                            e.getMatchingComponents()
-                                    .stream()
-                                    .map(Component::getName)
-                                    .sorted()
-                                    .collect(Collectors.toList())
-                    ),
-                    packageName
-            );
 
-            createDotFile = false;
-            return false;
+        if (baseline != null || baselineViolations != null) {
+            currentSourceFile = getSourceFileName(tree, packageName);
+
+            if (baselineViolations != null) {
+                compiledSourceFiles.add(currentSourceFile);
+            }
+            if (currentComponent != null) {
+                currentBaselineFingerprint = Baseline.fingerprint(currentSourceFile, currentComponent.getName());
+            }
         }
 
         return true;
@@ -131,87 +161,157 @@ public class PackageReferenceValidator implements PackageReferenceHandler {
 
     @Override
     public void onPackageReference(Tree referencingNode, String referencedPackageName) {
-        if (isIgnoredDependency(referencedPackageName)) {
+        if (allowedPackageDependencies.isIgnoredReference(currentPackageName, referencedPackageName)) {
             return;
         }
 
-        Component referencedComponent = allowedPackageDependencies.getComponentByPackage(referencedPackageName);
+        Component referencedComponent = allowedPackageDependencies.getReferencedComponent(referencedPackageName);
+        ReadKind readKind = PackageDependencies.getReadKind(currentComponent, referencedComponent);
 
-        if (referencedComponent == null) {
-            referencedComponent = Component.builder(referencedPackageName).build();
-        }
+        actualPackageDependencies.addRead(
+                currentComponent != null ? currentComponent.getName() : currentPackageName,
+                referencedComponent.getName(),
+                readKind
+        );
 
-        if (currentComponent == null) {
-            actualPackageDependencies.addRead(
-                    Component.builder(currentPackageName).build().getName(),
-                    referencedComponent.getName(),
-                    ReadKind.UKNOWN
-            );
-        }
-        else if (currentComponent.allowedToRead(referencedComponent)) {
-            actualPackageDependencies.addRead(
+        if (readKind == ReadKind.DISALLOWED) {
+            if (isKnownViolation(referencedPackageName, DeptectiveMessages.ILLEGAL_PACKAGE_DEPENDENCY)) {
+                return;
+            }
+
+            violations.add(
+                    reportingPolicy,
+                    (com.sun.tools.javac.tree.JCTree) referencingNode,
+                    DeptectiveMessages.ILLEGAL_PACKAGE_DEPENDENCY,
                     currentComponent.getName(),
-                    referencedComponent.getName(),
-                    ReadKind.ALLOWED
+                    referencedPackageName
             );
         }
-        else {
-            actualPackageDependencies.addRead(
-                    currentComponent.getName(),
-                    referencedComponent.getName(),
-                    ReadKind.DISALLOWED
-            );
+        // the members of a cycle share one level, so reads within a cycle can't violate the levels
+        else if (readKind == ReadKind.ALLOWED && currentComponent.violatesLevelOf(referencedComponent) &&
+                !allowedPackageDependencies.isCycle(currentComponent, referencedComponent)) {
+            if (isKnownViolation(referencedPackageName, DeptectiveMessages.ILLEGAL_LEVEL_DEPENDENCY)) {
+                return;
+            }
 
-            log.report(
+            violations.add(
                     reportingPolicy,
                     (com.sun.tools.javac.tree.JCTree) referencingNode,
-                    DeptectiveMessages.ILLEGAL_PACKAGE_DEPENDENCY,
+                    DeptectiveMessages.ILLEGAL_LEVEL_DEPENDENCY,
                     currentComponent.getName(),
-                    referencedPackageName
+                    referencedPackageName,
+                    currentComponent.getLevel(),
+                    referencedComponent.getLevel()
             );
         }
     }
 
+    /**
+     * Whether the given illegal reference from the current compilation unit is contained in the baseline and thus
+     * shall not be reported. If the baseline is to be updated, any violation is recorded and not reported.
+     *
+     * @param messageKey the key of the message reporting the violation
+     */
+    private boolean isKnownViolation(String referencedPackageName, String messageKey) {
+        if (baselineViolations != null) {
+            baselineViolations.add(
+                    Baseline.describe(currentSourceFile, currentComponent.getName(), referencedPackageName, messageKey)
+            );
+            return true;
+        }
+
+        return baseline != null && baseline.contains(currentBaselineFingerprint, referencedPackageName, messageKey);
+    }
+
+    /**
+     * Rewrites the baseline file with the violations of this compilation, retaining the existing violations of all
+     * source files which haven't been compiled (e.g. in an incremental build).
+     */
+    private void updateBaseline() {
+        try {
+            for (String violation : Baseline.readViolations(updatedBaselineFile)) {
+                if (!compiledSourceFiles.contains(Baseline.getSourceFile(violation))) {
+                    baselineViolations.add(violation);
+                }
+            }
+
+            Baseline.write(updatedBaselineFile, baselineViolations);
+            log.note(DeptectiveMessages.UPDATED_BASELINE, updatedBaselineFile.toUri(), baselineViolations.size());
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to write baseline file " + updatedBaselineFile, e);
+        }
+    }
+
+    /**
+     * Returns the name of the given compilation unit's source file relative to the source root, e.g.
+     * {@code com/example/Foo.java}, so baseline files don't depend on the location of the code base.
+     */
+    private static String getSourceFileName(CompilationUnitTree tree, String packageName) {
+        String path = tree.getSourceFile().toUri().getPath();
+        String fileName = path != null ? path.substring(path.lastIndexOf('/') + 1) : tree.getSourceFile().getName();
+
+        return packageName.replace('.', '/') + '/' + fileName;
+    }
+
+    @Override
+    public void onLeavingCompilationUnit(CompilationUnitTree tree) {
+        violations.flush();
+    }
+
     @Override
     public void onCompletingCompilation() {
         log.useSource(null);
 
-        List<Cycle<IdentifiableComponent>> cycles = GraphUtils.detectCycles(allowedPackageDependencies.getComponents());
+        List<Cycle<IdentifiableComponent>> cycles = GraphUtils.detectCycles(
+                allowedPackageDependencies.getComponents(), Cycle.DEFAULT_MAX_WITNESSES
+        );
 
         if (!cycles.isEmpty()) {
             String cyclesAsString = "- " + cycles.stream()
-                    .map(Cycle::toString)
+                    .map(Cycle::describe)
                     .collect(Collectors.joining("," + System.lineSeparator() + "- "));
 
             log.report(cycleReportingPolicy, DeptectiveMessages.CYCLE_IN_ARCHITECTURE, cyclesAsString);
         }
 
-        if (!createDotFile) {
-            return;
-        }
+        checkForbiddenTransitiveDependencies();
 
-        actualPackageDependencies.updateFromCycles(cycles);
-
-        DotSerializer serializer = new DotSerializer();
-        actualPackageDependencies.build().serialize(serializer);
+        if (updatedBaselineFile != null) {
+            updateBaseline();
+        }
 
-        try {
-            FileObject output = jfm.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "", "deptective.dot", null);
-            log.note(DeptectiveMessages.GENERATED_DOT_REPRESENTATION, output.toUri());
-            Writer writer = output.openWriter();
-            writer.append(serializer.serialize());
-            writer.close();
+        if (createDsmFile) {
+            outputFiles.writeDsm(actualPackageDependencies.build());
         }
-        catch (IOException e) {
-            throw new RuntimeException("Failed to write deptective.dot file", e);
+
+        if (visualization != Visualization.NONE) {
+            actualPackageDependencies.updateFromCycles(cycles);
+            outputFiles.writeDot(actualPackageDependencies.build(), visualization);
         }
     }
 
-    private boolean isIgnoredDependency(String referencedPackageName) {
-        return "java.lang".equals(referencedPackageName) ||
-                allowedPackageDependencies.isWhitelisted(referencedPackageName) ||
-                currentPackageName.equals(referencedPackageName) ||
-                referencedPackageName.isEmpty();
+    /**
+     * Reports each forbidden transitive dependency which exists in the code base, together with one (shortest) chain
+     * of components establishing it.
+     */
+    private void checkForbiddenTransitiveDependencies() {
+        if (allowedPackageDependencies.getForbiddenTransitiveDependencies().isEmpty()) {
+            return;
+        }
+
+        Map<ForbiddenTransitiveDependency, List<String>> violated = allowedPackageDependencies
+                .getViolatedForbiddenTransitiveDependencies(actualPackageDependencies.build());
+
+        for (Entry<ForbiddenTransitiveDependency, List<String>> violation : violated.entrySet()) {
+            log.report(
+                    reportingPolicy,
+                    DeptectiveMessages.ILLEGAL_TRANSITIVE_DEPENDENCY,
+                    violation.getKey().getFrom(),
+                    violation.getKey().getTo(),
+                    String.join(" -> ", violation.getValue())
+            );
+        }
     }
 
     private void reportUnconfiguredPackageIfNeeded(CompilationUnitTree tree, String packageName) {
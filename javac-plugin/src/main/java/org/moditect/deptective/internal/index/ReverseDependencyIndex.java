@@ -0,0 +1,257 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.index;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.moditect.deptective.internal.graph.IntGraph;
+
+/**
+ * A persistent index of the reverse dependencies between components, allowing to determine which components
+ * (transitively) depend on a given component or package, e.g. to select the tests affected by a change.
+ * <p>
+ * The index is stored in a binary file which is memory-mapped for querying, so opening it is independent of its size
+ * and each query only touches the parts of the file it needs. All numbers are big-endian {@code int}s:
+ *
+ * <pre>
+ * magic, version, n (components), m (edges), p (packages)
+ * edge offsets [n+1], sources [m]                  -- reverse adjacency lists in CSR form
+ * name offsets [n+1], package name offsets [p+1]   -- byte offsets into the name tables
+ * package components [p]                           -- the component containing each package
+ * component names, package names                   -- UTF-8, each table in alphabetical order
+ * </pre>
+ */
+public class ReverseDependencyIndex {
+
+    private static final int MAGIC = 0x44524458;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    private final ByteBuffer buffer;
+    private final IntBuffer ints;
+    private final int n;
+    private final int m;
+    private final int p;
+    private final int edgeOffsets;
+    private final int sources;
+    private final int nameOffsets;
+    private final int packageNameOffsets;
+    private final int packageComponents;
+    private final int names;
+    private final int packageNames;
+
+    private ReverseDependencyIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        this.ints = buffer.asIntBuffer();
+
+        if (buffer.capacity() < HEADER_INTS * 4 || ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+            throw new IOException("Not a reverse dependency index of version " + VERSION);
+        }
+
+        n = ints.get(2);
+        m = ints.get(3);
+        p = ints.get(4);
+
+        // positions in ints
+        edgeOffsets = HEADER_INTS;
+        sources = edgeOffsets + n + 1;
+        nameOffsets = sources + m;
+        packageNameOffsets = nameOffsets + n + 1;
+        packageComponents = packageNameOffsets + p + 1;
+
+        // positions in bytes
+        names = (packageComponents + p) * 4;
+        packageNames = names + ints.get(nameOffsets + n);
+    }
+
+    /**
+     * Writes the index for the given component graph.
+     *
+     * @param graph the component graph, with ids assigned in alphabetical order (as by
+     *        {@link org.moditect.deptective.internal.model.PackageDependencies#toGraph()})
+     * @param componentsByPackage the names of the components containing the packages of the code base
+     */
+    public static void write(IntGraph graph, Map<String, String> componentsByPackage, OutputStream out)
+            throws IOException {
+        IntGraph reverse = graph.reverse();
+        SortedMap<String, String> packages = new TreeMap<>(componentsByPackage);
+
+        int n = graph.size();
+        byte[][] nameBytes = new byte[n][];
+        for (int node = 0; node < n; node++) {
+            nameBytes[node] = graph.getName(node).getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[][] packageNameBytes = new byte[packages.size()][];
+        int[] packageComponentIds = new int[packages.size()];
+        int i = 0;
+        for (Entry<String, String> entry : packages.entrySet()) {
+            packageNameBytes[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            packageComponentIds[i++] = graph.indexOf(entry.getValue());
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(n);
+        data.writeInt(reverse.getEdgeCount());
+        data.writeInt(packages.size());
+
+        for (int node = 0; node <= n; node++) {
+            data.writeInt(node < n ? reverse.edgesStart(node) : reverse.getEdgeCount());
+        }
+        for (int e = 0; e < reverse.getEdgeCount(); e++) {
+            data.writeInt(reverse.target(e));
+        }
+
+        writeOffsets(data, nameBytes);
+        writeOffsets(data, packageNameBytes);
+
+        for (int component : packageComponentIds) {
+            data.writeInt(component);
+        }
+
+        for (byte[] name : nameBytes) {
+            data.write(name);
+        }
+        for (byte[] name : packageNameBytes) {
+            data.write(name);
+        }
+
+        data.flush();
+    }
+
+    private static void writeOffsets(DataOutputStream data, byte[][] strings) throws IOException {
+        int offset = 0;
+        data.writeInt(offset);
+        for (byte[] string : strings) {
+            offset += string.length;
+            data.writeInt(offset);
+        }
+    }
+
+    /**
+     * Memory-maps the given index file.
+     */
+    public static ReverseDependencyIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ReverseDependencyIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public String getName(int component) {
+        return string(names, nameOffsets, component);
+    }
+
+    /**
+     * Returns the id of the given component or, if there is no component of that name, of the component containing
+     * the given package; -1 if neither exists.
+     */
+    public int resolve(String componentOrPackage) {
+        int component = search(names, nameOffsets, n, componentOrPackage);
+        if (component >= 0) {
+            return component;
+        }
+
+        int pkg = search(packageNames, packageNameOffsets, p, componentOrPackage);
+        return pkg >= 0 ? ints.get(packageComponents + pkg) : -1;
+    }
+
+    /**
+     * Returns the given components and all components transitively depending on them, in ascending order.
+     */
+    public int[] getDependents(int... components) {
+        BitSet visited = new BitSet(n);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int component : components) {
+            if (!visited.get(component)) {
+                visited.set(component);
+                queue[tail++] = component;
+            }
+        }
+
+        while (head < tail) {
+            int component = queue[head++];
+            int end = ints.get(edgeOffsets + component + 1);
+
+            for (int e = ints.get(edgeOffsets + component); e < end; e++) {
+                int source = ints.get(sources + e);
+                if (!visited.get(source)) {
+                    visited.set(source);
+                    queue[tail++] = source;
+                }
+            }
+        }
+
+        int[] result = Arrays.copyOf(queue, tail);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int search(int table, int offsets, int size, String name) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = string(table, offsets, mid).compareTo(name);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private String string(int table, int offsets, int index) {
+        int start = ints.get(offsets + index);
+        byte[] bytes = new byte[ints.get(offsets + index + 1) - start];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(table + start + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
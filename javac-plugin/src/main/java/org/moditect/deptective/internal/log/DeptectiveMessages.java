@@ -24,27 +24,67 @@ public class DeptectiveMessages extends ListResourceBundle {
     public static final String WARNING_PREFIX = "compiler.warn.";
 
     public static final String ILLEGAL_PACKAGE_DEPENDENCY = "deptective.illegalpackagedependency";
+    public static final String ILLEGAL_TRANSITIVE_DEPENDENCY = "deptective.illegaltransitivedependency";
+    public static final String ILLEGAL_LEVEL_DEPENDENCY = "deptective.illegalleveldependency";
     public static final String NO_DEPTECTIVE_CONFIG_FOUND = "deptective.nodeptectiveconfigfound";
     public static final String PACKAGE_NOT_CONFIGURED = "deptective.packagenotconfigured";
     public static final String GENERATED_CONFIG = "deptective.generatedconfig";
     public static final String GENERATED_DOT_REPRESENTATION = "deptective.dotrepresentation";
+    public static final String GENERATED_TYPE_DEPENDENCIES = "deptective.typedependencies";
+    public static final String GENERATED_DSM = "deptective.dsm";
+    public static final String GENERATED_CYCLES = "deptective.cycles";
+    public static final String GENERATED_METRICS = "deptective.metrics";
+    public static final String GENERATED_DIFF = "deptective.diff";
+    public static final String GENERATED_REVERSE_INDEX = "deptective.reverseindex";
+    public static final String GENERATED_ROLLUP = "deptective.rollup";
+    public static final String GENERATED_SUGGESTED_COMPONENTS = "deptective.suggestedcomponents";
+    public static final String UPDATED_BASELINE = "deptective.updatedbaseline";
+    public static final String BASELINE_NOT_READABLE = "deptective.baselinenotreadable";
     public static final String PACKAGE_CONTAINED_IN_MULTIPLE_COMPONENTS = "deptective.packageinmultiplecomponents";
+    public static final String OVERLAPPING_COMPONENT_PATTERNS = "deptective.overlappingcomponentpatterns";
     public static final String CYCLE_IN_ARCHITECTURE = "deptective.cycleinarchitecture";
     public static final String CYCLE_IN_CODE_BASE = "deptective.cycleincodebase";
+    public static final String CYCLE_CLOSED_BY_REFERENCE = "deptective.cycleclosedbyreference";
+    public static final String INVALID_OPTION_VALUE = "deptective.invalidoptionvalue";
+    public static final String MORE_OCCURRENCES = "deptective.moreoccurrences";
+    public static final String MORE_VIOLATIONS_IN_FILE = "deptective.moreviolationsinfile";
+    public static final String OUTPUT_FAILED = "deptective.outputfailed";
+    public static final String OUTPUT_TIMED_OUT = "deptective.outputtimedout";
 
     @Override
     protected final Object[][] getContents() {
         return new Object[][] {
                 { ERROR_PREFIX + ILLEGAL_PACKAGE_DEPENDENCY, "package {0} must not access {1}" },
                 { WARNING_PREFIX + ILLEGAL_PACKAGE_DEPENDENCY, "package {0} must not access {1}" },
+                { ERROR_PREFIX + ILLEGAL_TRANSITIVE_DEPENDENCY,
+                        "component {0} must not depend on {1}, not even transitively: {2}" },
+                { WARNING_PREFIX + ILLEGAL_TRANSITIVE_DEPENDENCY,
+                        "component {0} must not depend on {1}, not even transitively: {2}" },
+                { ERROR_PREFIX + ILLEGAL_LEVEL_DEPENDENCY,
+                        "package {0} on level {2} must not access {1} on level {3}" },
+                { WARNING_PREFIX + ILLEGAL_LEVEL_DEPENDENCY,
+                        "package {0} on level {2} must not access {1} on level {3}" },
                 { ERROR_PREFIX + PACKAGE_NOT_CONFIGURED, "no Deptective configuration found for package {0}" },
                 { WARNING_PREFIX + PACKAGE_NOT_CONFIGURED, "no Deptective configuration found for package {0}" },
                 { ERROR_PREFIX + NO_DEPTECTIVE_CONFIG_FOUND, "Config file deptective.json was not found" },
                 { NOTE_PREFIX + GENERATED_CONFIG, "Generated Deptective configuration template at {0}" },
                 { NOTE_PREFIX + GENERATED_DOT_REPRESENTATION,
                         "Created DOT file representing the Deptective configuration at {0}" },
+                { NOTE_PREFIX + GENERATED_TYPE_DEPENDENCIES, "Created type-level dependency graph at {0}" },
+                { NOTE_PREFIX + GENERATED_DSM, "Created dependency structure matrix at {0}" },
+                { NOTE_PREFIX + GENERATED_CYCLES, "Created list of elementary cycles at {0}" },
+                { NOTE_PREFIX + GENERATED_METRICS, "Created component metrics at {0}" },
+                { NOTE_PREFIX + GENERATED_DIFF, "Created architecture drift report at {0}" },
+                { NOTE_PREFIX + GENERATED_REVERSE_INDEX, "Created reverse dependency index at {0}" },
+                { NOTE_PREFIX + GENERATED_ROLLUP, "Created roll-up of package dependencies by {0} at {1}" },
+                { NOTE_PREFIX + GENERATED_SUGGESTED_COMPONENTS,
+                        "Created suggested grouping of {0} package(s) into {1} component(s) at {2}" },
+                { NOTE_PREFIX + UPDATED_BASELINE, "Updated baseline file {0} with {1} known violation(s)" },
+                { ERROR_PREFIX + BASELINE_NOT_READABLE, "Failed to read baseline file {0}: {1}" },
                 { ERROR_PREFIX + PACKAGE_CONTAINED_IN_MULTIPLE_COMPONENTS,
                         "Multiple components match package {1}: {0}" },
+                { ERROR_PREFIX + OVERLAPPING_COMPONENT_PATTERNS,
+                        "pattern {0} of component {1} and pattern {2} of component {3} overlap, e.g. both match package {4}" },
                 { ERROR_PREFIX + CYCLE_IN_ARCHITECTURE,
                         "Architecture model contains cycle(s) between these components: " + System.lineSeparator()
                                 + "{0}" },
@@ -57,6 +97,19 @@ public class DeptectiveMessages extends ListResourceBundle {
                 { WARNING_PREFIX + CYCLE_IN_CODE_BASE,
                         "Analysed code base contains cycle(s) between these components: " + System.lineSeparator()
                                 + "{0}" },
+                { ERROR_PREFIX + CYCLE_CLOSED_BY_REFERENCE,
+                        "reference from {0} to {1} closes a cycle: {2}" },
+                { WARNING_PREFIX + CYCLE_CLOSED_BY_REFERENCE,
+                        "reference from {0} to {1} closes a cycle: {2}" },
+                { WARNING_PREFIX + INVALID_OPTION_VALUE,
+                        "invalid value {1} of option {0}, using the default value instead" },
+                { ERROR_PREFIX + MORE_OCCURRENCES, "{0} more occurrence(s) of the reference from {1} to {2}" },
+                { WARNING_PREFIX + MORE_OCCURRENCES, "{0} more occurrence(s) of the reference from {1} to {2}" },
+                { ERROR_PREFIX + MORE_VIOLATIONS_IN_FILE, "{0} more violation(s) in this file" },
+                { WARNING_PREFIX + MORE_VIOLATIONS_IN_FILE, "{0} more violation(s) in this file" },
+                { ERROR_PREFIX + OUTPUT_FAILED, "Failed to create the Deptective output: {0}" },
+                { ERROR_PREFIX + OUTPUT_TIMED_OUT,
+                        "Creating the Deptective output did not complete within {0} second(s)" },
         };
     }
 
@@ -0,0 +1,219 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.moditect.deptective.internal.options.ReportingPolicy;
+
+import com.sun.tools.javac.util.JCDiagnostic.DiagnosticPosition;
+
+/**
+ * Buffers the violations found in one compilation unit and reports them in one go when {@link #flush()} is invoked.
+ * <p>
+ * Violations are grouped by their message and source and target (e.g. a component and a referenced package), keeping
+ * only the positions of the individual occurrences in a primitive array. Upon flushing, occurrences are reported in
+ * order of their position, with duplicate positions removed; occurrences beyond the given limits per group and per
+ * file are summarized by one diagnostic stating their number.
+ */
+public class DiagnosticBuffer {
+
+    private final Log log;
+    private final int maxReportsPerEdge;
+    private final int maxReportsPerFile;
+    private final Map<Edge, Violations> violationsByEdge;
+    private final List<Violations> violations;
+
+    /**
+     * @param maxReportsPerEdge the maximum number of reported occurrences per message, source and target; 0 for no
+     *        limit
+     * @param maxReportsPerFile the maximum number of reported occurrences per compilation unit; 0 for no limit
+     */
+    public DiagnosticBuffer(Log log, int maxReportsPerEdge, int maxReportsPerFile) {
+        this.log = log;
+        this.maxReportsPerEdge = maxReportsPerEdge > 0 ? maxReportsPerEdge : Integer.MAX_VALUE;
+        this.maxReportsPerFile = maxReportsPerFile > 0 ? maxReportsPerFile : Integer.MAX_VALUE;
+        this.violationsByEdge = new HashMap<>();
+        this.violations = new ArrayList<>();
+    }
+
+    /**
+     * Adds one occurrence of a violation.
+     *
+     * @param source the source of the violating reference, e.g. the referencing component; passed as first message
+     *        parameter
+     * @param target the target of the violating reference, e.g. the referenced package; passed as second message
+     *        parameter
+     * @param params any further message parameters; only those passed for the first occurrence of a given key, source
+     *        and target are retained
+     */
+    public void add(ReportingPolicy reportingPolicy, DiagnosticPosition position, String key, String source,
+            String target, Object... params) {
+        Edge edge = new Edge(key, source, target);
+        Violations edgeViolations = violationsByEdge.get(edge);
+
+        if (edgeViolations == null) {
+            edgeViolations = new Violations(reportingPolicy, edge, params);
+            violationsByEdge.put(edge, edgeViolations);
+            violations.add(edgeViolations);
+        }
+
+        edgeViolations.add(position.getPreferredPosition());
+    }
+
+    /**
+     * Reports all buffered violations against the current source of the log and clears this buffer.
+     */
+    public void flush() {
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        // one entry per occurrence to be reported, ordered by position, then by group
+        long[] occurrences = new long[0];
+        int count = 0;
+
+        for (int i = 0; i < violations.size(); i++) {
+            Violations edgeViolations = violations.get(i);
+            edgeViolations.sortAndRemoveDuplicates();
+
+            int reported = Math.min(edgeViolations.size, maxReportsPerEdge);
+            if (count + reported > occurrences.length) {
+                occurrences = Arrays.copyOf(occurrences, Math.max(count + reported, occurrences.length * 2));
+            }
+            for (int j = 0; j < reported; j++) {
+                occurrences[count++] = ((long) edgeViolations.positions[j] << 32) | i;
+            }
+        }
+
+        Arrays.sort(occurrences, 0, count);
+
+        int reported = Math.min(count, maxReportsPerFile);
+        for (int i = 0; i < reported; i++) {
+            Violations edgeViolations = violations.get((int) occurrences[i]);
+            log.report(
+                    edgeViolations.reportingPolicy, (int) (occurrences[i] >> 32), edgeViolations.edge.key,
+                    edgeViolations.params
+            );
+        }
+
+        if (reported < count) {
+            int omitted = 0;
+            ReportingPolicy reportingPolicy = ReportingPolicy.WARN;
+            for (Violations edgeViolations : violations) {
+                omitted += edgeViolations.size;
+                if (edgeViolations.reportingPolicy == ReportingPolicy.ERROR) {
+                    reportingPolicy = ReportingPolicy.ERROR;
+                }
+            }
+
+            log.report(
+                    reportingPolicy, (int) (occurrences[reported] >> 32), DeptectiveMessages.MORE_VIOLATIONS_IN_FILE,
+                    omitted - reported
+            );
+        }
+        else {
+            for (Violations edgeViolations : violations) {
+                if (edgeViolations.size > maxReportsPerEdge) {
+                    log.report(
+                            edgeViolations.reportingPolicy, edgeViolations.positions[maxReportsPerEdge],
+                            DeptectiveMessages.MORE_OCCURRENCES, edgeViolations.size - maxReportsPerEdge,
+                            edgeViolations.edge.source, edgeViolations.edge.target
+                    );
+                }
+            }
+        }
+
+        violationsByEdge.clear();
+        violations.clear();
+    }
+
+    /**
+     * Identifies one violation, i.e. one message with a given source and target.
+     */
+    private static class Edge {
+
+        private final String key;
+        private final String source;
+        private final String target;
+
+        private Edge(String key, String source, String target) {
+            this.key = key;
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public int hashCode() {
+            return (key.hashCode() * 31 + source.hashCode()) * 31 + target.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Edge)) {
+                return false;
+            }
+
+            Edge other = (Edge) obj;
+            return key.equals(other.key) && source.equals(other.source) && target.equals(other.target);
+        }
+    }
+
+    /**
+     * The occurrences of one violation.
+     */
+    private static class Violations {
+
+        private final ReportingPolicy reportingPolicy;
+        private final Edge edge;
+        private final Object[] params;
+        private int[] positions;
+        private int size;
+
+        private Violations(ReportingPolicy reportingPolicy, Edge edge, Object[] params) {
+            this.reportingPolicy = reportingPolicy;
+            this.edge = edge;
+            this.params = new Object[params.length + 2];
+            this.params[0] = edge.source;
+            this.params[1] = edge.target;
+            System.arraycopy(params, 0, this.params, 2, params.length);
+            this.positions = new int[4];
+        }
+
+        private void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        private void sortAndRemoveDuplicates() {
+            Arrays.sort(positions, 0, size);
+
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || positions[i] != positions[i - 1]) {
+                    positions[distinct++] = positions[i];
+                }
+            }
+            size = distinct;
+        }
+    }
+}
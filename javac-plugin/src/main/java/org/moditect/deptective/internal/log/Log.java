@@ -16,7 +16,11 @@
 package org.moditect.deptective.internal.log;
 
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.tools.JavaFileObject;
 
@@ -25,6 +29,7 @@ import org.moditect.deptective.internal.options.ReportingPolicy;
 import com.sun.tools.javac.processing.JavacProcessingEnvironment;
 import com.sun.tools.javac.util.JCDiagnostic.DiagnosticPosition;
 import com.sun.tools.javac.util.JCDiagnostic.Note;
+import com.sun.tools.javac.util.JCDiagnostic.SimpleDiagnosticPosition;
 import com.sun.tools.javac.util.JavacMessages;
 import com.sun.tools.javac.util.Position;
 
@@ -34,16 +39,35 @@ public class Log {
 
     private final DeptectiveMessages messages;
 
+    /**
+     * The formats of the raw messages emitted on Java 8, by message key.
+     */
+    private final Map<String, MessageFormat> formats;
+
     /**
      * The resource bundle cannot be registered in Java 8; this flag triggers fallback to emitting raw messages in this
      * case
      */
     private boolean registeredResourceBundle;
 
+    /**
+     * The compiler's own thread; javac's log must not be accessed by any other thread.
+     */
+    private final Thread compilerThread;
+
+    /**
+     * Messages reported and actions requested by other threads than the compiler thread, to be emitted or run by
+     * {@link #emitDeferred()}.
+     */
+    private final Queue<Runnable> deferred;
+
     private Log(JavacProcessingEnvironment processingEnvironment, JavacMessages messages) {
         this.processingEnvironment = processingEnvironment;
+        this.compilerThread = Thread.currentThread();
+        this.deferred = new ConcurrentLinkedQueue<>();
         registeredResourceBundle = true;
         this.messages = new DeptectiveMessages();
+        this.formats = new HashMap<>();
         registerResourceBundle(messages);
     }
 
@@ -52,58 +76,103 @@ public class Log {
     }
 
     public void report(ReportingPolicy reportingPolicy, String key, Object... params) {
-        if (reportingPolicy == ReportingPolicy.ERROR) {
-            if (registeredResourceBundle) {
-                currentLog().error(Position.NOPOS, key, params);
-            }
-            else {
-                MessageFormat format = new MessageFormat(messages.getFormat(DeptectiveMessages.ERROR_PREFIX, key));
-                currentLog().rawError(Position.NOPOS, format.format(params));
-            }
-        }
-        else {
-            if (registeredResourceBundle) {
-                currentLog().strictWarning(null, key, params);
-            }
-            else {
-                MessageFormat format = new MessageFormat(messages.getFormat(DeptectiveMessages.WARNING_PREFIX, key));
-                currentLog().rawWarning(Position.NOPOS, format.format(params));
-            }
-        }
+        report(reportingPolicy, Position.NOPOS, key, params);
     }
 
     public void report(ReportingPolicy reportingPolicy, DiagnosticPosition pos, String key, Object... params) {
+        report(reportingPolicy, pos.getPreferredPosition(), key, params);
+    }
+
+    /**
+     * Reports a message at the given character offset of the current source.
+     */
+    public void report(ReportingPolicy reportingPolicy, int pos, String key, Object... params) {
+        if (defer(() -> report(reportingPolicy, pos, key, params))) {
+            return;
+        }
+
+        com.sun.tools.javac.util.Log log = currentLog();
+
         if (reportingPolicy == ReportingPolicy.ERROR) {
             if (registeredResourceBundle) {
-                currentLog().error(pos.getPreferredPosition(), key, params);
+                log.error(pos, key, params);
             }
             else {
-                MessageFormat format = new MessageFormat(messages.getFormat(DeptectiveMessages.ERROR_PREFIX, key));
-                currentLog().rawError(pos.getPreferredPosition(), format.format(params));
+                log.rawError(pos, format(DeptectiveMessages.ERROR_PREFIX, key, params));
             }
         }
         else {
             if (registeredResourceBundle) {
-                currentLog().strictWarning(pos, key, params);
+                log.strictWarning(pos == Position.NOPOS ? null : new SimpleDiagnosticPosition(pos), key, params);
             }
             else {
-                MessageFormat format = new MessageFormat(messages.getFormat(DeptectiveMessages.WARNING_PREFIX, key));
-                currentLog().rawWarning(pos.getPreferredPosition(), format.format(params));
+                log.rawWarning(pos, format(DeptectiveMessages.WARNING_PREFIX, key, params));
             }
         }
     }
 
     public void note(String key, Object... params) {
+        if (defer(() -> note(key, params))) {
+            return;
+        }
+
         // no "raw" API for producing notes; so omitting them on Java 8
         if (registeredResourceBundle) {
             currentLog().note(new Note("compiler", key, params));
         }
     }
 
+    /**
+     * Runs the given action right away if invoked on the compiler thread; otherwise defers it, so it runs on the
+     * compiler thread upon {@link #emitDeferred()}, in order with any deferred messages. To be used for accessing
+     * other non-thread-safe compiler components, e.g. the file manager.
+     */
+    public void onCompilerThread(Runnable action) {
+        if (!defer(action)) {
+            action.run();
+        }
+    }
+
     public void useSource(JavaFileObject file) {
+        if (defer(() -> useSource(file))) {
+            return;
+        }
+
         currentLog().useSource(file);
     }
 
+    /**
+     * Emits all messages reported and runs all actions requested by other threads so far, in the order they were
+     * reported or requested. Must be invoked on the compiler thread.
+     */
+    public void emitDeferred() {
+        Runnable message;
+        while ((message = deferred.poll()) != null) {
+            message.run();
+        }
+    }
+
+    /**
+     * Drops all messages reported and actions requested by other threads so far.
+     */
+    public void discardDeferred() {
+        deferred.clear();
+    }
+
+    /**
+     * Defers the given message if invoked on another thread than the compiler thread.
+     *
+     * @return {@code true} if the message has been deferred, {@code false} if it should be reported right away
+     */
+    private boolean defer(Runnable message) {
+        if (Thread.currentThread() == compilerThread) {
+            return false;
+        }
+
+        deferred.add(message);
+        return true;
+    }
+
     private void registerResourceBundle(JavacMessages messages) {
         // Without touch the class here, I'm getting a weird classloading error
         // when using Maven and not having <fork>true</fork> :(
@@ -118,6 +187,12 @@ public class Log {
         }
     }
 
+    private String format(String prefix, String key, Object... params) {
+        return formats.computeIfAbsent(
+                prefix + key, k -> new MessageFormat(messages.getFormat(prefix, key)))
+                .format(params);
+    }
+
     private com.sun.tools.javac.util.Log currentLog() {
         // For the sake of Java 8 compatibility the currently relevant Log instance has to be
         // retrieved on demand from the JavacProcessingEnvironment instead of using a cached
@@ -0,0 +1,212 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A set of known violations, i.e. illegal references which should not be reported (again). Each violation is given by
+ * the source file containing the reference, the referencing component, the referenced package and the key of the
+ * violation's message (e.g. {@code deptective.illegalpackagedependency}); in the baseline file, each violation is one
+ * line of these four parts, separated by tabs.
+ * <p>
+ * Only 64-bit FNV-1a fingerprints (computed over the UTF-16 characters) of the violations are retained, in an
+ * open-addressing hash table. As the fingerprint of a line can be computed incrementally, the fingerprint of the source
+ * file and component can be computed once per compilation unit via {@link #fingerprint(String, String)}, so checking a
+ * reference boils down to hashing the referenced package name and one probe of the table.
+ */
+public class Baseline {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char SEPARATOR = '\t';
+
+    private long[] table;
+    private int size;
+
+    private Baseline() {
+        table = new long[1024];
+    }
+
+    /**
+     * Loads the baseline from the given file. Empty lines and lines starting with {@code #} are ignored. If the file
+     * doesn't exist, the baseline is empty.
+     */
+    public static Baseline load(Path file) throws IOException {
+        Baseline baseline = new Baseline();
+        forEachViolation(file, line -> baseline.add(finish(hash(FNV_OFFSET_BASIS, line))));
+        return baseline;
+    }
+
+    /**
+     * Returns the violations in the given baseline file as given by {@link #describe(String, String, String, String)},
+     * or an empty list if the file doesn't exist.
+     */
+    public static List<String> readViolations(Path file) throws IOException {
+        List<String> violations = new ArrayList<>();
+        forEachViolation(file, violations::add);
+        return violations;
+    }
+
+    private static void forEachViolation(Path file, Consumer<String> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && line.charAt(0) != '#') {
+                    consumer.accept(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given violations as baseline file, each one given as returned by
+     * {@link #describe(String, String, String, String)}.
+     */
+    public static void write(Path file, Collection<String> violations) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.append("# Known Deptective violations: source file, component, referenced package, message key")
+                    .append(System.lineSeparator());
+            for (String violation : violations) {
+                writer.append(violation).append(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Returns the line representing the given violation in a baseline file.
+     */
+    public static String describe(String sourceFile, String component, String referencedPackage,
+            String messageKey) {
+        return sourceFile + SEPARATOR + component + SEPARATOR + referencedPackage + SEPARATOR + messageKey;
+    }
+
+    /**
+     * Returns the source file of the given violation as returned by {@link #describe(String, String, String, String)}.
+     */
+    public static String getSourceFile(String violation) {
+        int separator = violation.indexOf(SEPARATOR);
+        return separator != -1 ? violation.substring(0, separator) : violation;
+    }
+
+    /**
+     * Returns the partial fingerprint of all violations of the given component in the given source file, to be
+     * completed via {@link #contains(long, String, String)}.
+     */
+    public static long fingerprint(String sourceFile, String component) {
+        long hash = hash(FNV_OFFSET_BASIS, sourceFile);
+        hash = hash(hash, SEPARATOR);
+        hash = hash(hash, component);
+        return hash(hash, SEPARATOR);
+    }
+
+    /**
+     * Whether the violation given by the partial fingerprint of its source file and component, the referenced package
+     * and its message key is contained in this baseline.
+     */
+    public boolean contains(long fingerprint, String referencedPackage, String messageKey) {
+        long hash = hash(fingerprint, referencedPackage);
+        hash = hash(hash, SEPARATOR);
+        long key = finish(hash(hash, messageKey));
+        int mask = table.length - 1;
+
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            if (table[slot] == key) {
+                return true;
+            }
+            if (table[slot] == 0) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void add(long key) {
+        int mask = table.length - 1;
+
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            if (table[slot] == key) {
+                return;
+            }
+            if (table[slot] == 0) {
+                table[slot] = key;
+                break;
+            }
+        }
+
+        // keep the load factor at or below 0.5
+        if (++size * 2 > table.length) {
+            long[] old = table;
+            table = new long[old.length * 2];
+            size = 0;
+            for (long k : old) {
+                if (k != 0) {
+                    add(k);
+                }
+            }
+        }
+    }
+
+    private static long hash(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash = hash(hash, s.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, char c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    /**
+     * 0 marks empty slots of the table, so it must not be used as key.
+     */
+    private static long finish(long hash) {
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * Spreads the bits of the given key (the finalizer of MurmurHash3), as the low bits of FNV-1a hashes of similar
+     * strings are correlated.
+     */
+    private static int slot(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
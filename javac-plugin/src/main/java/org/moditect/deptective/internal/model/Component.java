@@ -15,12 +15,16 @@
  */
 package org.moditect.deptective.internal.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.moditect.deptective.internal.graph.Dependency;
 
@@ -34,26 +38,81 @@ import org.moditect.deptective.internal.graph.Dependency;
  */
 public class Component extends IdentifiableComponent {
 
+    /**
+     * Denotes that no level has been assigned to a component.
+     */
+    public static final int NO_LEVEL = -1;
+
     public static class Builder {
 
+        /**
+         * The kind and number of occurrences of one read; mutable, so counting an occurrence takes only one map
+         * lookup.
+         */
+        private static class Read {
+
+            private ReadKind kind;
+            private int weight;
+        }
+
         private final String name;
         private final Set<PackagePattern> contained;
-        private final Map<String, ReadKind> reads;
+        private final Map<String, Read> reads;
+        private int level;
 
         public Builder(String name) {
             this.name = name;
             this.contained = new HashSet<>();
             this.reads = new HashMap<>();
+            this.level = NO_LEVEL;
         }
 
+        /**
+         * Adds one occurrence of a read of the given component, i.e. increases the weight of that read by one.
+         */
         public Builder addRead(String read, ReadKind readKind) {
             if (!read.isEmpty() && !read.equals(name) && !read.equals("java.lang")) {
-                reads.put(read, readKind);
+                Read existing = reads.get(read);
+
+                if (existing == null) {
+                    existing = new Read();
+                    reads.put(read, existing);
+                }
+
+                existing.kind = readKind;
+                existing.weight++;
+            }
+
+            return this;
+        }
+
+        /**
+         * Changes the kind of an existing read of the given component, leaving its weight unchanged. Does nothing if
+         * there is no such read.
+         */
+        public Builder updateReadKind(String read, ReadKind readKind) {
+            Read existing = reads.get(read);
+
+            if (existing != null) {
+                existing.kind = readKind;
             }
 
             return this;
         }
 
+        /**
+         * Removes all reads of components matching the given predicate.
+         */
+        public Builder removeReads(Predicate<String> filter) {
+            reads.keySet().removeIf(filter);
+            return this;
+        }
+
+        public Builder setLevel(int level) {
+            this.level = level;
+            return this;
+        }
+
         public Builder addContains(Collection<PackagePattern> contains) {
             contained.addAll(contains);
             return this;
@@ -65,11 +124,15 @@ public class Component extends IdentifiableComponent {
         }
 
         public Component build() {
-            return new Component(name, contained, reads);
-        }
+            Map<String, ReadKind> readKinds = new HashMap<>();
+            Map<String, Integer> weights = new HashMap<>();
 
-        public Map<String, ReadKind> getReads() {
-            return reads;
+            for (Entry<String, Read> read : reads.entrySet()) {
+                readKinds.put(read.getKey(), read.getValue().kind);
+                weights.put(read.getKey(), read.getValue().weight);
+            }
+
+            return new Component(name, contained, readKinds, weights, level);
         }
 
         public String getName() {
@@ -79,11 +142,34 @@ public class Component extends IdentifiableComponent {
 
     private final Set<PackagePattern> contained;
     private final Map<String, ReadKind> reads;
+    private final Map<String, Integer> weights;
+    private final int level;
 
     public Component(String name, Set<PackagePattern> contained, Map<String, ReadKind> reads) {
+        this(name, contained, reads, Collections.emptyMap());
+    }
+
+    /**
+     * @param weights The number of references to each read component; reads without a given weight have a weight of
+     *        1.
+     */
+    public Component(String name, Set<PackagePattern> contained, Map<String, ReadKind> reads,
+            Map<String, Integer> weights) {
+        this(name, contained, reads, weights, NO_LEVEL);
+    }
+
+    /**
+     * @param weights The number of references to each read component; reads without a given weight have a weight of
+     *        1.
+     * @param level The architecture layer of the component or {@link #NO_LEVEL}
+     */
+    public Component(String name, Set<PackagePattern> contained, Map<String, ReadKind> reads,
+            Map<String, Integer> weights, int level) {
         super(name);
         this.contained = Collections.unmodifiableSet(new HashSet<>(contained));
         this.reads = Collections.unmodifiableMap(new HashMap<>(reads));
+        this.weights = Collections.unmodifiableMap(new HashMap<>(weights));
+        this.level = level;
     }
 
     public static Builder builder(String name) {
@@ -112,6 +198,37 @@ public class Component extends IdentifiableComponent {
         return reads;
     }
 
+    /**
+     * Returns the number of references from this component to the given component, 0 if this component doesn't
+     * read the given one.
+     */
+    public int getReadWeight(String read) {
+        if (!reads.containsKey(read)) {
+            return 0;
+        }
+
+        Integer weight = weights.get(read);
+        return weight != null ? weight : 1;
+    }
+
+    /**
+     * Returns the level (architecture layer) of this component or {@link #NO_LEVEL} if it hasn't been assigned to
+     * any level. Components on level 0 don't read any other components, components on higher levels read components
+     * on lower levels.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Whether reading the given component violates the levels of the two components, i.e. both components have a
+     * level and the given one isn't on a strictly lower level than this one.
+     */
+    public boolean violatesLevelOf(Component other) {
+        return level != NO_LEVEL && other.level != NO_LEVEL && other.level >= level &&
+                !name.equals(other.name);
+    }
+
     @Override
     public String toString() {
         return name + " { contained=" + contained + ", reads=" + reads + "] }";
@@ -124,12 +241,19 @@ public class Component extends IdentifiableComponent {
 
     @Override
     public Dependency<IdentifiableComponent> getOutgoingDependencyTo(IdentifiableComponent node) {
-        return reads.entrySet()
-                .stream()
-                .filter(e -> e.getKey().equals(node.getName()))
-                .map(e -> new Dependency<>(new ComponentReference(e.getKey()), 1))
-                .findFirst()
-                .orElse(null);
+        int weight = getReadWeight(node.getName());
+        return weight > 0 ? new Dependency<>(new ComponentReference(node.getName()), weight) : null;
+    }
+
+    @Override
+    public Collection<Dependency<IdentifiableComponent>> getOutgoingDependencies() {
+        List<Dependency<IdentifiableComponent>> dependencies = new ArrayList<>(reads.size());
+
+        for (String read : reads.keySet()) {
+            dependencies.add(new Dependency<>(new ComponentReference(read), getReadWeight(read)));
+        }
+
+        return dependencies;
     }
 
     @Override
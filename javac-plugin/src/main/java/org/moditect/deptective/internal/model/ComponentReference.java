@@ -15,6 +15,9 @@
  */
 package org.moditect.deptective.internal.model;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.moditect.deptective.internal.graph.Dependency;
 
 /**
@@ -33,6 +36,11 @@ public class ComponentReference extends IdentifiableComponent {
         throw new UnsupportedOperationException("No outgoing dependencies from reference");
     }
 
+    @Override
+    public Collection<Dependency<IdentifiableComponent>> getOutgoingDependencies() {
+        return Collections.emptyList();
+    }
+
     @Override
     public boolean hasOutgoingDependencies() {
         return false;
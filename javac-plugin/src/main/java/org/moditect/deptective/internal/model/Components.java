@@ -15,27 +15,45 @@
  */
 package org.moditect.deptective.internal.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * A set of {@link Component}s.
+ * <p>
+ * The {@code contains} patterns of all components are checked for overlaps once, when first needed. If there are
+ * none, each package can belong to at most one component and lookups stop at the first matching component; results
+ * of lookups, including packages not contained in any component, are cached.
  *
  * @author Gunnar Morling
  */
 public class Components implements Iterable<Component> {
 
+    /**
+     * Cache markers for packages not contained in any component and for packages contained in multiple components.
+     */
+    private static final Component NO_COMPONENT = new Component("", Collections.emptySet(), Collections.emptyMap());
+    private static final Component AMBIGUOUS = new Component("", Collections.emptySet(), Collections.emptyMap());
+
     private final Set<Component> contained;
     private final Map<String, Component> componentsByPackage;
+    private final Map<String, Set<Component>> ambiguousPackages;
+    private List<PatternOverlap> overlaps;
 
     public Components(Set<Component> contained) {
         this.contained = Collections.unmodifiableSet(contained);
         this.componentsByPackage = new HashMap<>();
+        this.ambiguousPackages = new HashMap<>();
     }
 
     @Override
@@ -58,23 +76,146 @@ public class Components implements Iterable<Component> {
             return null;
         }
 
-        return componentsByPackage.computeIfAbsent(
-                qualifiedName,
-                p -> {
-                    Set<Component> candidates = contained.stream()
-                            .filter(c -> c.containsPackage(p))
-                            .collect(Collectors.toSet());
+        Component component = componentsByPackage.get(qualifiedName);
+        if (component == null) {
+            component = findComponent(qualifiedName);
+            componentsByPackage.put(qualifiedName, component);
+        }
 
-                    if (candidates.isEmpty()) {
-                        return null;
-                    }
-                    else if (candidates.size() == 1) {
-                        return candidates.iterator().next();
-                    }
-                    else {
-                        throw new PackageAssignedToMultipleComponentsException(candidates);
+        if (component == AMBIGUOUS) {
+            throw new PackageAssignedToMultipleComponentsException(ambiguousPackages.get(qualifiedName));
+        }
+
+        return component == NO_COMPONENT ? null : component;
+    }
+
+    /**
+     * Returns all pairs of {@code contains} patterns of different components which match at least one common package
+     * name, ordered by the names of the components and patterns.
+     */
+    public List<PatternOverlap> getOverlaps() {
+        if (overlaps == null) {
+            overlaps = Collections.unmodifiableList(findOverlaps());
+        }
+
+        return overlaps;
+    }
+
+    private Component findComponent(String packageName) {
+        if (getOverlaps().isEmpty()) {
+            for (Component component : contained) {
+                if (component.containsPackage(packageName)) {
+                    return component;
+                }
+            }
+
+            return NO_COMPONENT;
+        }
+
+        Set<Component> candidates = new HashSet<>();
+        for (Component component : contained) {
+            if (component.containsPackage(packageName)) {
+                candidates.add(component);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return NO_COMPONENT;
+        }
+        else if (candidates.size() == 1) {
+            return candidates.iterator().next();
+        }
+        else {
+            ambiguousPackages.put(packageName, Collections.unmodifiableSet(candidates));
+            return AMBIGUOUS;
+        }
+    }
+
+    /**
+     * Exact patterns can only overlap with an equal exact pattern, which is found via hashing, or with a wildcard
+     * pattern matching them. Pairs of wildcard patterns are only intersected if their literal prefixes and suffixes
+     * are compatible, i.e. one is a prefix (suffix) of the other.
+     */
+    private List<PatternOverlap> findOverlaps() {
+        List<Component> components = new ArrayList<>(contained);
+        components.sort(Comparator.comparing(Component::getName));
+
+        Map<String, List<Component>> exact = new LinkedHashMap<>();
+        List<Component> wildcardOwners = new ArrayList<>();
+        List<PackagePattern> wildcards = new ArrayList<>();
+
+        for (Component component : components) {
+            List<PackagePattern> patterns = new ArrayList<>(component.getContained());
+            Collections.sort(patterns);
+
+            for (PackagePattern pattern : patterns) {
+                String text = pattern.toString();
+                if (text.indexOf('*') == -1) {
+                    exact.computeIfAbsent(text, t -> new ArrayList<>()).add(component);
+                }
+                else {
+                    wildcardOwners.add(component);
+                    wildcards.add(pattern);
+                }
+            }
+        }
+
+        List<PatternOverlap> result = new ArrayList<>();
+
+        for (Entry<String, List<Component>> entry : exact.entrySet()) {
+            List<Component> owners = entry.getValue();
+            PackagePattern pattern = PackagePattern.getPattern(entry.getKey());
+
+            for (int i = 0; i < owners.size(); i++) {
+                for (int j = i + 1; j < owners.size(); j++) {
+                    result.add(new PatternOverlap(owners.get(i), pattern, owners.get(j), pattern, entry.getKey()));
+                }
+                for (int w = 0; w < wildcards.size(); w++) {
+                    if (wildcardOwners.get(w) != owners.get(i) && wildcards.get(w).matches(entry.getKey())) {
+                        result.add(
+                                new PatternOverlap(
+                                        owners.get(i), pattern, wildcardOwners.get(w), wildcards.get(w),
+                                        entry.getKey()
+                                )
+                        );
                     }
                 }
-        );
+            }
+        }
+
+        for (int i = 0; i < wildcards.size(); i++) {
+            String first = wildcards.get(i).toString();
+            String firstPrefix = first.substring(0, first.indexOf('*'));
+            String firstSuffix = first.substring(first.lastIndexOf('*') + 1);
+
+            for (int j = i + 1; j < wildcards.size(); j++) {
+                if (wildcardOwners.get(i) == wildcardOwners.get(j)) {
+                    continue;
+                }
+
+                String second = wildcards.get(j).toString();
+                String secondPrefix = second.substring(0, second.indexOf('*'));
+                String secondSuffix = second.substring(second.lastIndexOf('*') + 1);
+
+                if (!firstPrefix.startsWith(secondPrefix) && !secondPrefix.startsWith(firstPrefix)) {
+                    continue;
+                }
+                if (!firstSuffix.endsWith(secondSuffix) && !secondSuffix.endsWith(firstSuffix)) {
+                    continue;
+                }
+
+                String example = wildcards.get(i).findCommonMatch(wildcards.get(j));
+                if (example != null) {
+                    result.add(
+                            new PatternOverlap(
+                                    wildcardOwners.get(i), wildcards.get(i), wildcardOwners.get(j), wildcards.get(j),
+                                    example
+                            )
+                    );
+                }
+            }
+        }
+
+        return result;
     }
 }
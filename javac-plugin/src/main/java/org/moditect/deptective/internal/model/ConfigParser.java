@@ -93,10 +93,24 @@ public class ConfigParser {
         ArrayNode whitelisted = (ArrayNode) config.get("whitelisted");
 
         if (whitelisted != null) {
+            List<PackagePattern> patterns = new ArrayList<>();
             Iterator<JsonNode> it = whitelisted.iterator();
             while (it.hasNext()) {
-                PackagePattern pattern = PackagePattern.getPattern(it.next().asText());
-                builder.addWhitelistedPackage(pattern);
+                patterns.add(PackagePattern.getPattern(it.next().asText()));
+            }
+            builder.addWhitelistedPackages(patterns);
+        }
+
+        JsonNode forbiddenTransitive = config.get("forbiddenTransitive");
+
+        if (forbiddenTransitive != null) {
+            if (!forbiddenTransitive.isArray()) {
+                throw new IllegalArgumentException("forbiddenTransitive must be an array of rules");
+            }
+
+            Iterator<JsonNode> it = forbiddenTransitive.iterator();
+            while (it.hasNext()) {
+                parseForbiddenTransitive(it.next(), builder);
             }
         }
 
@@ -115,6 +129,27 @@ public class ConfigParser {
         for (PackagePattern pattern : contains) {
             builder.addContains(name, pattern);
         }
+
+        JsonNode level = component.get("level");
+        if (level != null) {
+            builder.setLevel(name, level.asInt());
+        }
+    }
+
+    private void parseForbiddenTransitive(JsonNode rule, Builder builder) {
+        JsonNode from = rule.get("from");
+        JsonNode to = rule.get("to");
+
+        if (from == null || !from.isTextual() || to == null || !to.isArray()) {
+            throw new IllegalArgumentException(
+                    "Invalid forbiddenTransitive rule " + rule
+                            + ", expected a component name as 'from' and an array of component names as 'to'"
+            );
+        }
+
+        for (String toComponent : parseReads((ArrayNode) to)) {
+            builder.addForbiddenTransitiveDependency(from.asText(), toComponent);
+        }
     }
 
     private List<String> parseReads(ArrayNode arrayNode) {
@@ -15,16 +15,26 @@
  */
 package org.moditect.deptective.internal.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.moditect.deptective.internal.export.ModelSerializer;
 import org.moditect.deptective.internal.graph.Cycle;
+import org.moditect.deptective.internal.graph.GraphUtils;
+import org.moditect.deptective.internal.graph.IntGraph;
+import org.moditect.deptective.internal.graph.StronglyConnectedComponents;
+import org.moditect.deptective.internal.graph.TransitiveClosure;
 
 public class PackageDependencies {
 
@@ -32,6 +42,7 @@ public class PackageDependencies {
 
         private final Map<String, Component.Builder> componentsByName = new HashMap<>();
         private final Set<PackagePattern> whitelisted = new HashSet<>();
+        private final List<ForbiddenTransitiveDependency> forbiddenTransitiveDependencies = new ArrayList<>();
 
         public PackageDependencies build() {
             Set<Component> components = componentsByName.values()
@@ -39,7 +50,7 @@ public class PackageDependencies {
                     .map(Component.Builder::build)
                     .collect(Collectors.toSet());
 
-            return new PackageDependencies(new Components(components), whitelisted);
+            return new PackageDependencies(new Components(components), whitelisted, forbiddenTransitiveDependencies);
         }
 
         public void addContains(String componentName, PackagePattern contained) {
@@ -52,17 +63,53 @@ public class PackageDependencies {
             builder.addRead(readComponent, readKind);
         }
 
+        /**
+         * Assigns each component the level determined from the reads added so far, see
+         * {@link GraphUtils#computeLevels(IntGraph)}.
+         */
+        public void assignLevels() {
+            IntGraph graph = build().toGraph();
+            int[] levels = GraphUtils.computeLevels(graph);
+
+            for (Component.Builder component : componentsByName.values()) {
+                component.setLevel(levels[graph.indexOf(component.getName())]);
+            }
+        }
+
+        public void setLevel(String componentName, int level) {
+            componentsByName.computeIfAbsent(componentName, n -> Component.builder(n)).setLevel(level);
+        }
+
+        public void addForbiddenTransitiveDependency(String from, String to) {
+            forbiddenTransitiveDependencies.add(new ForbiddenTransitiveDependency(from, to));
+        }
+
         public void addWhitelistedPackage(PackagePattern pattern) {
-            if (pattern == null || pattern.toString().isEmpty()) {
+            addWhitelistedPackages(Collections.singleton(pattern));
+        }
+
+        /**
+         * Adds the given whitelist patterns and removes any explicit reads of matching packages. All patterns are
+         * compiled into one {@link PackagePatternIndex}, so the reads of all components are pruned in a single pass.
+         */
+        public void addWhitelistedPackages(Collection<PackagePattern> patterns) {
+            List<PackagePattern> added = new ArrayList<>(patterns.size());
+
+            for (PackagePattern pattern : patterns) {
+                if (pattern != null && !pattern.toString().isEmpty()) {
+                    added.add(pattern);
+                }
+            }
+
+            if (added.isEmpty()) {
                 return;
             }
 
-            this.whitelisted.add(pattern);
+            this.whitelisted.addAll(added);
 
+            PackagePatternIndex index = new PackagePatternIndex(added);
             for (Component.Builder component : componentsByName.values()) {
-                component.getReads()
-                        .entrySet()
-                        .removeIf(r -> pattern.matches(r.getKey()));
+                component.removeReads(index::matches);
             }
         }
 
@@ -80,9 +127,7 @@ public class PackageDependencies {
                     }
 
                     for (IdentifiableComponent otherNodeInCycle : cycle.getNodes()) {
-                        if (builder.getReads().containsKey(otherNodeInCycle.getName())) {
-                            builder.addRead(otherNodeInCycle.getName(), ReadKind.CYCLE);
-                        }
+                        builder.updateReadKind(otherNodeInCycle.getName(), ReadKind.CYCLE);
                     }
                 }
             }
@@ -91,10 +136,23 @@ public class PackageDependencies {
 
     private final Components components;
     private final Set<PackagePattern> whitelisted;
+    private final PackagePatternIndex whitelistIndex;
+    private final List<ForbiddenTransitiveDependency> forbiddenTransitiveDependencies;
 
-    private PackageDependencies(Components components, Set<PackagePattern> whitelisted) {
+    /**
+     * The graph of the components and their strongly connected components, determined upon first access.
+     */
+    private IntGraph graph;
+    private StronglyConnectedComponents stronglyConnectedComponents;
+
+    private PackageDependencies(Components components, Set<PackagePattern> whitelisted,
+            List<ForbiddenTransitiveDependency> forbiddenTransitiveDependencies) {
         this.components = components;
         this.whitelisted = Collections.unmodifiableSet(whitelisted);
+        this.whitelistIndex = new PackagePatternIndex(whitelisted);
+        this.forbiddenTransitiveDependencies = Collections.unmodifiableList(
+                new ArrayList<>(forbiddenTransitiveDependencies)
+        );
     }
 
     public static Builder builder() {
@@ -111,6 +169,13 @@ public class PackageDependencies {
         return components.getComponentByPackage(qualifiedName);
     }
 
+    /**
+     * Returns all pairs of {@code contains} patterns of different components which match at least one common package.
+     */
+    public List<PatternOverlap> getOverlappingPatterns() {
+        return components.getOverlaps();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("components {");
@@ -148,11 +213,124 @@ public class PackageDependencies {
                 .forEach(serializer::addWhitelistedPackagePattern);
     }
 
+    /**
+     * Whether a reference from the given package to the given other package is exempt from validation, i.e. it is a
+     * reference within the same package, to {@code java.lang} or to a whitelisted package.
+     */
+    public boolean isIgnoredReference(String packageName, String referencedPackageName) {
+        return "java.lang".equals(referencedPackageName) ||
+                isWhitelisted(referencedPackageName) ||
+                packageName.equals(referencedPackageName) ||
+                referencedPackageName.isEmpty();
+    }
+
+    /**
+     * Returns the component containing the given referenced package or, if there is no such component, an ad-hoc
+     * component representing just that package.
+     *
+     * @throws PackageAssignedToMultipleComponentsException In case more than one component was found whose filter
+     *         expressions match the given package.
+     */
+    public Component getReferencedComponent(String referencedPackageName)
+            throws PackageAssignedToMultipleComponentsException {
+        Component referencedComponent = getComponentByPackage(referencedPackageName);
+        return referencedComponent != null ? referencedComponent : Component.builder(referencedPackageName).build();
+    }
+
+    /**
+     * Returns the kind of a reference from the given component to the given referenced component.
+     *
+     * @param component The referencing component or {@code null} if the referencing package isn't configured
+     */
+    public static ReadKind getReadKind(Component component, Component referencedComponent) {
+        if (component == null) {
+            return ReadKind.UKNOWN;
+        }
+
+        return component.allowedToRead(referencedComponent) ? ReadKind.ALLOWED : ReadKind.DISALLOWED;
+    }
+
     public boolean isWhitelisted(String packageName) {
-        return whitelisted.stream()
-                .filter(w -> w.matches(packageName))
-                .findFirst()
-                .isPresent();
+        return whitelistIndex.matches(packageName);
+    }
+
+    /**
+     * Returns the pairs of components which must not depend on each other, not even transitively.
+     */
+    public List<ForbiddenTransitiveDependency> getForbiddenTransitiveDependencies() {
+        return forbiddenTransitiveDependencies;
+    }
+
+    /**
+     * Returns the forbidden transitive dependencies of this model which exist in the given actual relationships, each
+     * with one (shortest) chain of components establishing it, in the order of the rules.
+     */
+    public Map<ForbiddenTransitiveDependency, List<String>> getViolatedForbiddenTransitiveDependencies(
+            PackageDependencies actualPackageDependencies) {
+        Map<ForbiddenTransitiveDependency, List<String>> violated = new LinkedHashMap<>();
+
+        if (forbiddenTransitiveDependencies.isEmpty()) {
+            return violated;
+        }
+
+        IntGraph actualGraph = actualPackageDependencies.toGraph();
+        TransitiveClosure closure = GraphUtils.computeTransitiveClosure(actualGraph);
+
+        for (ForbiddenTransitiveDependency rule : forbiddenTransitiveDependencies) {
+            int from = actualGraph.indexOf(rule.getFrom());
+            int to = actualGraph.indexOf(rule.getTo());
+
+            if (from != -1 && to != -1 && closure.reaches(from, to)) {
+                violated.put(
+                        rule,
+                        Arrays.stream(closure.getPath(from, to))
+                                .mapToObj(actualGraph::getName)
+                                .collect(Collectors.toList())
+                );
+            }
+        }
+
+        return violated;
+    }
+
+    /**
+     * Returns the relationships of this model as graph. Nodes are the components and all components read by them
+     * (such as unconfigured packages), with ids assigned in alphabetical order; edges are weighted by the number of
+     * references.
+     */
+    public IntGraph toGraph() {
+        SortedSet<String> names = new TreeSet<>();
+        for (Component component : components) {
+            names.add(component.getName());
+            names.addAll(component.getReads().keySet());
+        }
+
+        IntGraph.Builder builder = IntGraph.builder();
+        names.forEach(builder::addNode);
+
+        for (Component component : components) {
+            for (String read : component.getReads().keySet()) {
+                builder.addEdge(component.getName(), read, component.getReadWeight(read));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Whether the given components are members of one cycle, i.e. they read each other directly or transitively.
+     */
+    public boolean isCycle(Component component, Component otherComponent) {
+        if (stronglyConnectedComponents == null) {
+            graph = toGraph();
+            stronglyConnectedComponents = GraphUtils.detectStronglyConnectedComponents(graph);
+        }
+
+        int node = graph.indexOf(component.getName());
+        int otherNode = graph.indexOf(otherComponent.getName());
+
+        return node != -1 && otherNode != -1 &&
+                stronglyConnectedComponents.getComponent(node) == stronglyConnectedComponents.getComponent(otherNode);
     }
 
     public Iterable<Component> getComponents() {
@@ -15,7 +15,10 @@
  */
 package org.moditect.deptective.internal.model;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * An expression matching one or more whitelisted Java packages, i.e. packages that other packages are always allowed to
@@ -29,11 +32,11 @@ public class PackagePattern implements Comparable<PackagePattern> {
     public static final PackagePattern ALL_EXTERNAL = new PackagePattern(ALL_EXTERNAL_PATTERN);
 
     private final String pattern;
-    private final Pattern regex;
+    private final Predicate<String> matcher;
 
     private PackagePattern(String pattern) {
         this.pattern = pattern;
-        this.regex = Pattern.compile(pattern.replace("*", ".*"));
+        this.matcher = toMatcher(pattern);
     }
 
     public static PackagePattern getPattern(String pattern) {
@@ -45,8 +48,194 @@ public class PackagePattern implements Comparable<PackagePattern> {
         }
     }
 
+    /**
+     * Translates the given pattern into a matcher; {@code *} matches any sequence of characters, all other characters
+     * (in particular {@code .}) match themselves. The common shapes of patterns are matched by means of a single
+     * string comparison, others by searching for their literal parts one after another, so matching never allocates.
+     */
+    private static Predicate<String> toMatcher(String pattern) {
+        int firstWildcard = pattern.indexOf('*');
+
+        // e.g. "com.example"
+        if (firstWildcard == -1) {
+            return pattern::equals;
+        }
+
+        int lastWildcard = pattern.lastIndexOf('*');
+
+        if (firstWildcard == lastWildcard) {
+            String prefix = pattern.substring(0, firstWildcard);
+            String suffix = pattern.substring(firstWildcard + 1);
+
+            // e.g. "com.example.*"
+            if (suffix.isEmpty()) {
+                return name -> name.startsWith(prefix);
+            }
+            // e.g. "*.internal"
+            else if (prefix.isEmpty()) {
+                return name -> name.endsWith(suffix);
+            }
+            // e.g. "com.*.internal"
+            else {
+                int minLength = prefix.length() + suffix.length();
+                return name -> name.length() >= minLength && name.startsWith(prefix) && name.endsWith(suffix);
+            }
+        }
+
+        // e.g. "com.*.internal.*"
+        return new SegmentMatcher(pattern);
+    }
+
     public boolean matches(String packageName) {
-        return regex.matcher(packageName).matches();
+        return matcher.test(packageName);
+    }
+
+    /**
+     * Returns the shortest package name matched by both this and the given pattern or {@code null} if there is no
+     * such name, i.e. the patterns don't overlap.
+     * <p>
+     * Both patterns are considered as automata with one state per character, where a {@code *} state may either
+     * consume a character or be left without consuming one; the product automaton is searched for a path to the
+     * final state, with the moves consuming a character having a cost of one, so the shortest common name is found.
+     * This takes O(n*m) for patterns of length n and m.
+     */
+    public String findCommonMatch(PackagePattern other) {
+        String p1 = pattern;
+        String p2 = other.pattern;
+        int width = p2.length() + 1;
+        int states = (p1.length() + 1) * width;
+
+        int[] cost = new int[states];
+        int[] previous = new int[states];
+        char[] consumed = new char[states];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+
+        // 0-1 BFS: moves not consuming a character are added to the front of the queue
+        int[] deque = new int[2 * states + 1];
+        int head = states;
+        int tail = states;
+        deque[tail++] = 0;
+        cost[0] = 0;
+        previous[0] = -1;
+
+        while (head < tail) {
+            int state = deque[head++];
+            int i = state / width;
+            int j = state % width;
+
+            if (i == p1.length() && j == p2.length()) {
+                StringBuilder match = new StringBuilder();
+                for (int s = state; s != -1; s = previous[s]) {
+                    if (consumed[s] != 0) {
+                        match.append(consumed[s]);
+                    }
+                }
+                return match.reverse().toString();
+            }
+
+            boolean star1 = i < p1.length() && p1.charAt(i) == '*';
+            boolean star2 = j < p2.length() && p2.charAt(j) == '*';
+
+            // leaving a wildcard
+            if (star1) {
+                int next = state + width;
+                if (cost[state] < cost[next]) {
+                    cost[next] = cost[state];
+                    previous[next] = state;
+                    consumed[next] = 0;
+                    deque[--head] = next;
+                }
+            }
+            if (star2) {
+                int next = state + 1;
+                if (cost[state] < cost[next]) {
+                    cost[next] = cost[state];
+                    previous[next] = state;
+                    consumed[next] = 0;
+                    deque[--head] = next;
+                }
+            }
+
+            // consuming a character; two wildcards consuming the same character doesn't lead to a new state
+            int next = -1;
+            char c = 0;
+            if (star1 && j < p2.length() && !star2) {
+                next = state + 1;
+                c = p2.charAt(j);
+            }
+            else if (star2 && i < p1.length() && !star1) {
+                next = state + width;
+                c = p1.charAt(i);
+            }
+            else if (!star1 && !star2 && i < p1.length() && j < p2.length() && p1.charAt(i) == p2.charAt(j)) {
+                next = state + width + 1;
+                c = p1.charAt(i);
+            }
+
+            if (next != -1 && cost[state] + 1 < cost[next]) {
+                cost[next] = cost[state] + 1;
+                previous[next] = state;
+                consumed[next] = c;
+                deque[tail++] = next;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Matches patterns with multiple wildcards: the literal part before the first wildcard must be a prefix, the part
+     * after the last wildcard must be a suffix and the parts in between must occur in order in between. Searching for
+     * each part at its leftmost possible position is sufficient, as any later occurrence would only leave less room
+     * for the remaining parts.
+     */
+    private static class SegmentMatcher implements Predicate<String> {
+
+        private final String prefix;
+        private final String[] infixes;
+        private final String suffix;
+        private final int minLength;
+
+        SegmentMatcher(String pattern) {
+            String[] parts = pattern.split("\\*", -1);
+
+            prefix = parts[0];
+            suffix = parts[parts.length - 1];
+
+            List<String> nonEmptyInfixes = new ArrayList<>();
+            for (int i = 1; i < parts.length - 1; i++) {
+                if (!parts[i].isEmpty()) {
+                    nonEmptyInfixes.add(parts[i]);
+                }
+            }
+            infixes = nonEmptyInfixes.toArray(new String[0]);
+
+            int length = prefix.length() + suffix.length();
+            for (String infix : infixes) {
+                length += infix.length();
+            }
+            minLength = length;
+        }
+
+        @Override
+        public boolean test(String name) {
+            if (name.length() < minLength || !name.startsWith(prefix) || !name.endsWith(suffix)) {
+                return false;
+            }
+
+            int position = prefix.length();
+            int end = name.length() - suffix.length();
+
+            for (String infix : infixes) {
+                int found = name.indexOf(infix, position);
+                if (found == -1 || found + infix.length() > end) {
+                    return false;
+                }
+                position = found + infix.length();
+            }
+
+            return true;
+        }
     }
 
     @Override
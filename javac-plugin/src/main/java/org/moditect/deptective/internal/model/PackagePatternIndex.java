@@ -0,0 +1,121 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches package names against a set of {@link PackagePattern}s at once. Patterns without wildcard (e.g.
+ * {@code com.example}) and patterns with a single trailing wildcard (e.g. {@code com.example.*}) are indexed in hash
+ * sets, so matching a name against any number of them costs one lookup per name segment. Only other patterns (e.g.
+ * {@code *.internal}) are evaluated one by one.
+ */
+public class PackagePatternIndex {
+
+    private final Map<String, PackagePattern> exact;
+    private final Map<String, PackagePattern> prefixes;
+    private final List<PackagePattern> others;
+
+    public PackagePatternIndex(Collection<PackagePattern> patterns) {
+        exact = new HashMap<>();
+        prefixes = new HashMap<>();
+        others = new ArrayList<>();
+
+        for (PackagePattern pattern : patterns) {
+            String expression = pattern.toString();
+            int firstWildcard = expression.indexOf('*');
+
+            if (firstWildcard == -1) {
+                exact.put(expression, pattern);
+            }
+            else if (firstWildcard == expression.length() - 1 && expression.endsWith(".*") && firstWildcard > 1) {
+                prefixes.put(expression.substring(0, expression.length() - 2), pattern);
+            }
+            else {
+                others.add(pattern);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return exact.isEmpty() && prefixes.isEmpty() && others.isEmpty();
+    }
+
+    public boolean matches(String packageName) {
+        if (exact.containsKey(packageName)) {
+            return true;
+        }
+
+        if (!prefixes.isEmpty()) {
+            // "com.example.*" matches "com.example.foo" but not "com.example" itself
+            for (int dot = packageName.indexOf('.'); dot != -1 && dot < packageName.length() - 1; dot = packageName
+                    .indexOf('.', dot + 1)) {
+                if (prefixes.containsKey(packageName.substring(0, dot))) {
+                    return true;
+                }
+            }
+        }
+
+        for (PackagePattern other : others) {
+            if (other.matches(packageName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns all patterns matching the given package name.
+     */
+    public List<PackagePattern> getMatches(String packageName) {
+        List<PackagePattern> matches = null;
+
+        PackagePattern exactMatch = exact.get(packageName);
+        if (exactMatch != null) {
+            matches = add(matches, exactMatch);
+        }
+
+        if (!prefixes.isEmpty()) {
+            for (int dot = packageName.indexOf('.'); dot != -1 && dot < packageName.length() - 1; dot = packageName
+                    .indexOf('.', dot + 1)) {
+                PackagePattern prefixMatch = prefixes.get(packageName.substring(0, dot));
+                if (prefixMatch != null) {
+                    matches = add(matches, prefixMatch);
+                }
+            }
+        }
+
+        for (PackagePattern other : others) {
+            if (other.matches(packageName)) {
+                matches = add(matches, other);
+            }
+        }
+
+        return matches != null ? matches : Collections.emptyList();
+    }
+
+    private static List<PackagePattern> add(List<PackagePattern> matches, PackagePattern match) {
+        List<PackagePattern> result = matches != null ? matches : new ArrayList<>();
+        result.add(match);
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+/**
+ * Two {@code contains} patterns of different components which both match at least one package name, so any such
+ * package would be ambiguously assigned.
+ */
+public class PatternOverlap {
+
+    private final Component first;
+    private final PackagePattern firstPattern;
+    private final Component second;
+    private final PackagePattern secondPattern;
+    private final String example;
+
+    public PatternOverlap(Component first, PackagePattern firstPattern, Component second,
+            PackagePattern secondPattern, String example) {
+        this.first = first;
+        this.firstPattern = firstPattern;
+        this.second = second;
+        this.secondPattern = secondPattern;
+        this.example = example;
+    }
+
+    public Component getFirst() {
+        return first;
+    }
+
+    public PackagePattern getFirstPattern() {
+        return firstPattern;
+    }
+
+    public Component getSecond() {
+        return second;
+    }
+
+    public PackagePattern getSecondPattern() {
+        return secondPattern;
+    }
+
+    /**
+     * Returns the shortest package name matched by both patterns.
+     */
+    public String getExample() {
+        return example;
+    }
+
+    @Override
+    public String toString() {
+        return first.getName() + " (" + firstPattern + ") / " + second.getName() + " (" + secondPattern + ")";
+    }
+}
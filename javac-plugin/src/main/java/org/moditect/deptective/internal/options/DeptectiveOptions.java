@@ -17,8 +17,10 @@ package org.moditect.deptective.internal.options;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +50,22 @@ public class DeptectiveOptions {
         CYCLE_REPORTING_POLICY("cycle_reporting_policy"),
         UNCONFIGURED_PACKAGE_REPORTING_POLICY("unconfigured_package_reporting_policy"),
         REPORTING_POLICY("reporting_policy"),
-        CONFIG_FILE("config_file");
+        CONFIG_FILE("config_file"),
+        GRANULARITY("granularity"),
+        DSM("dsm"),
+        MAX_CYCLES("max_cycles"),
+        MAX_CYCLE_LENGTH("max_cycle_length"),
+        FAIL_FAST("fail_fast"),
+        METRICS("metrics"),
+        MAX_REPORTS_PER_EDGE("max_reports_per_edge"),
+        MAX_REPORTS_PER_FILE("max_reports_per_file"),
+        BASELINE_FILE("baseline_file"),
+        UPDATE_BASELINE("update_baseline"),
+        COMPARE_TO("compare_to"),
+        REVERSE_INDEX("reverse_index"),
+        ROLLUPS("rollups"),
+        SUGGEST_COMPONENTS("suggest_components"),
+        OUTPUT_TIMEOUT("output_timeout");
 
         private final String name;
 
@@ -65,6 +82,11 @@ public class DeptectiveOptions {
         }
     }
 
+    /**
+     * The roll-up by the declared components, as opposed to a roll-up by package depth.
+     */
+    public static final String ROLLUP_BY_COMPONENTS = "components";
+
     private final Map<String, String> options;
 
     public DeptectiveOptions(String... args) {
@@ -91,6 +113,44 @@ public class DeptectiveOptions {
         }
     }
 
+    /**
+     * Returns the path of the file with known violations not to be reported, if given.
+     */
+    public Optional<Path> getBaselineFilePath() {
+        String path = Options.BASELINE_FILE.getFrom(options);
+
+        if (path != null) {
+            return Optional.of(new File(path).toPath());
+        }
+        else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the path of a previously generated {@code deptective.json} file to compare the generated one with, if
+     * given.
+     */
+    public Optional<Path> getCompareToPath() {
+        String path = Options.COMPARE_TO.getFrom(options);
+
+        if (path != null) {
+            return Optional.of(new File(path).toPath());
+        }
+        else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether to rewrite the baseline file with the violations of the current compilation instead of reporting them.
+     */
+    public boolean isUpdateBaseline() {
+        String updateBaseline = Options.UPDATE_BASELINE.getFrom(options);
+
+        return updateBaseline != null && Boolean.parseBoolean(updateBaseline.trim());
+    }
+
     /**
      * Returns the policy for reporting illegal package references.
      */
@@ -147,10 +207,208 @@ public class DeptectiveOptions {
         }
     }
 
-    public boolean createDotFile() {
+    /**
+     * Returns the level of detail at which dependencies should be recorded.
+     */
+    public Granularity getGranularity() {
+        String granularity = Options.GRANULARITY.getFrom(options);
+
+        if (granularity != null) {
+            return Granularity.valueOf(granularity.trim().toUpperCase());
+        }
+        else {
+            return Granularity.PACKAGE;
+        }
+    }
+
+    /**
+     * Returns the kind of DOT file to be created; {@code true} and {@code false} are accepted as aliases for
+     * {@link Visualization#FULL} and {@link Visualization#NONE}, respectively. Any other value is invalid and treated
+     * as {@link Visualization#NONE}, as with earlier versions only accepting {@code true} and {@code false}.
+     */
+    public Visualization getVisualization() {
         String visualize = Options.VISUALIZE.getFrom(options);
 
-        return visualize != null && Boolean.parseBoolean(visualize.trim());
+        if (visualize == null) {
+            return Visualization.NONE;
+        }
+
+        Visualization visualization = parseVisualization(visualize);
+        return visualization != null ? visualization : Visualization.NONE;
+    }
+
+    /**
+     * Returns the visualization denoted by the given option value or {@code null} if the value is invalid.
+     */
+    private static Visualization parseVisualization(String visualize) {
+        String value = visualize.trim();
+
+        if (value.equalsIgnoreCase("false")) {
+            return Visualization.NONE;
+        }
+        else if (value.equalsIgnoreCase("true")) {
+            return Visualization.FULL;
+        }
+
+        for (Visualization visualization : Visualization.values()) {
+            if (visualization.name().equalsIgnoreCase(value)) {
+                return visualization;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the given options with an invalid value, mapped to that value. The getters of these options return
+     * their default value instead.
+     */
+    public Map<Options, String> getInvalidOptions() {
+        Map<Options, String> invalidOptions = new EnumMap<>(Options.class);
+
+        String visualize = Options.VISUALIZE.getFrom(options);
+        if (visualize != null && parseVisualization(visualize) == null) {
+            invalidOptions.put(Options.VISUALIZE, visualize);
+        }
+
+        putIfInvalid(invalidOptions, Options.MAX_CYCLES, 0);
+        putIfInvalid(invalidOptions, Options.MAX_CYCLE_LENGTH, 1);
+        putIfInvalid(invalidOptions, Options.MAX_REPORTS_PER_EDGE, 0);
+        putIfInvalid(invalidOptions, Options.MAX_REPORTS_PER_FILE, 0);
+        putIfInvalid(invalidOptions, Options.OUTPUT_TIMEOUT, 1);
+
+        return invalidOptions;
+    }
+
+    private void putIfInvalid(Map<Options, String> invalidOptions, Options option, int minimum) {
+        String value = option.getFrom(options);
+        if (value != null && parseInt(value, minimum) == null) {
+            invalidOptions.put(option, value);
+        }
+    }
+
+    /**
+     * Returns the maximum number of elementary cycles to be enumerated in {@code ANALYZE} mode; 0 (the default) if
+     * no cycles should be enumerated.
+     */
+    public int getMaxCycles() {
+        return getInt(Options.MAX_CYCLES, 0, 0);
+    }
+
+    /**
+     * Returns the maximum number of components of enumerated elementary cycles, 10 by default.
+     */
+    public int getMaxCycleLength() {
+        return getInt(Options.MAX_CYCLE_LENGTH, 1, 10);
+    }
+
+    /**
+     * Returns the maximum number of reported occurrences of one illegal reference (i.e. between a given component and
+     * referenced package) per compilation unit, 0 (no limit) by default.
+     */
+    public int getMaxReportsPerEdge() {
+        return getInt(Options.MAX_REPORTS_PER_EDGE, 0, 0);
+    }
+
+    /**
+     * Returns the maximum number of reported illegal references per compilation unit, 0 (no limit) by default.
+     */
+    public int getMaxReportsPerFile() {
+        return getInt(Options.MAX_REPORTS_PER_FILE, 0, 0);
+    }
+
+    /**
+     * Returns the number of seconds to wait for the creation of output files and the final checks, which run in the
+     * background while the compiler generates the class files, 300 by default.
+     */
+    public int getOutputTimeout() {
+        return getInt(Options.OUTPUT_TIMEOUT, 1, 300);
+    }
+
+    /**
+     * Returns the value of the given integer option or the given default value if the option isn't set or its value
+     * is invalid, i.e. not a number or less than the given minimum.
+     */
+    private int getInt(Options option, int minimum, int defaultValue) {
+        String value = option.getFrom(options);
+        Integer parsed = value != null ? parseInt(value, minimum) : null;
+
+        return parsed != null ? parsed : defaultValue;
+    }
+
+    private static Integer parseInt(String value, int minimum) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed >= minimum ? parsed : null;
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean createDsmFile() {
+        String dsm = Options.DSM.getFrom(options);
+
+        return dsm != null && Boolean.parseBoolean(dsm.trim());
+    }
+
+    public boolean createReverseIndex() {
+        String reverseIndex = Options.REVERSE_INDEX.getFrom(options);
+
+        return reverseIndex != null && Boolean.parseBoolean(reverseIndex.trim());
+    }
+
+    /**
+     * Returns the requested roll-ups of the package dependencies, each given either as a package depth (the number
+     * of leading segments of the package names to be retained) or as {@link #ROLLUP_BY_COMPONENTS}; empty by
+     * default.
+     */
+    public List<String> getRollUps() {
+        String rollUps = Options.ROLLUPS.getFrom(options);
+
+        if (rollUps == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String rollUp : rollUps.split(",")) {
+            rollUp = rollUp.trim().toLowerCase();
+
+            if (!rollUp.equals(ROLLUP_BY_COMPONENTS) && (!rollUp.matches("[0-9]+") || Integer.parseInt(rollUp) < 1)) {
+                throw new IllegalArgumentException(
+                        "Unsupported roll-up: " + rollUp + "; expected a package depth or '" + ROLLUP_BY_COMPONENTS
+                                + "'"
+                );
+            }
+
+            result.add(rollUp);
+        }
+
+        return result;
+    }
+
+    /**
+     * Whether to propose a grouping of the packages of the code base into components in {@code ANALYZE} mode.
+     */
+    public boolean suggestComponents() {
+        String suggestComponents = Options.SUGGEST_COMPONENTS.getFrom(options);
+
+        return suggestComponents != null && Boolean.parseBoolean(suggestComponents.trim());
+    }
+
+    public boolean createMetricsFile() {
+        String metrics = Options.METRICS.getFrom(options);
+
+        return metrics != null && Boolean.parseBoolean(metrics.trim());
+    }
+
+    /**
+     * Whether to stop analysing the code base as soon as the first cycle has been reported as error.
+     */
+    public boolean isFailFast() {
+        String failFast = Options.FAIL_FAST.getFrom(options);
+
+        return failFast != null && Boolean.parseBoolean(failFast.trim());
     }
 
     public List<PackagePattern> getWhitelistedPackagePatterns() {
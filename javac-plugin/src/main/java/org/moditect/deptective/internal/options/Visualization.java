@@ -0,0 +1,42 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.options;
+
+/**
+ * The kind of GraphViz (DOT) file to be created, if any.
+ */
+public enum Visualization {
+
+    /**
+     * No DOT file is created.
+     */
+    NONE,
+
+    /**
+     * All components and the relationships amongst them are rendered.
+     */
+    FULL,
+
+    /**
+     * The components of each cycle are collapsed into one node, so the rendered graph is acyclic.
+     */
+    CONDENSED,
+
+    /**
+     * As {@link #CONDENSED}, but relationships implied by other paths (transitive reduction) are omitted.
+     */
+    REDUCED;
+}
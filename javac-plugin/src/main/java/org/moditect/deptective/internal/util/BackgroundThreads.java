@@ -0,0 +1,45 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The threads running work in the background while the compiler proceeds; shared by all variants of
+ * {@link Platform}.
+ */
+public class BackgroundThreads {
+
+    /**
+     * The name of all background threads.
+     */
+    public static final String NAME = "deptective-background";
+
+    private BackgroundThreads() {
+    }
+
+    /**
+     * Returns an executor running all tasks in one platform thread, which doesn't prevent the JVM from exiting.
+     */
+    public static ExecutorService newDaemonExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map with primitive {@code long} keys and {@code int} values. Used for storing edges keyed
+ * by {@code (from << 32 | to)} without boxing each entry.
+ */
+public class LongIntHashMap {
+
+    /**
+     * Receives the entries of a {@link LongIntHashMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long key, int value);
+    }
+
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    public static int high(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int low(long key) {
+        return (int) key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+
+        return keys[slotOf(key)] == key;
+    }
+
+    /**
+     * Returns the value associated with the given key or {@code defaultValue} if there is no such key.
+     */
+    public int get(long key, int defaultValue) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+
+        int slot = slotOf(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return;
+        }
+
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Adds the given delta to the value associated with the given key, inserting the key with a value of
+     * {@code delta} if not present yet.
+     *
+     * @return the new value associated with the key
+     */
+    public int addTo(long key, int delta) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+                freeKeyValue = 0;
+            }
+            freeKeyValue += delta;
+            return freeKeyValue;
+        }
+
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return values[slot];
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+
+        return delta;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasFreeKey) {
+            consumer.accept(FREE, freeKeyValue);
+        }
+
+        long[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns all keys of this map in ascending order.
+     */
+    public long[] sortedKeys() {
+        long[] result = new long[size];
+        int i = 0;
+
+        if (hasFreeKey) {
+            result[i++] = FREE;
+        }
+
+        for (long key : keys) {
+            if (key != FREE) {
+                result[i++] = key;
+            }
+        }
+
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slotOf(long key) {
+        int slot = (int) mix(key) & mask;
+
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * The finalization step of MurmurHash3, spreading the bits of sequential keys across the table.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
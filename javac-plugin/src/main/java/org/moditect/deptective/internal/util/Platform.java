@@ -0,0 +1,67 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.util;
+
+import java.util.concurrent.ExecutorService;
+
+import com.sun.source.util.TaskEvent;
+
+/**
+ * Access to features of the JDK running the compiler which are not available on all supported JDK versions. This
+ * implementation works on JDK 8 and later; when built as multi-release JAR, the plug-in JAR contains a variant for
+ * JDK 21 and later in {@code META-INF/versions/21}, using the respective APIs directly.
+ */
+public class Platform {
+
+    private static final boolean HAS_COMPILATION_EVENT = hasKindCompilation();
+
+    private Platform() {
+    }
+
+    /**
+     * Whether the compiler emits an event when completing the compilation. {@link TaskEvent.Kind} doesn't have
+     * {@code COMPILATION} on JDK 8, in which case the completion of the compilation must be derived from the number
+     * of analyzed source files.
+     */
+    public static boolean hasCompilationEvent() {
+        return HAS_COMPILATION_EVENT;
+    }
+
+    /**
+     * Whether the given event kind denotes the completion of the compilation.
+     */
+    public static boolean isCompilationEvent(TaskEvent.Kind kind) {
+        return kind.name().equals("COMPILATION");
+    }
+
+    /**
+     * Returns an executor for running work in the background while the compiler proceeds. Its threads don't prevent
+     * the JVM from exiting.
+     */
+    public static ExecutorService newBackgroundExecutor() {
+        return BackgroundThreads.newDaemonExecutor();
+    }
+
+    private static boolean hasKindCompilation() {
+        for (TaskEvent.Kind kind : TaskEvent.Kind.values()) {
+            if (kind.name().equals("COMPILATION")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
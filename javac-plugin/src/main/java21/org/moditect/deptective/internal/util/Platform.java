@@ -0,0 +1,52 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.source.util.TaskEvent;
+
+/**
+ * Access to features of the JDK running the compiler; variant for JDK 21 and later.
+ */
+public class Platform {
+
+    private Platform() {
+    }
+
+    /**
+     * Whether the compiler emits an event when completing the compilation, which is always the case as of JDK 9.
+     */
+    public static boolean hasCompilationEvent() {
+        return true;
+    }
+
+    /**
+     * Whether the given event kind denotes the completion of the compilation.
+     */
+    public static boolean isCompilationEvent(TaskEvent.Kind kind) {
+        return kind == TaskEvent.Kind.COMPILATION;
+    }
+
+    /**
+     * Returns an executor for running work in the background while the compiler proceeds, using a virtual thread
+     * per task.
+     */
+    public static ExecutorService newBackgroundExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(BackgroundThreads.NAME).factory());
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.moditect.deptective.plugintest.levels.LevelTest;
+import org.moditect.deptective.plugintest.transitive.ForbiddenTransitiveDependencyTest;
+
+public class CheckBytecodeTest {
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private PrintStream originalErr;
+
+    @Before
+    public void captureErr() throws Exception {
+        originalErr = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8.name()));
+    }
+
+    @After
+    public void restoreErr() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    public void shouldReportReadsOfComponentsOnSameOrHigherLevel() throws Exception {
+        int status = CheckBytecode.check("--config", configFile(LevelTest.class), classesDir(LevelTest.class));
+
+        assertThat(status).isEqualTo(1);
+        assertThat(err.toString(StandardCharsets.UTF_8.name())).contains(
+                "org.moditect.deptective.plugintest.levels.persistence.Repository: error: package persistence on " +
+                        "level 0 must not access org.moditect.deptective.plugintest.levels.model on level 0"
+        );
+    }
+
+    @Test
+    public void shouldReportForbiddenTransitiveDependencies() throws Exception {
+        int status = CheckBytecode.check(
+                "--config", configFile(ForbiddenTransitiveDependencyTest.class),
+                "--reporting-policy", "WARN",
+                classesDir(ForbiddenTransitiveDependencyTest.class)
+        );
+
+        assertThat(status).isEqualTo(0);
+        assertThat(err.toString(StandardCharsets.UTF_8.name()))
+                .contains(
+                        "warning: component ui must not depend on persistence, not even transitively: ui -> service "
+                                + "-> persistence"
+                )
+                .contains("warning: component service must not depend on model, not even transitively: service -> model");
+    }
+
+    private static String configFile(Class<?> testClass) throws Exception {
+        return Paths.get(testClass.getResource("deptective.json").toURI()).toString();
+    }
+
+    private static String classesDir(Class<?> testClass) throws Exception {
+        Path classes = Paths.get(testClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return classes.resolve(testClass.getPackage().getName().replace('.', '/')).toString();
+    }
+}
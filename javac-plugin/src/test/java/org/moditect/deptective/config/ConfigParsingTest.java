@@ -16,11 +16,13 @@
 package org.moditect.deptective.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.moditect.deptective.internal.util.Strings.lines;
 
 import org.junit.Test;
 import org.moditect.deptective.internal.model.Component;
 import org.moditect.deptective.internal.model.ConfigParser;
+import org.moditect.deptective.internal.model.ForbiddenTransitiveDependency;
 import org.moditect.deptective.internal.model.PackageDependencies;
 
 public class ConfigParsingTest {
@@ -80,6 +82,49 @@ public class ConfigParsingTest {
         assertThat(dependencies.isWhitelisted("java.io")).isFalse();
     }
 
+    @Test
+    public void shouldLoadForbiddenTransitiveDependencies() throws Exception {
+        PackageDependencies dependencies = new ConfigParser(
+                lines(
+                        "{",
+                        "    \"forbiddenTransitive\" : [",
+                        "        {",
+                        "            \"from\" : \"ui\",",
+                        "            \"to\" : [ \"persistence\", \"model\" ]",
+                        "        }",
+                        "    ]",
+                        "}"
+                )
+        ).getPackageDependencies();
+
+        assertThat(dependencies.getForbiddenTransitiveDependencies())
+                .extracting(ForbiddenTransitiveDependency::toString)
+                .containsExactly("ui -/-> persistence", "ui -/-> model");
+    }
+
+    @Test
+    public void shouldRejectInvalidForbiddenTransitiveDependencies() throws Exception {
+        assertThatThrownBy(() -> parseForbiddenTransitive("{ \"to\" : [ \"persistence\" ] }"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid forbiddenTransitive rule");
+
+        assertThatThrownBy(() -> parseForbiddenTransitive("{ \"from\" : \"ui\" }"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid forbiddenTransitive rule");
+
+        assertThatThrownBy(() -> parseForbiddenTransitive("{ \"from\" : \"ui\", \"to\" : \"persistence\" }"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid forbiddenTransitive rule");
+
+        assertThatThrownBy(() -> new ConfigParser("{ \"forbiddenTransitive\" : { \"from\" : \"ui\" } }"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("forbiddenTransitive must be an array of rules");
+    }
+
+    private PackageDependencies parseForbiddenTransitive(String rule) {
+        return new ConfigParser("{ \"forbiddenTransitive\" : [ " + rule + " ] }").getPackageDependencies();
+    }
+
     private Component component(String name) {
         return Component.builder(name).build();
     }
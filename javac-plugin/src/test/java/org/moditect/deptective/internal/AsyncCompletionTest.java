@@ -0,0 +1,208 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.moditect.deptective.internal.handler.PackageReferenceHandler;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.log.Log;
+import org.moditect.deptective.internal.options.ReportingPolicy;
+
+import com.sun.source.util.JavacTask;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.JavacMessages;
+
+public class AsyncCompletionTest {
+
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+    private Log log;
+
+    /**
+     * The actions run by the completion on the compiler thread, e.g. writing output files, and the threads running
+     * them.
+     */
+    private List<Thread> compilerThreadActions;
+
+    /**
+     * Released once the completion has done its work.
+     */
+    private CountDownLatch completed;
+
+    /**
+     * Blocks the completion until released.
+     */
+    private CountDownLatch proceed;
+
+    @Before
+    public void setUp() {
+        diagnostics = new DiagnosticCollector<>();
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, diagnostics, null, null, Collections.emptyList());
+        Context context = ((BasicJavacTask) task).getContext();
+
+        log = Log.getInstance(JavacProcessingEnvironment.instance(context), JavacMessages.instance(context));
+        compilerThreadActions = Collections.synchronizedList(new ArrayList<>());
+        completed = new CountDownLatch(1);
+        proceed = new CountDownLatch(1);
+    }
+
+    @After
+    public void releaseCompletion() {
+        proceed.countDown();
+    }
+
+    @Test
+    public void shouldDeferMessagesAndActionsUntilJoined() throws Exception {
+        proceed.countDown();
+        AsyncCompletion completion = new AsyncCompletion(reportingHandler(), log, 10);
+
+        completion.start();
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(completion.isStarted()).isTrue();
+        assertThat(messages()).isEmpty();
+        assertThat(compilerThreadActions).isEmpty();
+
+        completion.join();
+
+        assertThat(messages()).containsExactly(
+                "WARNING: invalid value 1 of option first, using the default value instead",
+                "WARNING: invalid value 2 of option second, using the default value instead"
+        );
+        assertThat(compilerThreadActions).containsExactly(Thread.currentThread());
+        assertThat(completion.isAbandoned()).isFalse();
+    }
+
+    @Test
+    public void shouldDropMessagesAndActionsWhenDiscarded() throws Exception {
+        proceed.countDown();
+        AsyncCompletion completion = new AsyncCompletion(reportingHandler(), log, 10);
+
+        completion.start();
+        completion.discard();
+
+        assertThat(completion.isStarted()).isFalse();
+        assertThat(completion.isAbandoned()).isFalse();
+        assertThat(messages()).isEmpty();
+        assertThat(compilerThreadActions).isEmpty();
+
+        // the completion can be started again, e.g. after analysing further sources
+        completed = new CountDownLatch(1);
+        completion.start();
+        completion.join();
+
+        assertThat(messages()).containsExactly(
+                "WARNING: invalid value 1 of option first, using the default value instead",
+                "WARNING: invalid value 2 of option second, using the default value instead"
+        );
+        assertThat(compilerThreadActions).hasSize(1);
+    }
+
+    @Test
+    public void shouldReportFailureAsError() {
+        PackageReferenceHandler failingHandler = new PackageReferenceHandler() {
+
+            @Override
+            public void onCompletingCompilation() {
+                throw new IllegalStateException("boom");
+            }
+        };
+        AsyncCompletion completion = new AsyncCompletion(failingHandler, log, 10);
+
+        completion.start();
+        completion.join();
+
+        assertThat(messages()).containsExactly("ERROR: Failed to create the Deptective output: boom");
+        assertThat(completion.isAbandoned()).isFalse();
+    }
+
+    @Test
+    public void shouldReportTimeoutWhenDiscardingAndAbandonCompletion() {
+        AsyncCompletion completion = new AsyncCompletion(reportingHandler(), log, 1);
+
+        completion.start();
+        completion.discard();
+
+        assertThat(completion.isAbandoned()).isTrue();
+        assertThat(messages()).containsExactly(
+                "ERROR: Creating the Deptective output did not complete within 1 second(s)"
+        );
+    }
+
+    @Test
+    public void shouldReportTimeoutWhenJoiningAndDropOutput() throws Exception {
+        AsyncCompletion completion = new AsyncCompletion(reportingHandler(), log, 1);
+
+        completion.start();
+        completion.join();
+
+        assertThat(completion.isAbandoned()).isTrue();
+        assertThat(messages()).containsExactly(
+                "ERROR: Creating the Deptective output did not complete within 1 second(s)"
+        );
+        assertThat(compilerThreadActions).isEmpty();
+    }
+
+    /**
+     * Returns a handler reporting two warnings and requesting one action on the compiler thread in between, once
+     * {@link #proceed} has been released.
+     */
+    private PackageReferenceHandler reportingHandler() {
+        return new PackageReferenceHandler() {
+
+            @Override
+            public void onCompletingCompilation() {
+                try {
+                    proceed.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                log.report(ReportingPolicy.WARN, DeptectiveMessages.INVALID_OPTION_VALUE, "first", "1");
+                log.onCompilerThread(() -> compilerThreadActions.add(Thread.currentThread()));
+                log.report(ReportingPolicy.WARN, DeptectiveMessages.INVALID_OPTION_VALUE, "second", "2");
+                completed.countDown();
+            }
+        };
+    }
+
+    private List<String> messages() {
+        return diagnostics.getDiagnostics()
+                .stream()
+                .map(d -> d.getKind() + ": " + d.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+}
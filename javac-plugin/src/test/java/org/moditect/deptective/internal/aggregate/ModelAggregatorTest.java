@@ -0,0 +1,174 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.moditect.deptective.internal.util.Strings.lines;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+public class ModelAggregatorTest {
+
+    @Test
+    public void shouldDetectCycleAcrossModules() throws Exception {
+        ModelAggregator aggregator = new ModelAggregator();
+
+        aggregator.addModel(
+                "module-a",
+                stream(
+                        lines(
+                                "{",
+                                "  \"components\" : [ {",
+                                "    \"name\" : \"com.example.a\",",
+                                "    \"contains\" : [ \"com.example.a\" ],",
+                                "    \"reads\" : [ \"com.example.b.api\", \"java.util\" ],",
+                                "    \"weights\" : { \"com.example.b.api\" : 3, \"java.util\" : 2 }",
+                                "  } ],",
+                                "  \"whitelisted\" : [ ]",
+                                "}"
+                        )
+                )
+        );
+        aggregator.addModel(
+                "module-b",
+                stream(
+                        lines(
+                                "{",
+                                "  \"components\" : [ {",
+                                "    \"reads\" : [ \"com.example.a\" ],",
+                                "    \"name\" : \"b\",",
+                                "    \"contains\" : [ \"com.example.b*\" ]",
+                                "  }, {",
+                                "    \"name\" : \"c\",",
+                                "    \"contains\" : [ \"com.example.c\" ],",
+                                "    \"reads\" : [ \"b\" ]",
+                                "  } ]",
+                                "}"
+                        )
+                )
+        );
+
+        AggregatedModel model = aggregator.aggregate();
+
+        assertThat(model.getGraph().size()).isEqualTo(4);
+        assertThat(model.getCycles()).containsExactly(Arrays.asList("b", "com.example.a"));
+        assertThat(model.getModulesOfCycle(model.getCycles().get(0))).containsExactly("module-a", "module-b");
+
+        StringWriter json = new StringWriter();
+        model.writeJson(json);
+
+        JSONAssert.assertEquals(
+                lines(
+                        "{",
+                        "  \"components\" : [",
+                        "    { \"name\" : \"b\", \"module\" : \"module-b\", \"reads\" : [ \"com.example.a\" ],",
+                        "      \"weights\" : { \"com.example.a\" : 1 } },",
+                        "    { \"name\" : \"c\", \"module\" : \"module-b\", \"reads\" : [ \"b\" ], \"weights\" : { \"b\" : 1 } },",
+                        "    { \"name\" : \"com.example.a\", \"module\" : \"module-a\", \"reads\" : [ \"b\", \"java.util\" ],",
+                        "      \"weights\" : { \"b\" : 3, \"java.util\" : 2 } },",
+                        "    { \"name\" : \"java.util\" }",
+                        "  ],",
+                        "  \"cycles\" : [",
+                        "    { \"components\" : [ \"b\", \"com.example.a\" ], \"modules\" : [ \"module-a\", \"module-b\" ], \"crossModule\" : true }",
+                        "  ]",
+                        "}"
+                ),
+                json.toString(),
+                JSONCompareMode.STRICT
+        );
+
+        StringWriter dot = new StringWriter();
+        model.writeDot(dot);
+
+        assertThat(dot.toString()).isEqualTo(
+                lines(
+                        "digraph \"package dependencies\"",
+                        "{",
+                        "  \"b\";",
+                        "  \"c\";",
+                        "  \"com.example.a\";",
+                        "  \"java.util\";",
+                        "  subgraph Allowed {",
+                        "    \"c\" -> \"b\" [label=1];",
+                        "    \"com.example.a\" -> \"java.util\" [label=2];",
+                        "  }",
+                        "  subgraph Cycle {",
+                        "    edge [color=purple, penwidth=2]",
+                        "    \"b\" -> \"com.example.a\" [label=1];",
+                        "    \"com.example.a\" -> \"b\" [label=3];",
+                        "  }",
+                        "}"
+                )
+        );
+    }
+
+    @Test
+    public void shouldResolveReadsAgainstFirstDeclaredMatchingPattern() throws Exception {
+        ModelAggregator aggregator = new ModelAggregator();
+
+        aggregator.addModel(
+                "module-a",
+                stream(
+                        lines(
+                                "{",
+                                "  \"components\" : [ {",
+                                "    \"name\" : \"acme\",",
+                                "    \"contains\" : [ \"com.acme.*\" ]",
+                                "  } ]",
+                                "}"
+                        )
+                )
+        );
+        aggregator.addModel(
+                "module-b",
+                stream(
+                        lines(
+                                "{",
+                                "  \"components\" : [ {",
+                                "    \"name\" : \"acme-foo\",",
+                                "    \"contains\" : [ \"com.acme.foo.*\" ]",
+                                "  }, {",
+                                "    \"name\" : \"internal\",",
+                                "    \"contains\" : [ \"*.internal\" ],",
+                                "    \"reads\" : [ \"com.acme.foo.bar\", \"org.example.internal\", \"org.example\" ]",
+                                "  } ]",
+                                "}"
+                        )
+                )
+        );
+
+        AggregatedModel model = aggregator.aggregate();
+        int internal = model.getGraph().indexOf("internal");
+
+        assertThat(model.getGraph().size()).isEqualTo(4);
+        assertThat(model.getGraph().outDegree(internal)).isEqualTo(2);
+        assertThat(model.getGraph().getName(model.getGraph().target(model.getGraph().edgesStart(internal))))
+                .isEqualTo("acme");
+        assertThat(model.getGraph().getName(model.getGraph().target(model.getGraph().edgesStart(internal) + 1)))
+                .isEqualTo("org.example");
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
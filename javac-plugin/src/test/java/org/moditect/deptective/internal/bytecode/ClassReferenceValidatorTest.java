@@ -0,0 +1,270 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.bytecode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.bytecode.ClassReferenceValidator.Result;
+import org.moditect.deptective.internal.bytecode.ClassReferenceValidator.Violation;
+import org.moditect.deptective.internal.log.DeptectiveMessages;
+import org.moditect.deptective.internal.model.ConfigParser;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.util.Strings;
+import org.moditect.deptective.plugintest.basic.BasicPluginTest;
+import org.moditect.deptective.plugintest.basic.foo.Foo;
+import org.moditect.deptective.plugintest.levels.LevelTest;
+import org.moditect.deptective.plugintest.transitive.ForbiddenTransitiveDependencyTest;
+
+public class ClassReferenceValidatorTest {
+
+    private static final String BASIC = "org.moditect.deptective.plugintest.basic.";
+    private static final String LEVELS = "org.moditect.deptective.plugintest.levels.";
+
+    @Test
+    public void shouldReportSameIllegalReferencesAsSourceValidation() throws Exception {
+        List<ClassReferences> classes = new ClassFileScanner().scan(Collections.singletonList(basicClassesDir()));
+        Result result = validate(classes);
+
+        List<String> illegalReferencesOfFoo = result.getViolations()
+                .stream()
+                .filter(v -> v.getClassName().matches(".*\\.Foo(\\$.*)?"))
+                .peek(v -> assertThat(v.getComponentName()).isEqualTo(BASIC + "foo"))
+                .map(Violation::getReferencedPackageName)
+                .distinct()
+                .collect(Collectors.toList());
+
+        assertThat(illegalReferencesOfFoo).containsOnly(
+                Stream.of(
+                        "baranparam", "barclass", "barclazzan", "barclsliteral", "barctorcall", "barctorparam",
+                        "bardemand", "barfield", "barfieldan", "bargen", "bargenericbound", "bargentype",
+                        "barinnerinner", "barinnersuper", "barinter", "barlocalvar", "barloopvar",
+                        "barparameter", "barqualified", "barretval", "barretvalgen", "barstatic",
+                        "barstaticfield", "barsuper", "bartypearg", "barvalueann"
+                )
+                        .map(p -> BASIC + p)
+                        .toArray(String[]::new)
+        );
+
+        assertThat(result.getViolations())
+                .noneMatch(v -> v.getClassName().equals(BASIC + "foo.FooWithoutErrors"))
+                .noneMatch(v -> v.getReferencedPackageName().equals("java.util"));
+
+        assertThat(result.getUnconfiguredPackages()).containsOnly(
+                BASIC.substring(0, BASIC.length() - 1),
+                BASIC + "baranparam",
+                BASIC + "barclass",
+                BASIC + "barclazzan",
+                BASIC + "barclsliteral",
+                BASIC + "barctorparam",
+                BASIC + "bardemand",
+                BASIC + "barfieldan",
+                BASIC + "bargen",
+                BASIC + "bargenericbound",
+                BASIC + "bargentype",
+                BASIC + "barinnerinner",
+                BASIC + "barinnersuper",
+                BASIC + "barinter",
+                BASIC + "barqualified",
+                BASIC + "barretvalgen",
+                BASIC + "barstatic",
+                BASIC + "barstaticfield",
+                BASIC + "barsuper",
+                BASIC + "barunused",
+                BASIC + "barvalueann"
+        );
+    }
+
+    @Test
+    public void shouldScanClassesInJar() throws Exception {
+        Path jar = Files.createTempFile("deptective", ".jar");
+
+        try {
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                addEntry(out, "foo/Foo.class");
+                addEntry(out, "foo/FooWithoutErrors.class");
+                addEntry(out, "foo/Foo$InnerFoo.class");
+            }
+
+            List<ClassReferences> fromJar = new ClassFileScanner().scan(Collections.singletonList(jar));
+            List<ClassReferences> fromDirectory = new ClassFileScanner().scan(
+                    Collections.singletonList(basicClassesDir().resolve("foo"))
+            );
+
+            assertThat(fromJar).extracting(ClassReferences::getClassName).containsExactly(
+                    BASIC + "foo.Foo",
+                    BASIC + "foo.Foo$InnerFoo",
+                    BASIC + "foo.FooWithoutErrors"
+            );
+
+            for (ClassReferences classReferences : fromJar) {
+                assertThat(classReferences.getReferencedPackages()).isEqualTo(
+                        fromDirectory.stream()
+                                .filter(c -> c.getClassName().equals(classReferences.getClassName()))
+                                .findFirst()
+                                .get()
+                                .getReferencedPackages()
+                );
+            }
+        }
+        finally {
+            Files.delete(jar);
+        }
+    }
+
+    @Test
+    public void shouldExtractClassNamesFromSignatures() {
+        List<String> classNames = new ArrayList<>();
+        SignatureScanner scanner = new SignatureScanner(classNames::add);
+
+        assertThat(
+                scanner.scan(
+                        "<T:Ljava/lang/Object;L:Lcom/example/Bound;>(TT;[[Lcom/example/Param;I)"
+                                + "Lcom/example/Outer<+Lcom/example/Arg;*>.Inner<[I>;^Lcom/example/Failure;"
+                )
+        ).isTrue();
+        assertThat(classNames).containsExactly(
+                "java/lang/Object",
+                "com/example/Bound",
+                "com/example/Param",
+                "com/example/Outer",
+                "com/example/Arg",
+                "com/example/Failure"
+        );
+
+        classNames.clear();
+        assertThat(scanner.scan("Lcom/example/NotASignature")).isFalse();
+        assertThat(scanner.scan("(Lcom/example/Param;")).isFalse();
+        assertThat(scanner.scan("Lookup")).isFalse();
+        assertThat(classNames).isEmpty();
+    }
+
+    @Test
+    public void shouldReportReadsOfComponentsOnSameOrHigherLevel() throws Exception {
+        Result result = validate(LevelTest.class, classesDir(LevelTest.class));
+
+        assertThat(result.getViolations()).hasSize(1);
+
+        Violation violation = result.getViolations().get(0);
+        assertThat(violation.getClassName()).isEqualTo(LEVELS + "persistence.Repository");
+        assertThat(violation.getMessageKey()).isEqualTo(DeptectiveMessages.ILLEGAL_LEVEL_DEPENDENCY);
+        assertThat(violation.getComponentName()).isEqualTo("persistence");
+        assertThat(violation.getReferencedPackageName()).isEqualTo(LEVELS + "model");
+        assertThat(violation.getComponentLevel()).isEqualTo(0);
+        assertThat(violation.getReferencedComponentLevel()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotReportReadsWithinCycleOnSameLevel() throws Exception {
+        String config = Strings.lines(
+                "{",
+                "    \"components\" : [",
+                "        {",
+                "            \"name\" : \"persistence\",",
+                "            \"level\" : 0,",
+                "            \"contains\" : [ \"" + LEVELS + "persistence\" ],",
+                "            \"reads\" : [ \"model\" ]",
+                "        },",
+                "        {",
+                "            \"name\" : \"model\",",
+                "            \"level\" : 0,",
+                "            \"contains\" : [ \"" + LEVELS + "model\" ],",
+                "            \"reads\" : [ \"persistence\" ]",
+                "        }",
+                "    ]",
+                "}"
+        );
+
+        List<ClassReferences> classes = new ClassFileScanner().scan(
+                Collections.singletonList(classesDir(LevelTest.class).resolve("persistence"))
+        );
+        Result result = new ClassReferenceValidator(
+                new ConfigParser(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)))
+                        .getPackageDependencies()
+        ).validate(classes);
+
+        assertThat(result.getViolations()).isEmpty();
+    }
+
+    @Test
+    public void shouldReportForbiddenTransitiveDependencies() throws Exception {
+        Result result = validate(
+                ForbiddenTransitiveDependencyTest.class,
+                classesDir(ForbiddenTransitiveDependencyTest.class)
+        );
+
+        assertThat(result.getViolations()).isEmpty();
+        assertThat(result.getForbiddenTransitiveViolations().entrySet())
+                .extracting(e -> e.getKey().toString(), Entry::getValue)
+                .containsExactly(
+                        tuple("ui -/-> persistence", Arrays.asList("ui", "service", "persistence")),
+                        tuple("service -/-> model", Arrays.asList("service", "model"))
+                );
+    }
+
+    private Result validate(List<ClassReferences> classes) throws Exception {
+        PackageDependencies config;
+        try (InputStream is = BasicPluginTest.class.getResourceAsStream("deptective.json")) {
+            config = new ConfigParser(is).getPackageDependencies();
+        }
+
+        return new ClassReferenceValidator(config).validate(classes);
+    }
+
+    private Result validate(Class<?> testClass, Path classesDir) throws Exception {
+        PackageDependencies config;
+        try (InputStream is = testClass.getResourceAsStream("deptective.json")) {
+            config = new ConfigParser(is).getPackageDependencies();
+        }
+
+        return new ClassReferenceValidator(config).validate(
+                new ClassFileScanner().scan(Collections.singletonList(classesDir))
+        );
+    }
+
+    private static void addEntry(JarOutputStream out, String name) throws Exception {
+        out.putNextEntry(new JarEntry(BASIC.replace('.', '/') + name));
+        Files.copy(basicClassesDir().resolve(name), out);
+        out.closeEntry();
+    }
+
+    private static Path classesDir(Class<?> testClass) throws Exception {
+        return Paths.get(testClass.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .resolve(testClass.getPackage().getName().replace('.', '/'));
+    }
+
+    private static Path basicClassesDir() throws Exception {
+        return Paths.get(Foo.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .resolve(BASIC.replace('.', '/'));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.diff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.model.PackagePattern;
+import org.moditect.deptective.internal.model.ReadKind;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+public class ModelDiffTest {
+
+    @Test
+    public void shouldReportAddedAndRemovedComponentsReadsAndCycles() throws Exception {
+        PackageDependencies previous = model(
+                "a -> b", "b -> c", "c -> b", "d -> a"
+        );
+        PackageDependencies current = model(
+                "a -> b", "b -> c", "c -> a", "e -> a"
+        );
+
+        ModelDiff diff = ModelDiff.compare(previous, current);
+
+        assertThat(diff.getAddedComponents()).containsExactly("e");
+        assertThat(diff.getRemovedComponents()).containsExactly("d");
+        assertThat(diff.getAddedReads().stream().map(r -> r[0] + " -> " + r[1]).collect(Collectors.toList()))
+                .containsExactly("c -> a", "e -> a");
+        assertThat(diff.getRemovedReads().stream().map(r -> r[0] + " -> " + r[1]).collect(Collectors.toList()))
+                .containsExactly("c -> b", "d -> a");
+        assertThat(diff.getNewCycles()).containsExactly(Arrays.asList("a", "b", "c"));
+        assertThat(diff.getResolvedCycles()).containsExactly(Arrays.asList("b", "c"));
+
+        StringWriter json = new StringWriter();
+        diff.writeJson(json);
+
+        JSONAssert.assertEquals(
+                "{" +
+                        "\"addedComponents\":[\"e\"]," +
+                        "\"removedComponents\":[\"d\"]," +
+                        "\"addedReads\":[{\"from\":\"c\",\"to\":\"a\"},{\"from\":\"e\",\"to\":\"a\"}]," +
+                        "\"removedReads\":[{\"from\":\"c\",\"to\":\"b\"},{\"from\":\"d\",\"to\":\"a\"}]," +
+                        "\"newCycles\":[[\"a\",\"b\",\"c\"]]," +
+                        "\"resolvedCycles\":[[\"b\",\"c\"]]" +
+                        "}",
+                json.toString(),
+                JSONCompareMode.STRICT
+        );
+
+        StringWriter dot = new StringWriter();
+        diff.writeDot(dot);
+
+        assertThat(dot.toString()).contains(
+                "  \"d\" [color=red, style=dashed];",
+                "  \"e\" [color=green];",
+                "  subgraph Added {",
+                "    \"e\" -> \"a\";",
+                "  subgraph Removed {",
+                "    \"c\" -> \"b\";",
+                "  subgraph NewCycle {",
+                "    \"a\" -> \"b\";",
+                "    \"c\" -> \"a\";"
+        );
+    }
+
+    @Test
+    public void shouldFindNoDifferencesBetweenEqualModels() throws IOException {
+        ModelDiff diff = ModelDiff.compare(model("a -> b", "b -> a"), model("b -> a", "a -> b"));
+
+        assertThat(diff.isEmpty()).isTrue();
+    }
+
+    private static PackageDependencies model(String... reads) {
+        PackageDependencies.Builder builder = PackageDependencies.builder();
+
+        for (String read : reads) {
+            String[] parts = read.split(" -> ");
+            builder.addContains(parts[0], PackagePattern.getPattern(parts[0]));
+            builder.addRead(parts[0], parts[1], ReadKind.ALLOWED);
+        }
+
+        return builder.build();
+    }
+}
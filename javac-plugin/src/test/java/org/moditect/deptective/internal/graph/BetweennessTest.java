@@ -0,0 +1,63 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class BetweennessTest {
+
+    @Test
+    public void computeBetweenness() {
+        IntGraph.Builder builder = IntGraph.builder();
+        builder.addEdge("a", "b", 1);
+        builder.addEdge("a", "c", 5);
+        builder.addEdge("b", "d", 1);
+        builder.addEdge("c", "d", 1);
+        builder.addEdge("d", "e", 1);
+        IntGraph graph = builder.build();
+
+        // a -> e goes via b or c, so each of them is on half of the shortest paths
+        double[] betweenness = GraphUtils.computeBetweenness(graph);
+        assertThat(betweenness[graph.indexOf("a")]).isEqualTo(0.0);
+        assertThat(betweenness[graph.indexOf("b")]).isCloseTo(1.0, within(1e-9));
+        assertThat(betweenness[graph.indexOf("c")]).isCloseTo(1.0, within(1e-9));
+        assertThat(betweenness[graph.indexOf("d")]).isCloseTo(3.0, within(1e-9));
+        assertThat(betweenness[graph.indexOf("e")]).isEqualTo(0.0);
+    }
+
+    @Test
+    public void computeBetweennessOfLargeGraph() {
+        int n = 2_000;
+        IntGraph.Builder builder = IntGraph.builder();
+        for (int i = 0; i < n; i++) {
+            builder.addNode(String.format("n%04d", i));
+        }
+
+        // a chain; the i-th node is on the paths from all its predecessors to all its successors
+        for (int i = 0; i < n - 1; i++) {
+            builder.addEdge(i, i + 1, 1);
+        }
+        IntGraph graph = builder.build();
+
+        double[] betweenness = GraphUtils.computeBetweenness(graph);
+        for (int i = 0; i < n; i++) {
+            assertThat(betweenness[i]).isEqualTo((double) i * (n - 1 - i));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class CommunitiesTest {
+
+    @Test
+    public void shouldSeparateDenselyConnectedGroups() {
+        IntGraph.Builder builder = IntGraph.builder();
+
+        // two groups referencing each other heavily, with one light reference between them
+        for (String group : new String[] { "order", "billing" }) {
+            builder.addEdge(group + ".api", group + ".impl", 5);
+            builder.addEdge(group + ".impl", group + ".api", 2);
+            builder.addEdge(group + ".impl", group + ".model", 4);
+            builder.addEdge(group + ".api", group + ".model", 3);
+        }
+        builder.addEdge("order.impl", "billing.api", 1);
+        builder.addNode("isolated");
+
+        IntGraph graph = builder.build();
+        int[] communities = GraphUtils.detectCommunities(graph);
+
+        int order = communities[graph.indexOf("order.api")];
+        int billing = communities[graph.indexOf("billing.api")];
+
+        assertThat(order).isNotEqualTo(billing);
+        assertThat(communities[graph.indexOf("order.impl")]).isEqualTo(order);
+        assertThat(communities[graph.indexOf("order.model")]).isEqualTo(order);
+        assertThat(communities[graph.indexOf("billing.impl")]).isEqualTo(billing);
+        assertThat(communities[graph.indexOf("billing.model")]).isEqualTo(billing);
+
+        // nodes without any edges form a community on their own
+        int isolated = communities[graph.indexOf("isolated")];
+        assertThat(isolated).isNotEqualTo(order).isNotEqualTo(billing);
+
+        // communities are numbered in the order of their lowest member
+        assertThat(communities[0]).isEqualTo(0);
+        assertThat(communities).containsOnly(0, 1, 2);
+    }
+
+    @Test
+    public void shouldHandleGraphWithoutEdges() {
+        IntGraph.Builder builder = IntGraph.builder();
+        builder.addNode("a");
+        builder.addNode("b");
+
+        assertThat(GraphUtils.detectCommunities(builder.build())).containsExactly(0, 1);
+        assertThat(GraphUtils.detectCommunities(IntGraph.builder().build())).isEmpty();
+    }
+}
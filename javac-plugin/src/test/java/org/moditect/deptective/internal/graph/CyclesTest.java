@@ -17,9 +17,12 @@ package org.moditect.deptective.internal.graph;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
+import org.moditect.deptective.internal.graph.impl.JohnsonCycleEnumerator;
 
 /**
  * @author Gerd W&uuml;therich (gw@code-kontor.io)
@@ -34,4 +37,57 @@ public class CyclesTest {
         assertThat(cycles).hasSize(1);
         assertThat(cycles.get(0).getNodes()).contains(nodes.get(2)).contains(nodes.get(3));
     }
+
+    @Test
+    public void detectCycleWithWitnesses() {
+        List<SimpleNode> nodes = TestModelCreator.createDummyModel();
+        nodes.get(3).addOutgoingDependency(nodes.get(1), 1);
+
+        // p2 -> p3 -> p4 -> p2 and p3 -> p4 -> p3
+        List<Cycle<SimpleNode>> cycles = GraphUtils.detectCycles(nodes, 5);
+        assertThat(cycles).hasSize(1);
+        assertThat(cycles.get(0).getNodes()).containsExactly(nodes.get(1), nodes.get(2), nodes.get(3));
+        assertThat(cycles.get(0).getWitnesses()).containsExactly(
+                Arrays.asList(nodes.get(1), nodes.get(2), nodes.get(3))
+        );
+
+        cycles = GraphUtils.detectCycles(nodes, 0);
+        assertThat(cycles.get(0).getWitnesses()).isEmpty();
+    }
+
+    @Test
+    public void enumerateElementaryCycles() {
+        IntGraph.Builder builder = IntGraph.builder();
+        for (int from = 0; from < 4; from++) {
+            for (int to = 0; to < 4; to++) {
+                if (from != to) {
+                    builder.addEdge(builder.addNode("n" + from), builder.addNode("n" + to), 1);
+                }
+            }
+        }
+        IntGraph complete = builder.build();
+
+        // 6 cycles of length 2, 8 of length 3, 6 of length 4
+        List<int[]> cycles = new ArrayList<>();
+        assertThat(GraphUtils.enumerateCycles(complete, 100, 10, cycles::add)).isTrue();
+        assertThat(cycles).hasSize(20);
+
+        cycles.clear();
+        assertThat(GraphUtils.enumerateCycles(complete, 100, 2, cycles::add)).isTrue();
+        assertThat(cycles).hasSize(6);
+
+        cycles.clear();
+        assertThat(GraphUtils.enumerateCycles(complete, 5, 10, cycles::add)).isFalse();
+        assertThat(cycles).hasSize(5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMaxCycleLengthOfZero() {
+        IntGraph.Builder builder = IntGraph.builder();
+        builder.addEdge(builder.addNode("a"), builder.addNode("b"), 1);
+        builder.addEdge(builder.addNode("b"), builder.addNode("a"), 1);
+
+        new JohnsonCycleEnumerator(builder.build(), 1, 0, cycle -> {
+        });
+    }
 }
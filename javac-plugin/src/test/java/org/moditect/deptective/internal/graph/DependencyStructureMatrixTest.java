@@ -17,7 +17,9 @@ package org.moditect.deptective.internal.graph;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -46,4 +48,56 @@ public class DependencyStructureMatrixTest {
         assertThat(dsm.getCycles()).hasSize(1);
         assertThat(dsm.getCycles().get(0)).containsExactly(nodes.get(3), nodes.get(2));
     }
+
+    @Test
+    public void cellQueries() {
+        List<SimpleNode> nodes = TestModelCreator.createDummyModel();
+
+        IDependencyStructureMatrix<SimpleNode> dsm = GraphUtils.createDependencyStructureMatrix(nodes);
+
+        // assert weights
+        assertThat(dsm.getWeight(0, 1)).isEqualTo(13);
+        assertThat(dsm.getWeight(1, 2)).isEqualTo(57);
+        assertThat(dsm.getWeight(2, 3)).isEqualTo(45);
+        assertThat(dsm.getWeight(3, 2)).isEqualTo(3);
+        assertThat(dsm.getWeight(1, 0)).isEqualTo(0);
+        assertThat(dsm.getWeight(0, 4)).isEqualTo(-1);
+
+        // assert cycle membership
+        assertThat(dsm.isCellInCycle(2, 3)).isTrue();
+        assertThat(dsm.isCellInCycle(3, 2)).isTrue();
+        assertThat(dsm.isRowInCycle(3)).isTrue();
+        assertThat(dsm.isRowInCycle(0)).isFalse();
+        assertThat(dsm.isCellInCycle(1, 2)).isFalse();
+    }
+
+    @Test
+    public void weightsMatchDependencies() {
+        Random random = new Random(42);
+        List<SimpleNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            nodes.add(new SimpleNode("n" + i));
+        }
+
+        // dependencies on this node must be ignored, as it isn't part of the DSM
+        SimpleNode outside = new SimpleNode("outside");
+
+        for (SimpleNode node : nodes) {
+            for (int i = 0; i < 10; i++) {
+                node.addOutgoingDependency(nodes.get(random.nextInt(nodes.size())), 1 + random.nextInt(100));
+            }
+            node.addOutgoingDependency(outside, 1);
+        }
+
+        IDependencyStructureMatrix<SimpleNode> dsm = GraphUtils.createDependencyStructureMatrix(nodes);
+        List<SimpleNode> ordered = dsm.getOrderedNodes();
+
+        assertThat(ordered).hasSize(nodes.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            for (int j = 0; j < ordered.size(); j++) {
+                Dependency<SimpleNode> dependency = ordered.get(i).getOutgoingDependencyTo(ordered.get(j));
+                assertThat(dsm.getWeight(i, j)).isEqualTo(dependency != null ? dependency.getAggregatedWeight() : 0);
+            }
+        }
+    }
 }
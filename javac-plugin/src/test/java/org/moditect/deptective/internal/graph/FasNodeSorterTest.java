@@ -17,10 +17,14 @@ package org.moditect.deptective.internal.graph;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 import org.moditect.deptective.internal.graph.INodeSorter.SortResult;
+import org.moditect.deptective.internal.model.IdentifiableComponent;
+import org.moditect.deptective.internal.model.PackageDependencies;
+import org.moditect.deptective.internal.model.ReadKind;
 
 public class FasNodeSorterTest {
 
@@ -32,4 +36,23 @@ public class FasNodeSorterTest {
         SortResult<SimpleNode> sortResult = nodeSorter.sort(nodes);
         assertThat(sortResult.getUpwardsDependencies()).hasSize(1);
     }
+
+    @Test
+    public void sortComponentsByWeightOfReads() {
+        PackageDependencies.Builder builder = PackageDependencies.builder();
+        for (int i = 0; i < 5; i++) {
+            builder.addRead("a", "b", ReadKind.ALLOWED);
+        }
+        builder.addRead("b", "a", ReadKind.ALLOWED);
+
+        List<IdentifiableComponent> components = new ArrayList<>();
+        builder.build().getComponents().forEach(components::add);
+
+        SortResult<IdentifiableComponent> sortResult = GraphUtils.createFasNodeSorter().sort(components);
+
+        // the lighter of the two edges of the cycle is the one to be cut
+        assertThat(sortResult.getUpwardsDependencies()).hasSize(1);
+        assertThat(sortResult.getUpwardsDependencies().get(0).getTo().getName()).isEqualTo("a");
+        assertThat(sortResult.getUpwardsDependencies().get(0).getAggregatedWeight()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class IncrementalCycleDetectorTest {
+
+    @Test
+    public void reportEachClosingEdgeOnce() {
+        IncrementalCycleDetector detector = new IncrementalCycleDetector();
+
+        assertThat(detector.addEdge("a", "b")).isFalse();
+        assertThat(detector.addEdge("x", "y")).isFalse();
+        assertThat(detector.isAcyclic()).isTrue();
+
+        assertThat(detector.addEdge("b", "a")).isTrue();
+        assertThat(detector.getCycleClosedBy("b", "a")).containsExactly("b", "a");
+        // adding the closing edge again doesn't report the cycle again
+        assertThat(detector.addEdge("b", "a")).isFalse();
+
+        assertThat(detector.addEdge("b", "c")).isFalse();
+        assertThat(detector.addEdge("c", "a")).isTrue();
+        assertThat(detector.getCycleClosedBy("c", "a")).containsExactly("c", "a", "b");
+
+        assertThat(detector.getCycleClosedBy("x", "y")).isEmpty();
+        assertThat(detector.isAcyclic()).isFalse();
+    }
+
+    @Test
+    public void detectCycleThroughEarlierClosingEdge() {
+        IncrementalCycleDetector detector = new IncrementalCycleDetector();
+
+        detector.addEdge("a", "b");
+        assertThat(detector.addEdge("b", "a")).isTrue();
+        assertThat(detector.addEdge("x", "b")).isFalse();
+
+        // a -> x -> b -> a runs through the edge b -> a, which closed the first cycle
+        assertThat(detector.addEdge("a", "x")).isTrue();
+        assertThat(detector.getCycleClosedBy("a", "x")).containsExactly("a", "x", "b");
+    }
+
+    @Test
+    public void detectCycleWithinMergedComponents() {
+        IncrementalCycleDetector detector = new IncrementalCycleDetector();
+
+        detector.addEdge("a", "b");
+        detector.addEdge("b", "a");
+        detector.addEdge("x", "y");
+        detector.addEdge("y", "x");
+        assertThat(detector.addEdge("a", "x")).isFalse();
+
+        // merges both cycles into one component
+        assertThat(detector.addEdge("y", "b")).isTrue();
+        assertThat(detector.getCycleClosedBy("y", "b")).containsExactly("y", "b", "a", "x");
+
+        // an edge within the merged component closes a cycle, too
+        assertThat(detector.addEdge("b", "x")).isTrue();
+        assertThat(detector.getCycleClosedBy("b", "x")).containsExactly("b", "x", "y");
+
+        // edges into and out of the component don't
+        assertThat(detector.addEdge("z", "a")).isFalse();
+        assertThat(detector.addEdge("y", "w")).isFalse();
+        assertThat(detector.addEdge("w", "z")).isTrue();
+        assertThat(detector.getCycleClosedBy("w", "z")).containsExactly("w", "z", "a", "x", "y");
+    }
+}
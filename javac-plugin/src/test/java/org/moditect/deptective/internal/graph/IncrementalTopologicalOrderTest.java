@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IncrementalTopologicalOrderTest {
+
+    @Test
+    public void detectCycleWhenClosingEdgeIsAdded() {
+        IncrementalTopologicalOrder order = new IncrementalTopologicalOrder();
+        for (int i = 0; i < 4; i++) {
+            order.addNode();
+        }
+
+        // added against the initial order, so nodes have to be re-ordered
+        assertThat(order.addEdge(3, 2)).isNull();
+        assertThat(order.addEdge(2, 1)).isNull();
+        assertThat(order.addEdge(1, 0)).isNull();
+        assertThat(order.getPosition(3)).isLessThan(order.getPosition(2));
+        assertThat(order.getPosition(2)).isLessThan(order.getPosition(1));
+        assertThat(order.getPosition(1)).isLessThan(order.getPosition(0));
+
+        assertThat(order.addEdge(0, 2)).containsExactly(0, 2, 1);
+        assertThat(order.addEdge(1, 1)).containsExactly(1);
+
+        // rejected edges aren't added
+        assertThat(order.addEdge(3, 0)).isNull();
+    }
+
+    @Test
+    public void maintainOrderOfRandomGraph() {
+        Random random = new Random(42);
+        int n = 200;
+
+        IncrementalTopologicalOrder order = new IncrementalTopologicalOrder();
+        IntGraph.Builder accepted = IntGraph.builder();
+        for (int i = 0; i < n; i++) {
+            order.addNode();
+            accepted.addNode(String.valueOf(i));
+        }
+
+        boolean[][] added = new boolean[n][n];
+        for (int i = 0; i < 2_000; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if (from == to || added[from][to]) {
+                continue;
+            }
+            added[from][to] = true;
+
+            int[] cycle = order.addEdge(from, to);
+            if (cycle == null) {
+                accepted.addEdge(from, to, 1);
+            }
+            else {
+                // the returned path leads from "to" back to "from" via accepted edges
+                assertThat(cycle[0]).isEqualTo(from);
+                assertThat(cycle[1]).isEqualTo(to);
+            }
+        }
+
+        IntGraph graph = accepted.build();
+        for (int from = 0; from < n; from++) {
+            for (int e = graph.edgesStart(from); e < graph.edgesEnd(from); e++) {
+                assertThat(order.getPosition(from)).isLessThan(order.getPosition(graph.target(e)));
+            }
+        }
+
+        StronglyConnectedComponents sccs = GraphUtils.detectStronglyConnectedComponents(graph);
+        assertThat(sccs.getCount()).isEqualTo(n);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class PackagePrefixTreeTest {
+
+    @Test
+    public void shouldDetermineAncestors() {
+        PackagePrefixTree tree = new PackagePrefixTree();
+
+        int service = tree.add("com.example.service.impl");
+        int api = tree.add("com.example.api");
+
+        assertThat(tree.getDepth(service)).isEqualTo(4);
+        assertThat(tree.getName(tree.getAncestor(service, 2))).isEqualTo("com.example");
+        assertThat(tree.getName(tree.getAncestor(service, 3))).isEqualTo("com.example.service");
+        assertThat(tree.getName(tree.getAncestor(service, 5))).isEqualTo("com.example.service.impl");
+
+        // shared prefixes are only added once
+        assertThat(tree.getAncestor(api, 2)).isEqualTo(tree.getAncestor(service, 2));
+        assertThat(tree.add("com.example")).isEqualTo(tree.getAncestor(api, 2));
+    }
+
+    @Test
+    public void shouldRollUpByMultipleDepthsAtOnce() {
+        IntGraph.Builder builder = IntGraph.builder();
+        builder.addEdge("com.example.service.impl", "com.example.api", 2);
+        builder.addEdge("com.example.service.impl", "com.example.service", 1);
+        builder.addEdge("com.example.api", "org.acme.util", 3);
+        builder.addEdge("com.example.service", "java.lang", 5);
+
+        PackagePrefixTree tree = new PackagePrefixTree();
+        Function<String, String> depth2 = tree.prefixesOfDepth(2);
+        Function<String, String> depth3 = tree.prefixesOfDepth(3);
+
+        IntGraph[] rollUps = builder.build()
+                .rollUp(Arrays.asList(p -> p.equals("java.lang") ? null : depth2.apply(p), depth3));
+
+        // java.lang is dropped, the remaining references from com.example are merged
+        IntGraph depth2Graph = rollUps[0];
+        assertThat(depth2Graph.size()).isEqualTo(2);
+        assertThat(depth2Graph.getEdgeCount()).isEqualTo(1);
+        assertThat(depth2Graph.weight(depth2Graph.edgesStart(depth2Graph.indexOf("com.example")))).isEqualTo(3);
+
+        // the reference from com.example.service.impl to its parent becomes a self-reference and is dropped
+        IntGraph depth3Graph = rollUps[1];
+        int service = depth3Graph.indexOf("com.example.service");
+        assertThat(depth3Graph.size()).isEqualTo(4);
+        assertThat(depth3Graph.outDegree(service)).isEqualTo(2);
+        assertThat(depth3Graph.getName(depth3Graph.target(depth3Graph.edgesStart(service))))
+                .isEqualTo("com.example.api");
+        assertThat(depth3Graph.weight(depth3Graph.edgesStart(service))).isEqualTo(2);
+    }
+}
@@ -39,4 +39,52 @@ public class StronglyConnectedComponentsTest {
             }
         }
     }
+
+    @Test
+    public void detectStronglyConnectedComponentsOfIntGraph() {
+        List<SimpleNode> nodes = TestModelCreator.createDummyModel();
+        IntGraph graph = IntGraph.of(nodes);
+
+        StronglyConnectedComponents components = GraphUtils.detectStronglyConnectedComponents(graph);
+        assertThat(components.getCount()).isEqualTo(3);
+
+        // p3 and p4 form a cycle
+        assertThat(components.getComponent(2)).isEqualTo(components.getComponent(3));
+        assertThat(components.isCycle(components.getComponent(2))).isTrue();
+        assertThat(components.getMembers(components.getComponent(2))).containsExactly(2, 3);
+        assertThat(components.isCycle(components.getComponent(0))).isFalse();
+
+        // SCCs are numbered in reverse topological order
+        assertThat(components.getComponent(0)).isGreaterThan(components.getComponent(1));
+        assertThat(components.getComponent(1)).isGreaterThan(components.getComponent(2));
+    }
+
+    @Test
+    public void reduceCondensationTransitively() {
+        List<SimpleNode> nodes = TestModelCreator.createDummyModel();
+        nodes.get(0).addOutgoingDependency(nodes.get(2), 7);
+        nodes.get(0).addOutgoingDependency(nodes.get(3), 1);
+        IntGraph graph = IntGraph.of(nodes);
+
+        IntGraph condensation = GraphUtils.detectStronglyConnectedComponents(graph).condense(graph);
+        assertThat(condensation.getEdgeCount()).isEqualTo(3);
+
+        // p1 -> {p3, p4} is implied by p1 -> p2 -> {p3, p4}
+        IntGraph reduced = GraphUtils.transitiveReduction(condensation);
+        assertThat(reduced.size()).isEqualTo(3);
+        assertThat(reduced.getEdgeCount()).isEqualTo(2);
+        assertThat(reduced.getWeight(2, 1)).isEqualTo(13);
+        assertThat(reduced.getWeight(1, 0)).isEqualTo(57);
+        assertThat(reduced.getWeight(2, 0)).isEqualTo(0);
+    }
+
+    @Test
+    public void computeLevels() {
+        List<SimpleNode> nodes = TestModelCreator.createDummyModel();
+        nodes.get(0).addOutgoingDependency(nodes.get(3), 1);
+        IntGraph graph = IntGraph.of(nodes);
+
+        // p1 -> p2 -> {p3, p4}; the longer path determines the level of p1
+        assertThat(GraphUtils.computeLevels(graph)).containsExactly(2, 1, 0, 0);
+    }
 }
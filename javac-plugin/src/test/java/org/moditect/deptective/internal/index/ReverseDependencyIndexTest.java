@@ -0,0 +1,85 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.graph.IntGraph;
+
+public class ReverseDependencyIndexTest {
+
+    @Test
+    public void shouldFindTransitiveDependents() throws IOException {
+        // api <- impl <- app, api <- spi <- plugin, util <- api
+        IntGraph.Builder builder = IntGraph.builder();
+        for (String name : Arrays.asList("api", "app", "impl", "java.util", "plugin", "spi", "util")) {
+            builder.addNode(name);
+        }
+        builder.addEdge("impl", "api", 1);
+        builder.addEdge("app", "impl", 1);
+        builder.addEdge("spi", "api", 1);
+        builder.addEdge("plugin", "spi", 1);
+        builder.addEdge("api", "util", 1);
+        builder.addEdge("util", "java.util", 1);
+
+        Map<String, String> componentsByPackage = new HashMap<>();
+        componentsByPackage.put("com.example.api", "api");
+        componentsByPackage.put("com.example.api.internal", "api");
+        componentsByPackage.put("com.example.spi", "spi");
+
+        Path file = Files.createTempFile("deptective-reverse", ".idx");
+
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                ReverseDependencyIndex.write(builder.build(), componentsByPackage, out);
+            }
+
+            ReverseDependencyIndex index = ReverseDependencyIndex.open(file);
+
+            assertThat(index.size()).isEqualTo(7);
+            assertThat(index.resolve("com.example.api.internal")).isEqualTo(index.resolve("api"));
+            assertThat(index.resolve("com.example.other")).isEqualTo(-1);
+
+            assertThat(dependents(index, "com.example.spi")).containsExactly("plugin", "spi");
+            assertThat(dependents(index, "api")).containsExactly("api", "app", "impl", "plugin", "spi");
+            assertThat(dependents(index, "java.util"))
+                    .containsExactly("api", "app", "impl", "java.util", "plugin", "spi", "util");
+            assertThat(dependents(index, "app", "com.example.spi")).containsExactly("app", "plugin", "spi");
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<String> dependents(ReverseDependencyIndex index, String... changed) {
+        int[] components = Arrays.stream(changed).mapToInt(index::resolve).toArray();
+
+        return Arrays.stream(index.getDependents(components))
+                .mapToObj(index::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BaselineTest {
+
+    private static final String KEY = "deptective.illegalpackagedependency";
+
+    @Test
+    public void shouldContainWrittenViolations() throws IOException {
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            violations.add(
+                    Baseline.describe("com/example/p" + (i % 100) + "/Foo.java", "c" + i, "com.example.q" + i, KEY)
+            );
+        }
+
+        Path file = Files.createTempFile("deptective-baseline", ".txt");
+
+        try {
+            Baseline.write(file, violations);
+            Baseline baseline = Baseline.load(file);
+
+            assertThat(baseline.size()).isEqualTo(5_000);
+
+            for (int i = 0; i < 5_000; i++) {
+                long fingerprint = Baseline.fingerprint("com/example/p" + (i % 100) + "/Foo.java", "c" + i);
+                assertThat(baseline.contains(fingerprint, "com.example.q" + i, KEY)).isTrue();
+                assertThat(baseline.contains(fingerprint, "com.example.q" + (i + 1), KEY)).isFalse();
+                // a different kind of violation of the same reference
+                assertThat(baseline.contains(fingerprint, "com.example.q" + i, "deptective.other")).isFalse();
+            }
+
+            assertThat(
+                    baseline.contains(Baseline.fingerprint("com/example/p0/Foo.java", "c1"), "com.example.q0", KEY)
+            )
+                    .isFalse();
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void shouldTreatMissingFileAsEmptyBaseline() throws IOException {
+        Path file = Files.createTempFile("deptective-baseline", ".txt");
+        Files.delete(file);
+
+        assertThat(Baseline.load(file).size()).isEqualTo(0);
+        assertThat(Baseline.readViolations(file)).isEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ComponentsTest {
+
+    @Test
+    public void shouldFindNoOverlapsOfDisjointPatterns() {
+        Components components = components(
+                component("api", "com.example.api", "com.example.api.*"),
+                component("impl", "com.example.impl", "com.example.impl.*"),
+                component("util", "org.acme.*.util")
+        );
+
+        assertThat(components.getOverlaps()).isEmpty();
+        assertThat(components.getComponentByPackage("com.example.api.spi").getName()).isEqualTo("api");
+        assertThat(components.getComponentByPackage("org.acme.x.util").getName()).isEqualTo("util");
+        assertThat(components.getComponentByPackage("com.example")).isNull();
+        assertThat(components.getComponentByPackage("com.example")).isNull();
+    }
+
+    @Test
+    public void shouldReportAllOverlappingPatternPairs() {
+        Components components = components(
+                component("api", "com.example.api", "com.example.*.spi"),
+                component("impl", "com.example.impl.*", "com.example.api"),
+                component("util", "*.util")
+        );
+
+        List<String> overlaps = components.getOverlaps()
+                .stream()
+                .map(o -> o.toString() + ": " + o.getExample())
+                .collect(Collectors.toList());
+
+        assertThat(overlaps).containsExactly(
+                "api (com.example.api) / impl (com.example.api): com.example.api",
+                "api (com.example.*.spi) / impl (com.example.impl.*): com.example.impl.spi",
+                "impl (com.example.impl.*) / util (*.util): com.example.impl.util"
+        );
+    }
+
+    @Test
+    public void shouldRaiseExceptionForAmbiguousPackageOnEachLookup() {
+        Components components = components(
+                component("foo1", "com.example.foo"),
+                component("foo2", "com.example.*")
+        );
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                components.getComponentByPackage("com.example.foo");
+                fail("Expected exception");
+            }
+            catch (PackageAssignedToMultipleComponentsException e) {
+                assertThat(e.getMatchingComponents()).extracting(Component::getName).containsOnly("foo1", "foo2");
+            }
+        }
+
+        assertThat(components.getComponentByPackage("com.example.bar").getName()).isEqualTo("foo2");
+    }
+
+    private static Components components(Component... components) {
+        return new Components(new HashSet<>(Arrays.asList(components)));
+    }
+
+    private static Component component(String name, String... contains) {
+        return Component.builder(name)
+                .addContains(Arrays.stream(contains).map(PackagePattern::getPattern).collect(Collectors.toList()))
+                .build();
+    }
+}
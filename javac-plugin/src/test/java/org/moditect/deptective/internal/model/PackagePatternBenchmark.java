@@ -0,0 +1,104 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the time per match of {@link PackagePattern} with matching the equivalent regular expression, as done by
+ * earlier versions. Not run as part of the test suite; after {@code mvn test-compile}, run it from the
+ * {@code javac-plugin} directory with:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes org.moditect.deptective.internal.model.PackagePatternBenchmark
+ * </pre>
+ *
+ * An optional argument gives the number of matches per measurement (default 2,000,000).
+ */
+public class PackagePatternBenchmark {
+
+    private static final String[] PATTERNS = {
+            "com.example.persistence", "com.example.*", "*.internal", "com.*.internal.*"
+    };
+
+    private static final String[] PACKAGE_NAMES = {
+            "com.example.persistence", "com.example.persistence.jpa", "com.example.service.internal",
+            "com.example.service.internal.impl", "org.acme.api", "com.examplefoo"
+    };
+
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        System.out.println(String.format(Locale.ROOT, "%-26s %10s %10s", "pattern", "regex", "matcher"));
+
+        for (String pattern : PATTERNS) {
+            Pattern regex = toRegex(pattern);
+            PackagePattern packagePattern = PackagePattern.getPattern(pattern);
+
+            double regexTime = measure(p -> regex.matcher(p).matches(), iterations);
+            double matcherTime = measure(packagePattern::matches, iterations);
+
+            System.out.println(
+                    String.format(
+                            Locale.ROOT, "%-26s %7.1f ns %7.1f ns", pattern, regexTime, matcherTime
+                    )
+            );
+        }
+    }
+
+    /**
+     * Returns the best time per match in nanoseconds over several rounds, after warming up.
+     */
+    private static double measure(Predicate<String> matcher, int iterations) {
+        double best = Double.MAX_VALUE;
+        int matches = 0;
+
+        for (int round = 0; round < WARM_UP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+
+            for (int i = 0; i < iterations; i++) {
+                if (matcher.test(PACKAGE_NAMES[i % PACKAGE_NAMES.length])) {
+                    matches++;
+                }
+            }
+
+            long time = System.nanoTime() - start;
+            if (round >= WARM_UP_ROUNDS) {
+                best = Math.min(best, (double) time / iterations);
+            }
+        }
+
+        // using the result, so the loop can't be eliminated
+        if (matches == -1) {
+            System.out.println(matches);
+        }
+
+        return best;
+    }
+
+    /**
+     * The translation of a pattern into a regular expression used before {@link PackagePattern} got specialized
+     * matchers. The dots of the pattern aren't escaped, i.e. they match any character.
+     */
+    private static Pattern toRegex(String pattern) {
+        return Pattern.compile(pattern.replace("*", ".*"));
+    }
+}
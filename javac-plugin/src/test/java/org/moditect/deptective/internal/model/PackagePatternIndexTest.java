@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class PackagePatternIndexTest {
+
+    @Test
+    public void matchesLikeIndividualPatterns() {
+        List<PackagePattern> patterns = Arrays.asList(
+                PackagePattern.getPattern("com.example"),
+                PackagePattern.getPattern("org.acme.*"),
+                PackagePattern.getPattern("*.internal"),
+                PackagePattern.getPattern("net.*.api")
+        );
+        PackagePatternIndex index = new PackagePatternIndex(patterns);
+
+        List<String> packageNames = Arrays.asList(
+                "com.example", "com.example.sub", "comxexample", "org.acme", "org.acme.foo", "org.acme.foo.bar",
+                "org.acmefoo", "com.foo.internal", "com.foo.internal.sub", "net.foo.api", "net.api", "java.util", ""
+        );
+
+        for (String packageName : packageNames) {
+            assertThat(index.matches(packageName))
+                    .describedAs(packageName)
+                    .isEqualTo(patterns.stream().anyMatch(p -> p.matches(packageName)));
+            assertThat(index.getMatches(packageName))
+                    .describedAs(packageName)
+                    .hasSameElementsAs(
+                            patterns.stream().filter(p -> p.matches(packageName)).collect(Collectors.toList())
+                    );
+        }
+
+        assertThat(index.matches("org.acme.foo")).isTrue();
+        assertThat(index.matches("org.acme")).isFalse();
+        assertThat(index.matches("comxexample")).isFalse();
+    }
+
+    @Test
+    public void prunesReadsOfAllWhitelistedPackages() {
+        PackageDependencies.Builder builder = PackageDependencies.builder();
+        builder.addRead("foo", "bar", ReadKind.ALLOWED);
+        builder.addRead("foo", "java.util", ReadKind.ALLOWED);
+        builder.addRead("foo", "org.acme.foo", ReadKind.ALLOWED);
+        builder.addRead("bar", "java.util.concurrent", ReadKind.ALLOWED);
+
+        builder.addWhitelistedPackages(
+                Arrays.asList(PackagePattern.getPattern("java.util*"), PackagePattern.getPattern("org.acme.*"))
+        );
+
+        PackageDependencies dependencies = builder.build();
+        for (Component component : dependencies.getComponents()) {
+            if (component.getName().equals("foo")) {
+                assertThat(component.getReads().keySet()).containsOnly("bar");
+            }
+            else {
+                assertThat(component.getReads()).isEmpty();
+            }
+        }
+        assertThat(dependencies.isWhitelisted("java.util.function")).isTrue();
+        assertThat(dependencies.isWhitelisted("org.acme")).isFalse();
+    }
+}
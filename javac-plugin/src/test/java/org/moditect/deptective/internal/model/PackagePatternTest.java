@@ -0,0 +1,138 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PackagePatternTest {
+
+    @Test
+    public void matchesLikeGlobRegex() {
+        List<String> patterns = Arrays.asList(
+                "com.example", "com.example.*", "com.example*", "*.internal", "*internal*", "com.*.internal",
+                "com.*.internal.*", "*.foo.*.bar*", "a*a", "**", "*", "*ALL_EXTERNAL*"
+        );
+        List<String> packageNames = Arrays.asList(
+                "com.example", "com.example.sub", "comxexample", "com.examplefoo", "com.foo.internal",
+                "com.foo.internal.sub", "com.internal", "org.foo.x.bar", "org.foo.bar", "a", "aa", "aba", ""
+        );
+
+        for (String pattern : patterns) {
+            for (String packageName : packageNames) {
+                assertMatchesLikeRegex(pattern, packageName);
+            }
+        }
+
+        assertThat(PackagePattern.getPattern("com.example").matches("comxexample")).isFalse();
+        assertThat(PackagePattern.getPattern("com.*.internal").matches("com.internal")).isFalse();
+        assertThat(PackagePattern.getPattern("a*a").matches("a")).isFalse();
+    }
+
+    @Test
+    public void matchesRandomPatternsLikeGlobRegex() {
+        Random random = new Random(42);
+        char[] alphabet = { 'a', 'b', '.', '*' };
+
+        for (int i = 0; i < 2_000; i++) {
+            String pattern = randomString(random, alphabet, 6);
+            String packageName = randomString(random, Arrays.copyOf(alphabet, 3), 8);
+
+            assertMatchesLikeRegex(pattern, packageName);
+        }
+    }
+
+    @Test
+    public void findsShortestCommonMatch() {
+        assertThat(commonMatch("com.example", "com.example")).isEqualTo("com.example");
+        assertThat(commonMatch("com.example", "com.other")).isNull();
+        assertThat(commonMatch("com.example.*", "com.example.foo")).isEqualTo("com.example.foo");
+        assertThat(commonMatch("com.*", "*.internal")).isEqualTo("com.internal");
+        assertThat(commonMatch("com.*", "org.*")).isNull();
+        assertThat(commonMatch("*.api", "*.impl")).isNull();
+        assertThat(commonMatch("com.*.api", "*.foo.*")).isEqualTo("com.foo.api");
+        assertThat(commonMatch("a*", "*b")).isEqualTo("ab");
+    }
+
+    @Test
+    public void findsCommonMatchOfRandomPatterns() {
+        Random random = new Random(42);
+        char[] alphabet = { 'a', 'b', '.', '*' };
+
+        // the shortest common match of patterns with up to 3 characters has at most 6 characters
+        List<String> candidates = new ArrayList<>();
+        candidates.add("");
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i).length() < 6) {
+                for (int c = 0; c < 3; c++) {
+                    candidates.add(candidates.get(i) + alphabet[c]);
+                }
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            PackagePattern first = PackagePattern.getPattern(randomString(random, alphabet, 3));
+            PackagePattern second = PackagePattern.getPattern(randomString(random, alphabet, 3));
+
+            String expected = candidates.stream()
+                    .filter(c -> first.matches(c) && second.matches(c))
+                    .findFirst()
+                    .orElse(null);
+            String actual = first.findCommonMatch(second);
+
+            if (expected == null) {
+                assertThat(actual).describedAs(first + " / " + second).isNull();
+            }
+            else {
+                assertThat(actual).describedAs(first + " / " + second).hasSameSizeAs(expected);
+                assertThat(first.matches(actual) && second.matches(actual)).isTrue();
+            }
+        }
+    }
+
+    private static String commonMatch(String first, String second) {
+        String match = PackagePattern.getPattern(first).findCommonMatch(PackagePattern.getPattern(second));
+        String reverse = PackagePattern.getPattern(second).findCommonMatch(PackagePattern.getPattern(first));
+        assertThat(reverse == null ? -1 : reverse.length()).isEqualTo(match == null ? -1 : match.length());
+        return match;
+    }
+
+    private static void assertMatchesLikeRegex(String pattern, String packageName) {
+        boolean expected = Pattern.matches(
+                Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).reduce((a, b) -> a + ".*" + b).get(),
+                packageName
+        );
+
+        assertThat(PackagePattern.getPattern(pattern).matches(packageName))
+                .describedAs(pattern + " ~ " + packageName)
+                .isEqualTo(expected);
+    }
+
+    private static String randomString(Random random, char[] alphabet, int maxLength) {
+        char[] chars = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(chars);
+    }
+}
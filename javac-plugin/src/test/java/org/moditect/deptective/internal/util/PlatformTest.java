@@ -0,0 +1,91 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.internal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.sun.source.util.TaskEvent;
+
+/**
+ * Checks the variant of {@link Platform} loaded for the running JDK. When running against the multi-release JAR (see
+ * the {@code multi-release} profile), this also checks that the variant for the running JDK is used.
+ */
+public class PlatformTest {
+
+    @Test
+    public void shouldLoadVariantForRunningJdk() {
+        String location = Platform.class.getResource("Platform.class").toString();
+        int version = getJavaVersion();
+
+        if (location.startsWith("jar:") && version >= 21) {
+            assertThat(location).contains("META-INF/versions/21/");
+        }
+        else {
+            assertThat(location).doesNotContain("META-INF/versions/");
+        }
+    }
+
+    @Test
+    public void shouldDetectCompilationEvent() {
+        boolean hasCompilationEvent = Arrays.stream(TaskEvent.Kind.values())
+                .anyMatch(k -> k.name().equals("COMPILATION"));
+
+        assertThat(Platform.hasCompilationEvent()).isEqualTo(hasCompilationEvent);
+        assertThat(Platform.isCompilationEvent(TaskEvent.Kind.ANALYZE)).isFalse();
+
+        if (hasCompilationEvent) {
+            assertThat(Platform.isCompilationEvent(TaskEvent.Kind.valueOf("COMPILATION"))).isTrue();
+        }
+    }
+
+    @Test
+    public void shouldRunTasksInBackgroundThread() throws Exception {
+        ExecutorService executor = Platform.newBackgroundExecutor();
+
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+            assertThat(thread.getName()).isEqualTo(BackgroundThreads.NAME);
+            assertThat(thread.isDaemon()).isTrue();
+            assertThat(isVirtual(thread)).isEqualTo(
+                    Platform.class.getResource("Platform.class").toString().contains("META-INF/versions/21/")
+            );
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int getJavaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -88,4 +88,47 @@ public class AnalyzeTest extends PluginTestBase {
 
         JSONAssert.assertEquals(expectedConfig, generatedConfig, JSONCompareMode.LENIENT);
     }
+
+    @Test
+    public void shouldSuggestComponents() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "analyze",
+                                Options.WHITELISTED, "java.math",
+                                Options.SUGGEST_COMPONENTS, "true"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining(
+                "Created suggested grouping of 3 package(s) into 1 component(s) at mem:///SOURCE_OUTPUT/deptective-suggested.json"
+        );
+
+        // the three packages all reference each other, so they are grouped into one component
+        String expectedConfig = lines(
+                "{",
+                "    \"components\" : [ {",
+                "      \"name\" : \"org.moditect.deptective.plugintest.analyze\",",
+                "      \"contains\" : [",
+                "          \"org.moditect.deptective.plugintest.analyze.bar\",",
+                "          \"org.moditect.deptective.plugintest.analyze.foo\",",
+                "          \"org.moditect.deptective.plugintest.analyze.qux\" ]",
+                "    } ],",
+                "    \"whitelisted\" : [ \"java.math\" ]",
+                "}"
+        );
+
+        Optional<JavaFileObject> suggestedFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective-suggested.json");
+        assertThat(suggestedFile.isPresent()).isTrue();
+        String suggestedConfig = Strings.readToString(suggestedFile.get().openInputStream());
+
+        JSONAssert.assertEquals(expectedConfig, suggestedConfig, JSONCompareMode.STRICT);
+    }
 }
@@ -0,0 +1,106 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.plugintest.analyzetypes;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.moditect.deptective.internal.util.Strings.lines;
+
+import java.util.Optional;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
+import org.moditect.deptective.internal.util.Strings;
+import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.analyzetypes.bar.Bar;
+import org.moditect.deptective.plugintest.analyzetypes.bar.barsub.BarSub;
+import org.moditect.deptective.plugintest.analyzetypes.foo.Foo;
+import org.moditect.deptective.testutil.TestOptions;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+
+public class AnalyzeTypesTest extends PluginTestBase {
+
+    @Test
+    public void shouldGenerateTypeDependencies() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.GRANULARITY, "TYPE",
+                                Options.COMPONENTS, "bar:org.moditect.deptective.plugintest.analyzetypes.bar*"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(BarSub.class),
+                        forTestClass(Foo.class)
+                );
+
+        assertThat(compilation).succeeded();
+
+        assertThat(compilation).hadNoteContaining(
+                "Created type-level dependency graph at mem:///SOURCE_OUTPUT/deptective-types.json"
+        );
+        assertThat(compilation).hadNoteCount(2);
+
+        Optional<JavaFileObject> typesFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective-types.json");
+        assertThat(typesFile.isPresent()).isTrue();
+        String generated = Strings.readToString(typesFile.get().openInputStream());
+        String expected = lines(
+                "{",
+                "  \"types\" : [ {",
+                "    \"name\" : \"PKG.bar.barsub.BarSub\",",
+                "    \"reads\" : { \"PKG.bar.Bar\" : 1 }",
+                "  }, {",
+                "    \"name\" : \"PKG.foo.Foo\",",
+                "    \"reads\" : {",
+                "      \"java.util.List\" : 1,",
+                "      \"PKG.bar.Bar\" : 3,",
+                "      \"PKG.bar.barsub.BarSub\" : 1",
+                "    }",
+                "  }, {",
+                "    \"name\" : \"PKG.foo.Foo$Inner\",",
+                "    \"reads\" : { \"PKG.bar.Bar\" : 1 }",
+                "  } ],",
+                "  \"packages\" : [ {",
+                "    \"name\" : \"PKG.bar.barsub\",",
+                "    \"reads\" : { \"PKG.bar\" : 1 }",
+                "  }, {",
+                "    \"name\" : \"PKG.foo\",",
+                "    \"reads\" : {",
+                "      \"java.util\" : 1,",
+                "      \"PKG.bar\" : 4,",
+                "      \"PKG.bar.barsub\" : 1",
+                "    }",
+                "  } ],",
+                "  \"components\" : [ {",
+                "    \"name\" : \"PKG.foo\",",
+                "    \"reads\" : { \"bar\" : 5, \"java.util\" : 1 }",
+                "  } ]",
+                "}"
+        ).replace("PKG", "org.moditect.deptective.plugintest.analyzetypes");
+
+        JSONAssert.assertEquals(expected, generated, JSONCompareMode.LENIENT);
+    }
+}
@@ -108,4 +108,67 @@ public class AnalyzeWithDefinedComponentsTest extends PluginTestBase {
 
         JSONAssert.assertEquals(expectedConfig, generatedConfig, JSONCompareMode.LENIENT);
     }
+
+    @Test
+    public void shouldGenerateRollUps() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.WHITELISTED, "*ALL_EXTERNAL*",
+                                Options.COMPONENTS, "bar:org.moditect.deptective.plugintest.analyzewithcomponent.bar," +
+                                        "org.moditect.deptective.plugintest.analyzewithcomponent.bar.barsub*;" +
+                                        "qux:org.moditect.deptective.plugintest.analyzewithcomponent.qux*",
+                                Options.ROLLUPS, "6,7,components"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(BarSub1.class),
+                        forTestClass(BarSub2.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class),
+                        forTestClass(QuxSub1.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining(
+                "Created roll-up of package dependencies by depth6 at mem:///SOURCE_OUTPUT/deptective-rollup-depth6.json"
+        );
+        assertThat(compilation).hadNoteContaining(
+                "Created roll-up of package dependencies by components at mem:///SOURCE_OUTPUT/deptective-rollup-components.json"
+        );
+
+        String prefix = "org.moditect.deptective.plugintest.analyzewithcomponent.";
+
+        // the sub-packages are merged into their parent at depth 6, but retained at depth 7
+        JSONAssert.assertEquals(
+                "{ \"depth6\" : [ { \"name\" : \"" + prefix + "foo\", \"reads\" : { \"" + prefix + "bar\" : 9, \"" +
+                        prefix + "qux\" : 6 } } ] }",
+                generatedFile(compilation, "deptective-rollup-depth6.json"),
+                JSONCompareMode.STRICT
+        );
+        JSONAssert.assertEquals(
+                "{ \"depth7\" : [ { \"name\" : \"" + prefix + "foo\", \"reads\" : { \"" + prefix + "bar\" : 3, \"" +
+                        prefix + "bar.barsub1\" : 3, \"" + prefix + "bar.barsub2\" : 3, \"" + prefix + "qux\" : 3, \"" +
+                        prefix + "qux.quxsub1\" : 3 } } ] }",
+                generatedFile(compilation, "deptective-rollup-depth7.json"),
+                JSONCompareMode.STRICT
+        );
+        JSONAssert.assertEquals(
+                "{ \"components\" : [ { \"name\" : \"" + prefix
+                        + "foo\", \"reads\" : { \"bar\" : 9, \"qux\" : 6 } } ] }",
+                generatedFile(compilation, "deptective-rollup-components.json"),
+                JSONCompareMode.STRICT
+        );
+
+        assertThat(generatedFile(compilation, "deptective-rollup-components.dot"))
+                .contains("\"" + prefix + "foo\" -> \"bar\" [label=9];");
+    }
+
+    private String generatedFile(Compilation compilation, String name) throws Exception {
+        Optional<JavaFileObject> file = compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, name);
+        assertThat(file.isPresent()).isTrue();
+        return Strings.readToString(file.get().openInputStream());
+    }
 }
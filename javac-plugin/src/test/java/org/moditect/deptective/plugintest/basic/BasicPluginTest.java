@@ -18,6 +18,10 @@ package org.moditect.deptective.plugintest.basic;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static org.junit.Assert.assertThat;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -330,4 +334,154 @@ public class BasicPluginTest extends PluginTestBase {
         assertThat(compilation).hadWarningContaining(
                 packageFooMustNotAccess("org.moditect.deptective.plugintest.basic.barfield"));
     }
+
+    @Test
+    public void shouldLimitReportsPerEdgeAndFile() {
+        List<String> allErrors = compile().errors()
+                .stream()
+                .map(d -> d.getMessage(null))
+                .collect(Collectors.toList());
+        List<String> distinctErrors = allErrors.stream().distinct().collect(Collectors.toList());
+
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption(),
+                                Options.MAX_REPORTS_PER_EDGE, "1"
+                                )
+                        )
+                .compile(forTestClass(Foo.class));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining(
+                "more occurrence(s) of the reference from org.moditect.deptective.plugintest.basic.foo to "
+                        + "org.moditect.deptective.plugintest.basic.bar"
+                );
+        assertThat(
+                compilation.errors().stream().filter(d -> !d.getMessage(null).contains("more occurrence(s)")).count(),
+                Is.is((long) distinctErrors.size())
+                );
+
+        compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption(),
+                                Options.MAX_REPORTS_PER_FILE, "3"
+                                )
+                        )
+                .compile(forTestClass(Foo.class));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(4);
+        assertThat(compilation).hadErrorContaining((allErrors.size() - 3) + " more violation(s) in this file");
+    }
+
+    @Test
+    public void shouldNotLimitReportsUponInvalidLimits() {
+        int errorCount = compile().errors().size();
+
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption(),
+                                Options.MAX_REPORTS_PER_EDGE, "-1",
+                                Options.MAX_REPORTS_PER_FILE, "few"
+                                )
+                        )
+                .compile(forTestClass(Foo.class));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(errorCount);
+        assertThat(compilation).hadWarningContaining(
+                "invalid value -1 of option max_reports_per_edge, using the default value instead"
+                );
+        assertThat(compilation).hadWarningContaining(
+                "invalid value few of option max_reports_per_file, using the default value instead"
+                );
+    }
+
+    @Test
+    public void shouldOnlyReportViolationsNotContainedInBaseline() throws IOException {
+        Path baselineFile = Files.createTempFile("deptective-baseline", ".txt");
+
+        // a violation in a file not compiled below and a stale one in a compiled file
+        String otherFile = "org/moditect/deptective/plugintest/basic/foo/Other.java\t"
+                + "org.moditect.deptective.plugintest.basic.foo\t"
+                + "org.moditect.deptective.plugintest.basic.barfield\t"
+                + "deptective.illegalpackagedependency";
+        String stale = "org/moditect/deptective/plugintest/basic/foo/Foo.java\t"
+                + "org.moditect.deptective.plugintest.basic.foo\t"
+                + "org.moditect.deptective.plugintest.basic.removed\t"
+                + "deptective.illegalpackagedependency";
+        Files.write(baselineFile, Arrays.asList(otherFile, stale));
+
+        try {
+            Compilation compilation = Compiler.javac()
+                    .withOptions(
+                            TestOptions.deptectiveOptions(
+                                    Options.CONFIG_FILE, getConfigFileOption(),
+                                    Options.BASELINE_FILE, baselineFile.toString(),
+                                    Options.UPDATE_BASELINE, "true"
+                                    )
+                            )
+                    .compile(forTestClass(Foo.class));
+
+            assertThat(compilation).succeeded();
+
+            String barField = "org/moditect/deptective/plugintest/basic/foo/Foo.java\t"
+                    + "org.moditect.deptective.plugintest.basic.foo\t"
+                    + "org.moditect.deptective.plugintest.basic.barfield\t"
+                    + "deptective.illegalpackagedependency";
+            List<String> violations = Files.readAllLines(baselineFile);
+            assertThat(violations.contains(barField), Is.is(true));
+            assertThat(violations.contains(otherFile), Is.is(true));
+            assertThat(violations.contains(stale), Is.is(false));
+
+            violations.remove(barField);
+            Files.write(baselineFile, violations);
+
+            compilation = Compiler.javac()
+                    .withOptions(
+                            TestOptions.deptectiveOptions(
+                                    Options.CONFIG_FILE, getConfigFileOption(),
+                                    Options.BASELINE_FILE, baselineFile.toString()
+                                    )
+                            )
+                    .compile(forTestClass(Foo.class));
+
+            assertThat(compilation).failed();
+            assertThat(compilation).hadErrorContaining(
+                    packageFooMustNotAccess("org.moditect.deptective.plugintest.basic.barfield")
+                    );
+            assertThat(
+                    compilation.errors()
+                            .stream()
+                            .allMatch(d -> d.getMessage(null).endsWith("basic.barfield")),
+                    Is.is(true)
+                    );
+        }
+        finally {
+            Files.delete(baselineFile);
+        }
+    }
+
+    @Test
+    public void shouldReportAllViolationsIfBaselineFileIsMissing() throws IOException {
+        Path baselineFile = Files.createTempFile("deptective-baseline", ".txt");
+        Files.delete(baselineFile);
+
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption(),
+                                Options.BASELINE_FILE, baselineFile.toString()
+                                )
+                        )
+                .compile(forTestClass(Foo.class));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining(
+                packageFooMustNotAccess("org.moditect.deptective.plugintest.basic.barfield")
+                );
+    }
 }
@@ -62,6 +62,17 @@ public class CycleTest extends PluginTestBase {
         assertThat(compilation).hadErrorContaining("Architecture model contains cycle(s) between these components:");
         assertThat(compilation).hadErrorContaining("  - bar, baz, foo, qux");
         assertThat(compilation).hadErrorContaining("  - abc, def");
+
+        // one shortest cycle through each member not covered yet
+        assertThat(compilation).hadErrorContaining(
+                "  - bar, baz, foo, qux" + System.lineSeparator() +
+                        "      bar -> qux -> bar" + System.lineSeparator() +
+                        "      baz -> foo -> bar -> baz"
+        );
+        assertThat(compilation).hadErrorContaining(
+                "  - abc, def" + System.lineSeparator() +
+                        "      abc -> def -> abc"
+        );
     }
 
     @Test
@@ -104,13 +115,13 @@ public class CycleTest extends PluginTestBase {
                 "  \"qux\";",
                 "  subgraph Cycle {",
                 "    edge [color=purple, penwidth=2]",
-                "    \"abc\" -> \"def\";",
-                "    \"bar\" -> \"baz\";",
-                "    \"bar\" -> \"qux\";",
-                "    \"baz\" -> \"foo\";",
-                "    \"def\" -> \"abc\";",
-                "    \"foo\" -> \"bar\";",
-                "    \"qux\" -> \"bar\";",
+                "    \"abc\" -> \"def\" [label=2];",
+                "    \"bar\" -> \"baz\" [label=2];",
+                "    \"bar\" -> \"qux\" [label=2];",
+                "    \"baz\" -> \"foo\" [label=2];",
+                "    \"def\" -> \"abc\" [label=2];",
+                "    \"foo\" -> \"bar\" [label=3];",
+                "    \"qux\" -> \"bar\" [label=2];",
                 "  }",
                 "}"
         );
@@ -122,4 +133,35 @@ public class CycleTest extends PluginTestBase {
 
         assertThat(generatedConfig).isEqualTo(expectedConfig);
     }
+
+    @Test
+    public void shouldUseDefaultForInvalidMaxCycleLength() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.CYCLE_REPORTING_POLICY, "WARN",
+                                Options.MAX_CYCLES, "5",
+                                Options.MAX_CYCLE_LENGTH, "0"
+                        )
+                )
+                .compile(
+                        forTestClass(Foo.class),
+                        forTestClass(Bar.class),
+                        forTestClass(Baz.class),
+                        forTestClass(Qux.class),
+                        forTestClass(Abc.class),
+                        forTestClass(Def.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "invalid value 0 of option max_cycle_length, using the default value instead"
+        );
+
+        Optional<JavaFileObject> cyclesFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective-cycles.json");
+        assertThat(cyclesFile.isPresent()).isTrue();
+        assertThat(Strings.readToString(cyclesFile.get().openInputStream())).contains("\"complete\"");
+    }
 }
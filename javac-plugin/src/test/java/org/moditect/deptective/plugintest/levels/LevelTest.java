@@ -0,0 +1,173 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.plugintest.levels;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
+import org.moditect.deptective.internal.util.Strings;
+import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.levels.model.Model;
+import org.moditect.deptective.plugintest.levels.persistence.Repository;
+import org.moditect.deptective.plugintest.levels.ui.Ui;
+import org.moditect.deptective.testutil.TestOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+
+public class LevelTest extends PluginTestBase {
+
+    @Test
+    public void shouldDetectReadsOfComponentsOnSameOrHigherLevel() {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption()
+                        )
+                )
+                .compile(
+                        forTestClass(Model.class),
+                        forTestClass(Repository.class),
+                        forTestClass(Ui.class)
+                );
+
+        assertThat(compilation).failed();
+        // the import and the field
+        assertThat(compilation).hadErrorCount(2);
+        assertThat(compilation).hadErrorContaining(
+                "package persistence on level 0 must not access org.moditect.deptective.plugintest.levels.model on " +
+                        "level 0"
+        )
+                .inFile(forTestClass(Repository.class));
+    }
+
+    @Test
+    public void shouldNotReportReadsWithinCycleOnSameLevel() throws IOException {
+        Path configFile = Files.createTempFile("deptective", ".json");
+
+        try {
+            // model and persistence read each other, so they share one level
+            Files.write(
+                    configFile,
+                    Strings.lines(
+                            "{",
+                            "    \"components\" : [",
+                            "        {",
+                            "            \"name\" : \"ui\",",
+                            "            \"level\" : 1,",
+                            "            \"contains\" : [ \"org.moditect.deptective.plugintest.levels.ui\" ],",
+                            "            \"reads\" : [ \"persistence\" ]",
+                            "        },",
+                            "        {",
+                            "            \"name\" : \"persistence\",",
+                            "            \"level\" : 0,",
+                            "            \"contains\" : [ \"org.moditect.deptective.plugintest.levels.persistence\" ],",
+                            "            \"reads\" : [ \"model\" ]",
+                            "        },",
+                            "        {",
+                            "            \"name\" : \"model\",",
+                            "            \"level\" : 0,",
+                            "            \"contains\" : [ \"org.moditect.deptective.plugintest.levels.model\" ],",
+                            "            \"reads\" : [ \"persistence\" ]",
+                            "        }",
+                            "    ]",
+                            "}"
+                    )
+                            .getBytes(StandardCharsets.UTF_8)
+            );
+
+            Compilation compilation = Compiler.javac()
+                    .withOptions(
+                            TestOptions.deptectiveOptions(
+                                    Options.CONFIG_FILE, configFile.toString(),
+                                    Options.CYCLE_REPORTING_POLICY, "WARN"
+                            )
+                    )
+                    .compile(
+                            forTestClass(Model.class),
+                            forTestClass(Repository.class),
+                            forTestClass(Ui.class)
+                    );
+
+            assertThat(compilation).succeeded();
+            assertThat(compilation).hadWarningCount(1);
+            assertThat(compilation).hadWarningContaining("Architecture model contains cycle(s)");
+        }
+        finally {
+            Files.delete(configFile);
+        }
+    }
+
+    @Test
+    public void shouldValidateCodeBaseAgainstAnalyzedConfiguration() throws IOException {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE"
+                        )
+                )
+                .compile(
+                        forTestClass(Model.class),
+                        forTestClass(Repository.class),
+                        forTestClass(Ui.class)
+                );
+
+        assertThat(compilation).succeeded();
+
+        Optional<JavaFileObject> deptectiveFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.json");
+        assertThat(deptectiveFile.isPresent()).isTrue();
+        String generatedConfig = Strings.readToString(deptectiveFile.get().openInputStream());
+
+        // levels are only enforced if configured explicitly
+        assertThat(generatedConfig).doesNotContain("\"level\"");
+
+        Path configFile = Files.createTempFile("deptective", ".json");
+
+        try {
+            Files.write(configFile, generatedConfig.getBytes(StandardCharsets.UTF_8));
+
+            compilation = Compiler.javac()
+                    .withOptions(
+                            TestOptions.deptectiveOptions(
+                                    Options.CONFIG_FILE, configFile.toString()
+                            )
+                    )
+                    .compile(
+                            forTestClass(Model.class),
+                            forTestClass(Repository.class),
+                            forTestClass(Ui.class)
+                    );
+
+            assertThat(compilation).succeeded();
+            assertThat(compilation).hadWarningCount(0);
+        }
+        finally {
+            Files.delete(configFile);
+        }
+    }
+}
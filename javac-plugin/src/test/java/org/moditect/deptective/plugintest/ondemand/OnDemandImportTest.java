@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.plugintest.ondemand;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+
+import javax.tools.JavaFileObject;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
+import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.ondemand.bar.BarBound;
+import org.moditect.deptective.plugintest.ondemand.bar.BarInterface;
+import org.moditect.deptective.plugintest.ondemand.bar.BarRetVal;
+import org.moditect.deptective.plugintest.ondemand.bar.BarSuper;
+import org.moditect.deptective.plugintest.ondemand.bar.BarTypeArg;
+import org.moditect.deptective.plugintest.ondemand.foo.Foo;
+import org.moditect.deptective.testutil.TestOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+
+/**
+ * The referenced types are only imported on demand here, so the illegal references must be detected at the
+ * extends and implements clauses, type arguments, type parameter bounds and method return types themselves.
+ */
+public class OnDemandImportTest extends PluginTestBase {
+
+    private static final String FOO_MUST_NOT_ACCESS_BAR = "package foo must not access "
+            + "org.moditect.deptective.plugintest.ondemand.bar";
+
+    @Test
+    public void shouldDetectReferencesToTypesImportedOnDemand() {
+        JavaFileObject foo = forTestClass(Foo.class);
+
+        Compilation compilation = Compiler.javac()
+                .withOptions(TestOptions.deptectiveOptions(Options.CONFIG_FILE, getConfigFileOption()))
+                .compile(
+                        forTestClass(BarBound.class),
+                        forTestClass(BarInterface.class),
+                        forTestClass(BarRetVal.class),
+                        forTestClass(BarSuper.class),
+                        forTestClass(BarTypeArg.class),
+                        foo
+                );
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(5);
+
+        // extends and implements clause
+        assertThat(compilation).hadErrorContaining(FOO_MUST_NOT_ACCESS_BAR).inFile(foo).onLineContaining("BarSuper");
+        assertThat(compilation).hadErrorContaining(FOO_MUST_NOT_ACCESS_BAR)
+                .inFile(foo)
+                .onLineContaining("BarInterface");
+
+        // type argument
+        assertThat(compilation).hadErrorContaining(FOO_MUST_NOT_ACCESS_BAR)
+                .inFile(foo)
+                .onLineContaining("BarTypeArg");
+
+        // method return type
+        assertThat(compilation).hadErrorContaining(FOO_MUST_NOT_ACCESS_BAR)
+                .inFile(foo)
+                .onLineContaining("BarRetVal");
+
+        // type parameter bound
+        assertThat(compilation).hadErrorContaining(FOO_MUST_NOT_ACCESS_BAR)
+                .inFile(foo)
+                .onLineContaining("BarBound");
+    }
+}
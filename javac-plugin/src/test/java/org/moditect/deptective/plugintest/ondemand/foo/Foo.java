@@ -0,0 +1,32 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.plugintest.ondemand.foo;
+
+import java.util.List;
+
+import org.moditect.deptective.plugintest.ondemand.bar.*;
+
+public class Foo extends BarSuper implements BarInterface {
+
+    private List<BarTypeArg> typeArgs;
+
+    public BarRetVal getRetVal() {
+        return null;
+    }
+
+    static class Generic<T extends BarBound> {
+    }
+}
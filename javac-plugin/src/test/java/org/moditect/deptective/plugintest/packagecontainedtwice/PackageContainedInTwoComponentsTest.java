@@ -20,6 +20,7 @@ import static com.google.testing.compile.CompilationSubject.assertThat;
 import org.junit.Test;
 import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
 import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.packagecontainedtwice.bar.Bar;
 import org.moditect.deptective.plugintest.packagecontainedtwice.foo.Foo;
 import org.moditect.deptective.testutil.TestOptions;
 
@@ -28,6 +29,10 @@ import com.google.testing.compile.Compiler;
 
 public class PackageContainedInTwoComponentsTest extends PluginTestBase {
 
+    private static final String OVERLAP = "pattern org.moditect.deptective.plugintest.packagecontainedtwice.foo of "
+            + "component foo1 and pattern org.moditect.deptective.plugintest.packagecontainedtwice.foo of component "
+            + "foo2 overlap";
+
     @Test
     public void shouldFailWhenSamePackageIsContainedInMultipleComponents() {
         Compilation compilation = Compiler.javac()
@@ -38,8 +43,22 @@ public class PackageContainedInTwoComponentsTest extends PluginTestBase {
 
         assertThat(compilation).failed();
         assertThat(compilation).hadNoteCount(0);
-        assertThat(compilation).hadErrorContaining(
-                "Multiple components match package org.moditect.deptective.plugintest.packagecontainedtwice.foo: foo1, foo2"
-        );
+        assertThat(compilation).hadErrorCount(1);
+        assertThat(compilation).hadErrorContaining(OVERLAP);
+    }
+
+    @Test
+    public void shouldFailWhenReferencingPackageContainedInMultipleComponents() {
+        Compilation compilation = Compiler.javac()
+                .withOptions(TestOptions.deptectiveOptions(Options.CONFIG_FILE, getConfigFileOption()))
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class)
+                );
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadNoteCount(0);
+        assertThat(compilation).hadErrorCount(1);
+        assertThat(compilation).hadErrorContaining(OVERLAP);
     }
 }
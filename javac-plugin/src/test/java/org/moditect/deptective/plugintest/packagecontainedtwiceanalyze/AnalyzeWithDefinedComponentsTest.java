@@ -20,6 +20,7 @@ import static com.google.testing.compile.CompilationSubject.assertThat;
 import org.junit.Test;
 import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
 import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.bar.Bar;
 import org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo.Foo;
 import org.moditect.deptective.testutil.TestOptions;
 
@@ -28,6 +29,10 @@ import com.google.testing.compile.Compiler;
 
 public class AnalyzeWithDefinedComponentsTest extends PluginTestBase {
 
+    private static final String OVERLAP = "pattern org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo "
+            + "of component foo1 and pattern org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo of "
+            + "component foo2 overlap";
+
     @Test
     public void shouldFailUponAnalyzeWithPackageMatchedByMultipleComponents() throws Exception {
         Compilation compilation = Compiler.javac()
@@ -43,8 +48,26 @@ public class AnalyzeWithDefinedComponentsTest extends PluginTestBase {
 
         assertThat(compilation).failed();
         assertThat(compilation).hadNoteCount(0);
-        assertThat(compilation).hadErrorContaining(
-                "Multiple components match package org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo: foo1, foo2"
-        );
+        assertThat(compilation).hadErrorCount(1);
+        assertThat(compilation).hadErrorContaining(OVERLAP);
+    }
+
+    @Test
+    public void shouldFailUponAnalyzeReferencingPackageMatchedByMultipleComponents() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.COMPONENTS,
+                                "foo1:org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo;" +
+                                        "foo2:org.moditect.deptective.plugintest.packagecontainedtwiceanalyze.foo"
+                        )
+                )
+                .compile(forTestClass(Bar.class), forTestClass(Foo.class));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadNoteCount(0);
+        assertThat(compilation).hadErrorCount(1);
+        assertThat(compilation).hadErrorContaining(OVERLAP);
     }
 }
@@ -0,0 +1,80 @@
+/**
+ *  Copyright 2019-2022 The ModiTect authors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.moditect.deptective.plugintest.transitive;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+
+import org.junit.Test;
+import org.moditect.deptective.internal.options.DeptectiveOptions.Options;
+import org.moditect.deptective.plugintest.PluginTestBase;
+import org.moditect.deptective.plugintest.transitive.model.Model;
+import org.moditect.deptective.plugintest.transitive.persistence.Repository;
+import org.moditect.deptective.plugintest.transitive.service.Service;
+import org.moditect.deptective.plugintest.transitive.ui.Ui;
+import org.moditect.deptective.testutil.TestOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+
+public class ForbiddenTransitiveDependencyTest extends PluginTestBase {
+
+    @Test
+    public void shouldDetectForbiddenTransitiveDependencies() {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption()
+                        )
+                )
+                .compile(
+                        forTestClass(Model.class),
+                        forTestClass(Repository.class),
+                        forTestClass(Service.class),
+                        forTestClass(Ui.class)
+                );
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(2);
+        assertThat(compilation).hadErrorContaining(
+                "component ui must not depend on persistence, not even transitively: ui -> service -> persistence"
+        );
+        assertThat(compilation).hadErrorContaining(
+                "component service must not depend on model, not even transitively: service -> model"
+        );
+    }
+
+    @Test
+    public void shouldReportForbiddenTransitiveDependenciesAsWarning() {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.CONFIG_FILE, getConfigFileOption(),
+                                Options.REPORTING_POLICY, "WARN"
+                        )
+                )
+                .compile(
+                        forTestClass(Model.class),
+                        forTestClass(Repository.class),
+                        forTestClass(Service.class),
+                        forTestClass(Ui.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "component ui must not depend on persistence, not even transitively: ui -> service -> persistence"
+        );
+    }
+}
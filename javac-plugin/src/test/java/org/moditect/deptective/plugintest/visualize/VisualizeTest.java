@@ -18,8 +18,12 @@ package org.moditect.deptective.plugintest.visualize;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 
@@ -29,14 +33,197 @@ import org.moditect.deptective.internal.util.Strings;
 import org.moditect.deptective.plugintest.PluginTestBase;
 import org.moditect.deptective.plugintest.visualize.bar.Bar;
 import org.moditect.deptective.plugintest.visualize.foo.Foo;
+import org.moditect.deptective.plugintest.visualize.qux.Quux;
 import org.moditect.deptective.plugintest.visualize.qux.Qux;
 import org.moditect.deptective.testutil.TestOptions;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
 
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.Compiler;
 
 public class VisualizeTest extends PluginTestBase {
 
+    @Test
+    public void shouldReportReferenceClosingCycleAndFailFast() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.CYCLE_REPORTING_POLICY, "ERROR",
+                                Options.FAIL_FAST, "true",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(1);
+        assertThat(compilation).hadErrorContaining(
+                "reference from org.moditect.deptective.plugintest.visualize.qux to " +
+                        "org.moditect.deptective.plugintest.visualize.bar closes a cycle: " +
+                        "org.moditect.deptective.plugintest.visualize.qux -> " +
+                        "org.moditect.deptective.plugintest.visualize.bar -> " +
+                        "org.moditect.deptective.plugintest.visualize.qux"
+        )
+                .inFile(forTestClass(Qux.class));
+
+        // no configuration template is generated
+        assertThat(compilation).hadNoteCount(0);
+    }
+
+    @Test
+    public void shouldIgnoreInvalidVisualizationWithWarning() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.VISUALIZE, "yes",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "invalid value yes of option visualize, using the default value instead"
+        );
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.dot").isPresent()).isFalse();
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.json").isPresent()).isTrue();
+    }
+
+    @Test
+    public void shouldIgnoreInvalidOutputTimeoutWithWarning() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.OUTPUT_TIMEOUT, "soon",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "invalid value soon of option output_timeout, using the default value instead"
+        );
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.json").isPresent()).isTrue();
+    }
+
+    @Test
+    public void shouldEmitMessagesAndFilesOfBackgroundCompletionInOrder() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.VISUALIZE, "true",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+
+        // messages of the background completion and notes of the files it wrote are emitted in order of reporting
+        List<String> messages = compilation.diagnostics()
+                .stream()
+                .map(d -> d.getKind() + ": " + d.getMessage(Locale.ROOT).split("\\R")[0].trim())
+                .collect(Collectors.toList());
+
+        assertThat(messages).containsExactly(
+                Diagnostic.Kind.NOTE + ": Generated Deptective configuration template at " +
+                        "mem:///SOURCE_OUTPUT/deptective.json",
+                Diagnostic.Kind.WARNING + ": Analysed code base contains cycle(s) between these components:",
+                Diagnostic.Kind.NOTE + ": Created DOT file representing the Deptective configuration at " +
+                        "mem:///SOURCE_OUTPUT/deptective.dot"
+        );
+
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.json").isPresent()).isTrue();
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.dot").isPresent()).isTrue();
+    }
+
+    @Test
+    public void shouldGenerateMetricsFile() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.METRICS, "true",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class),
+                        forTestClass(Quux.class)
+                );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining(
+                "Created component metrics at mem:///SOURCE_OUTPUT/deptective-metrics.json"
+        );
+
+        // qux declares an interface; no component is on the shortest path between two others
+        String expectedMetrics = Strings.lines(
+                "{",
+                "  \"components\" : [",
+                "    {",
+                "      \"name\" : \"org.moditect.deptective.plugintest.visualize.bar\",",
+                "      \"types\" : 1, \"abstractTypes\" : 0,",
+                "      \"afferentCoupling\" : 2, \"efferentCoupling\" : 1,",
+                "      \"instability\" : 0.3333333333333333, \"abstractness\" : 0.0, \"distance\" : 0.6666666666666667,",
+                "      \"betweenness\" : 0.0, \"level\" : 0,",
+                "      \"reads\" : { \"org.moditect.deptective.plugintest.visualize.qux\" : 3 }",
+                "    },",
+                "    {",
+                "      \"name\" : \"org.moditect.deptective.plugintest.visualize.foo\",",
+                "      \"types\" : 1, \"abstractTypes\" : 0,",
+                "      \"afferentCoupling\" : 0, \"efferentCoupling\" : 2,",
+                "      \"instability\" : 1.0, \"abstractness\" : 0.0, \"distance\" : 0.0,",
+                "      \"betweenness\" : 0.0, \"level\" : 1,",
+                "      \"reads\" : {",
+                "        \"org.moditect.deptective.plugintest.visualize.bar\" : 3,",
+                "        \"org.moditect.deptective.plugintest.visualize.qux\" : 3",
+                "      }",
+                "    },",
+                "    {",
+                "      \"name\" : \"org.moditect.deptective.plugintest.visualize.qux\",",
+                "      \"types\" : 2, \"abstractTypes\" : 1,",
+                "      \"afferentCoupling\" : 2, \"efferentCoupling\" : 1,",
+                "      \"instability\" : 0.3333333333333333, \"abstractness\" : 0.5, \"distance\" : 0.16666666666666674,",
+                "      \"betweenness\" : 0.0, \"level\" : 0,",
+                "      \"reads\" : { \"org.moditect.deptective.plugintest.visualize.bar\" : 2 }",
+                "    }",
+                "  ]",
+                "}"
+        );
+
+        Optional<JavaFileObject> metricsFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective-metrics.json");
+        assertThat(metricsFile.isPresent()).isTrue();
+        String generatedMetrics = Strings.readToString(metricsFile.get().openInputStream());
+
+        JSONAssert.assertEquals(expectedMetrics, generatedMetrics, JSONCompareMode.STRICT);
+    }
+
     @Test
     public void shouldGenerateDotFileForAnalyse() throws Exception {
         Compilation compilation = Compiler.javac()
@@ -60,6 +247,8 @@ public class VisualizeTest extends PluginTestBase {
         );
         assertThat(compilation).hadNoteCount(2);
 
+        // the cycle is reported once, not also at the reference closing it
+        assertThat(compilation).hadWarningCount(1);
         assertThat(compilation).hadWarningContaining("Analysed code base contains cycle(s) between these components:");
         assertThat(compilation).hadWarningContaining(
                 "  - org.moditect.deptective.plugintest.visualize.bar, org.moditect.deptective.plugintest.visualize.qux"
@@ -68,17 +257,17 @@ public class VisualizeTest extends PluginTestBase {
         String expectedConfig = Strings.lines(
                 "digraph \"package dependencies\"",
                 "{",
-                "  \"org.moditect.deptective.plugintest.visualize.bar\";",
-                "  \"org.moditect.deptective.plugintest.visualize.foo\";",
-                "  \"org.moditect.deptective.plugintest.visualize.qux\";",
+                "  \"org.moditect.deptective.plugintest.visualize.bar\" [level=0];",
+                "  \"org.moditect.deptective.plugintest.visualize.foo\" [level=1];",
+                "  \"org.moditect.deptective.plugintest.visualize.qux\" [level=0];",
                 "  subgraph Allowed {",
-                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.bar\";",
-                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.qux\";",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.bar\" [label=3];",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.qux\" [label=3];",
                 "  }",
                 "  subgraph Cycle {",
                 "    edge [color=purple, penwidth=2]",
-                "    \"org.moditect.deptective.plugintest.visualize.bar\" -> \"org.moditect.deptective.plugintest.visualize.qux\";",
-                "    \"org.moditect.deptective.plugintest.visualize.qux\" -> \"org.moditect.deptective.plugintest.visualize.bar\";",
+                "    \"org.moditect.deptective.plugintest.visualize.bar\" -> \"org.moditect.deptective.plugintest.visualize.qux\" [label=3];",
+                "    \"org.moditect.deptective.plugintest.visualize.qux\" -> \"org.moditect.deptective.plugintest.visualize.bar\" [label=2];",
                 "  }",
                 "}"
         );
@@ -122,16 +311,99 @@ public class VisualizeTest extends PluginTestBase {
                 "  \"org.moditect.deptective.plugintest.visualize.foo\";",
                 "  \"org.moditect.deptective.plugintest.visualize.qux\";",
                 "  subgraph Allowed {",
-                "    \"org.moditect.deptective.plugintest.visualize.bar\" -> \"org.moditect.deptective.plugintest.visualize.qux\";",
-                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.qux\";",
+                "    \"org.moditect.deptective.plugintest.visualize.bar\" -> \"org.moditect.deptective.plugintest.visualize.qux\" [label=3];",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.qux\" [label=3];",
                 "  }",
                 "  subgraph Disallowed {",
                 "    edge [color=red, penwidth=2]",
-                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.bar\";",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"org.moditect.deptective.plugintest.visualize.bar\" [label=3];",
                 "  }",
                 "  subgraph Unknown {",
                 "    edge [color=yellow, penwidth=2]",
-                "    \"org.moditect.deptective.plugintest.visualize.qux\" -> \"org.moditect.deptective.plugintest.visualize.bar\";",
+                "    \"org.moditect.deptective.plugintest.visualize.qux\" -> \"org.moditect.deptective.plugintest.visualize.bar\" [label=2];",
+                "  }",
+                "}"
+        );
+
+        Optional<JavaFileObject> deptectiveFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective.dot");
+        assertThat(deptectiveFile.isPresent()).isTrue();
+        String generatedConfig = Strings.readToString(deptectiveFile.get().openInputStream());
+
+        assertThat(generatedConfig).isEqualTo(expectedConfig);
+    }
+
+    @Test
+    public void shouldGenerateDsmFile() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.DSM, "true",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+
+        assertThat(compilation).hadNoteContaining(
+                "Created dependency structure matrix at mem:///SOURCE_OUTPUT/deptective-dsm.json"
+        );
+
+        String expectedDsm = Strings.lines(
+                "{",
+                "  \"components\" : [",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\",",
+                "    \"org.moditect.deptective.plugintest.visualize.bar\",",
+                "    \"org.moditect.deptective.plugintest.visualize.qux\"",
+                "  ],",
+                "  \"cells\" : [",
+                "    { \"row\" : 0, \"column\" : 1, \"weight\" : 3 },",
+                "    { \"row\" : 0, \"column\" : 2, \"weight\" : 3 },",
+                "    { \"row\" : 1, \"column\" : 2, \"weight\" : 3, \"cycle\" : true },",
+                "    { \"row\" : 2, \"column\" : 1, \"weight\" : 2, \"cycle\" : true, \"upward\" : true }",
+                "  ]",
+                "}"
+        );
+
+        Optional<JavaFileObject> dsmFile = compilation
+                .generatedFile(StandardLocation.SOURCE_OUTPUT, "deptective-dsm.json");
+        assertThat(dsmFile.isPresent()).isTrue();
+        String generatedDsm = Strings.readToString(dsmFile.get().openInputStream());
+
+        JSONAssert.assertEquals(expectedDsm, generatedDsm, JSONCompareMode.STRICT);
+    }
+
+    @Test
+    public void shouldGenerateCondensedDotFile() throws Exception {
+        Compilation compilation = Compiler.javac()
+                .withOptions(
+                        TestOptions.deptectiveOptions(
+                                Options.MODE, "ANALYZE",
+                                Options.VISUALIZE, "reduced",
+                                Options.WHITELISTED, "java.math"
+                        )
+                )
+                .compile(
+                        forTestClass(Bar.class),
+                        forTestClass(Foo.class),
+                        forTestClass(Qux.class)
+                );
+
+        assertThat(compilation).succeeded();
+
+        String expectedConfig = Strings.lines(
+                "digraph \"package dependencies\"",
+                "{",
+                "  \"cycle 1\" [shape=box, color=purple, penwidth=2, label=\"cycle 1:\\norg.moditect.deptective.plugintest.visualize.bar\\norg.moditect.deptective.plugintest.visualize.qux\"];",
+                "  \"org.moditect.deptective.plugintest.visualize.foo\";",
+                "  subgraph Allowed {",
+                "    \"org.moditect.deptective.plugintest.visualize.foo\" -> \"cycle 1\" [label=6];",
                 "  }",
                 "}"
         );